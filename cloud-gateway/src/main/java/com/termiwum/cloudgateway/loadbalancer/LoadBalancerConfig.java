@@ -0,0 +1,41 @@
+package com.termiwum.cloudgateway.loadbalancer;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.termiwum.loadbalancer.InstanceStatsLifecycle;
+import com.termiwum.loadbalancer.InstanceStatsRegistry;
+import com.termiwum.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Uses the latency-aware load balancer of the loadbalancer-support module for
+ * every lb:// route instead of Spring Cloud LoadBalancer's round robin, with
+ * the gateway's own settings and metric names.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.latency-aware", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    InstanceStatsRegistry instanceStatsRegistry(MeterRegistry meterRegistry,
+            @Value("${gateway.load-balancer.smoothing:0.3}") double smoothing,
+            @Value("${gateway.load-balancer.failure-threshold:5}") int failureThreshold,
+            @Value("${gateway.load-balancer.ejection-time:30s}") Duration ejectionTime,
+            @Value("${gateway.load-balancer.decay-time:10s}") Duration decayTime) {
+        return new InstanceStatsRegistry(meterRegistry, "gateway.loadbalancer.ejections", smoothing, failureThreshold,
+                ejectionTime, decayTime);
+    }
+
+    @Bean
+    InstanceStatsLifecycle instanceStatsLifecycle(InstanceStatsRegistry instanceStatsRegistry) {
+        return new InstanceStatsLifecycle(instanceStatsRegistry);
+    }
+}
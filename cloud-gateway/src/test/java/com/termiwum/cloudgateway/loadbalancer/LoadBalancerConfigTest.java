@@ -0,0 +1,54 @@
+package com.termiwum.cloudgateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import com.termiwum.loadbalancer.InstanceStatsRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The load balancer itself is tested in loadbalancer-support; this covers the
+ * gateway's wiring of it: its settings, its metric name and its switch.
+ */
+public class LoadBalancerConfigTest {
+
+    // Boot's conversion service reads "30s" as a Duration, as it does in the application
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(LoadBalancerConfig.class);
+
+    @DisplayName("Gateway Load Balancer - Ejections Use Gateway Settings And Metric")
+    @Test
+    void test_When_Instance_Fails_Expect_Gateway_Ejection_Counted() {
+        contextRunner.withPropertyValues("gateway.load-balancer.failure-threshold=1").run(context -> {
+            ServiceInstance instance = new DefaultServiceInstance("PRODUCT-SERVICE-1", "PRODUCT-SERVICE",
+                    "localhost", 8081, false);
+            InstanceStatsRegistry instanceStatsRegistry = context.getBean(InstanceStatsRegistry.class);
+
+            instanceStatsRegistry.get(instance).start();
+            instanceStatsRegistry.recordCompletion(instance, TimeUnit.MILLISECONDS.toNanos(5), true);
+
+            assertThat(context.getBean(MeterRegistry.class).get("gateway.loadbalancer.ejections").counter().count())
+                    .isEqualTo(1);
+        });
+    }
+
+    @DisplayName("Gateway Load Balancer - Switched Off Leaves Round Robin")
+    @Test
+    void test_When_Latency_Aware_Off_Expect_No_Stats() {
+        contextRunner.withPropertyValues("gateway.load-balancer.latency-aware=false")
+                .run(context -> assertThat(context).doesNotHaveBean(InstanceStatsRegistry.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.termiwum.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and error state of one service instance as seen from this service: an
+ * EWMA of its response time, the calls currently in flight to it and how many
+ * calls in a row have failed. After failureThreshold failures in a row the
+ * instance is ejected for ejectionNanos; it gets traffic again after that, without
+ * waiting for the registry to drop it.
+ *
+ * The EWMA decays towards zero with the time since its last sample (by 1/e every
+ * decayNanos). An instance that keeps losing comparisons gets no new samples, so
+ * without the decay it would never be tried again after one slow spell.
+ */
+public class InstanceStats {
+
+    private final double smoothing;
+
+    private final int failureThreshold;
+
+    private final long ejectionNanos;
+
+    private final long decayNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double latencyEwma;
+
+    private volatile long lastSampleNanos;
+
+    private volatile long ejectedUntil;
+
+    private int consecutiveFailures;
+
+    public InstanceStats(double smoothing, int failureThreshold, long ejectionNanos, long decayNanos) {
+        this.smoothing = smoothing;
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = ejectionNanos;
+        this.decayNanos = decayNanos;
+    }
+
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a call; returns true when this call got the instance
+     * ejected. A negative rttNanos means the duration is unknown.
+     */
+    public boolean complete(long rttNanos, boolean failed, long nowNanos) {
+        inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        return update(rttNanos, failed, nowNanos);
+    }
+
+    private synchronized boolean update(long rttNanos, boolean failed, long nowNanos) {
+        if (rttNanos >= 0) {
+            // an old average weighs less against a new sample
+            double current = latencyEwma(nowNanos);
+            // a fast failure must not make the instance look cheap
+            double sample = failed ? Math.max(rttNanos, current) * 2 : rttNanos;
+            latencyEwma = latencyEwma == 0 ? sample : current + (sample - current) * smoothing;
+            lastSampleNanos = nowNanos;
+        }
+
+        if (!failed) {
+            consecutiveFailures = 0;
+            return false;
+        }
+        if (++consecutiveFailures < failureThreshold) {
+            return false;
+        }
+        consecutiveFailures = 0;
+        ejectedUntil = nowNanos + ejectionNanos;
+        return true;
+    }
+
+    public boolean isEjected(long nowNanos) {
+        long until = ejectedUntil;
+        return until != 0 && nowNanos - until < 0;
+    }
+
+    public boolean hasLatency() {
+        return latencyEwma > 0;
+    }
+
+    /**
+     * Expected wait for one more call: the decayed latency EWMA scaled by the calls
+     * already queued on the instance.
+     */
+    public double cost(long nowNanos) {
+        return latencyEwma(nowNanos) * (inFlight.get() + 1);
+    }
+
+    public double latencyEwma(long nowNanos) {
+        double ewma = latencyEwma;
+        if (ewma == 0) {
+            return 0;
+        }
+        return ewma * Math.exp(-(double) Math.max(0, nowNanos - lastSampleNanos) / decayNanos);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,81 @@
+package com.termiwum.loadbalancer;
+
+import java.io.IOException;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Feeds the outcome of every load-balanced call into {@link InstanceStatsRegistry}:
+ * Feign and RestTemplate calls, which complete with a {@link ClientHttpResponse},
+ * and gateway lb:// routes, which complete with {@link ResponseData}. Exceptions
+ * and 5xx responses count as failures.
+ */
+public class InstanceStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public InstanceStatsLifecycle(InstanceStatsRegistry instanceStatsRegistry) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        instanceStatsRegistry.get(lbResponse.getServer()).start();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            // discarded: no instance was called
+            return;
+        }
+
+        long rttNanos = -1;
+        Request<Object> request = completionContext.getLoadBalancerRequest();
+        if (request != null && request.getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() != 0) {
+            rttNanos = System.nanoTime() - timed.getRequestStartTime();
+        }
+
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || isServerError(completionContext.getClientResponse());
+        instanceStatsRegistry.recordCompletion(lbResponse.getServer(), rttNanos, failed);
+    }
+
+    private static boolean isServerError(Object clientResponse) {
+        if (clientResponse instanceof ResponseData responseData) {
+            return responseData.getHttpStatus() != null && responseData.getHttpStatus().is5xxServerError();
+        }
+        if (clientResponse instanceof ClientHttpResponse httpResponse) {
+            try {
+                return httpResponse.getStatusCode().is5xxServerError();
+            } catch (IOException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
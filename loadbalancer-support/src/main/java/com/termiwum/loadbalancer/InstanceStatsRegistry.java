@@ -0,0 +1,100 @@
+package com.termiwum.loadbalancer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * {@link InstanceStats} of every instance called through the load balancer, shared
+ * by {@link LatencyAwareLoadBalancer} (which reads them) and
+ * {@link InstanceStatsLifecycle} (which feeds them). Stats of instances that
+ * discovery no longer lists are dropped when the load balancer sees a new list.
+ * Each application declares one as a bean, with its own settings and the name
+ * of the ejection counter it exports per service.
+ */
+@Log4j2
+public class InstanceStatsRegistry {
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final String ejectionsMetric;
+
+    private final double smoothing;
+
+    private final int failureThreshold;
+
+    private final Duration ejectionTime;
+
+    private final Duration decayTime;
+
+    // instance list each service was last seen with, by service id
+    private final Map<String, List<ServiceInstance>> lastInstances = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(MeterRegistry meterRegistry, String ejectionsMetric, double smoothing,
+            int failureThreshold, Duration ejectionTime, Duration decayTime) {
+        this.meterRegistry = meterRegistry;
+        this.ejectionsMetric = ejectionsMetric;
+        this.smoothing = smoothing;
+        this.failureThreshold = failureThreshold;
+        this.ejectionTime = ejectionTime;
+        this.decayTime = decayTime;
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance),
+                key -> new InstanceStats(smoothing, failureThreshold, ejectionTime.toNanos(), decayTime.toNanos()));
+    }
+
+    /**
+     * Drops the stats of the service's instances that are not in {@code instances},
+     * the list discovery currently returns. Only does work when the list differs
+     * from the one seen last; suppliers hand out the same cached list until it
+     * changes.
+     */
+    public void retainOnly(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        String serviceId = instances.get(0).getServiceId();
+        if (lastInstances.put(serviceId, instances) == instances) {
+            return;
+        }
+        Set<String> current = instances.stream()
+                .map(InstanceStatsRegistry::key)
+                .collect(Collectors.toSet());
+        String prefix = serviceId + "/";
+        stats.keySet().removeIf(key -> key.startsWith(prefix) && !current.contains(key));
+    }
+
+    public void recordCompletion(ServiceInstance instance, long rttNanos, boolean failed) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        if (instanceStats == null) {
+            // dropped while the call was in flight
+            return;
+        }
+        if (instanceStats.complete(rttNanos, failed, System.nanoTime())) {
+            log.warn("Ejecting {} instance {}:{} for {} after {} failures in a row", instance.getServiceId(),
+                    instance.getHost(), instance.getPort(), ejectionTime, failureThreshold);
+            Counter.builder(ejectionsMetric)
+                    .description("Instances taken out of load balancing after repeated errors")
+                    .tag("service", String.valueOf(instance.getServiceId()))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+}
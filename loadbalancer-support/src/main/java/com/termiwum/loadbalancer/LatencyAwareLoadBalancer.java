@@ -0,0 +1,103 @@
+package com.termiwum.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+
+/**
+ * Picks instances by power of two choices: two random instances are compared and
+ * the one with the lower latency EWMA times in-flight calls wins. Slow or busy
+ * instances get less traffic; their EWMA decays while they go unpicked, so they
+ * are tried again and can win back traffic once they recover. Instances ejected
+ * after repeated errors are skipped unless every instance is ejected.
+ */
+@Log4j2
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final double TIE_TOLERANCE = 0.05;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final String serviceId;
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+            String serviceId, InstanceStatsRegistry instanceStatsRegistry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+
+        return supplier.get(request).next().map(instances -> {
+            if (instances.isEmpty()) {
+                log.warn("No servers available for service: {}", serviceId);
+                return new EmptyResponse();
+            }
+            ServiceInstance instance = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback) {
+                callback.selectedServiceInstance(instance);
+            }
+            return new DefaultResponse(instance);
+        });
+    }
+
+    ServiceInstance choose(List<ServiceInstance> instances) {
+        instanceStatsRegistry.retainOnly(instances);
+
+        long now = System.nanoTime();
+        List<ServiceInstance> available = instances.stream()
+                .filter(instance -> !instanceStatsRegistry.get(instance).isEjected(now))
+                .toList();
+        if (available.isEmpty()) {
+            // every instance is ejected; trying one beats failing the call outright
+            available = instances;
+        }
+        if (available.size() == 1) {
+            return available.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(available.size());
+        int second = random.nextInt(available.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        return cheaper(available.get(first), available.get(second), now, random);
+    }
+
+    private ServiceInstance cheaper(ServiceInstance a, ServiceInstance b, long now, ThreadLocalRandom random) {
+        InstanceStats statsA = instanceStatsRegistry.get(a);
+        InstanceStats statsB = instanceStatsRegistry.get(b);
+
+        // without a latency sample the cost says nothing yet, so only compare load
+        if (!statsA.hasLatency() || !statsB.hasLatency()) {
+            return statsA.getInFlight() <= statsB.getInFlight() ? a : b;
+        }
+        double costA = statsA.cost(now);
+        double costB = statsB.cost(now);
+        // near-equal costs differ by sampling noise only; a fixed winner would starve the other
+        if (Math.abs(costA - costB) <= TIE_TOLERANCE * Math.max(costA, costB)) {
+            return random.nextBoolean() ? a : b;
+        }
+        return costA < costB ? a : b;
+    }
+}
@@ -0,0 +1,27 @@
+package com.termiwum.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer client configuration that replaces round robin with
+ * {@link LatencyAwareLoadBalancer}. It is registered per service through
+ * {@code @LoadBalancerClients}, so it must not be a component-scanned
+ * {@code @Configuration}.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+            LoadBalancerClientFactory loadBalancerClientFactory, InstanceStatsRegistry instanceStatsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId,
+                instanceStatsRegistry);
+    }
+}
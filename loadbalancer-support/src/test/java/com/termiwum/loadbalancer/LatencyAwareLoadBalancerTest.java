@@ -0,0 +1,185 @@
+package com.termiwum.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE = "PRODUCT-SERVICE";
+
+    private final List<ServiceInstance> instances = List.of(instance(8081), instance(8082), instance(8083));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InstanceStatsRegistry instanceStatsRegistry;
+
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        instanceStatsRegistry = new InstanceStatsRegistry(meterRegistry, "test.loadbalancer.ejections", 0.3, 3,
+                Duration.ofMinutes(1), Duration.ofSeconds(10));
+        loadBalancer = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE, instances.toArray(ServiceInstance[]::new)), SERVICE,
+                instanceStatsRegistry);
+    }
+
+    @DisplayName("Latency Aware Load Balancer - Slow Instance Gets Less Traffic")
+    @Test
+    void test_When_InstanceSlow_Expect_LessTraffic() {
+        record(instances.get(0), 5, false);
+        record(instances.get(1), 5, false);
+        record(instances.get(2), 200, false);
+
+        Map<Integer, Integer> picks = pick(3000);
+
+        // power of two choices only sends to the slowest instance when it is drawn twice
+        assertEquals(0, picks.getOrDefault(8083, 0));
+        assertTrue(picks.get(8081) > 1000 && picks.get(8082) > 1000, "picks: " + picks);
+    }
+
+    @DisplayName("Latency Aware Load Balancer - Busy Instance Avoided")
+    @Test
+    void test_When_InstanceBusy_Expect_OtherChosen() {
+        instances.forEach(instance -> record(instance, 5, false));
+        for (int i = 0; i < 10; i++) {
+            instanceStatsRegistry.get(instances.get(0)).start();
+        }
+
+        Map<Integer, Integer> picks = pick(300);
+
+        assertEquals(0, picks.getOrDefault(8081, 0));
+    }
+
+    @DisplayName("Latency Aware Load Balancer - Failing Instance Ejected")
+    @Test
+    void test_When_RepeatedErrors_Expect_InstanceEjected() {
+        instances.forEach(instance -> record(instance, 5, false));
+        for (int i = 0; i < 3; i++) {
+            record(instances.get(0), 1, true);
+        }
+
+        Map<Integer, Integer> picks = pick(300);
+
+        assertEquals(0, picks.getOrDefault(8081, 0));
+        assertTrue(picks.get(8082) > 0 && picks.get(8083) > 0, "picks: " + picks);
+    }
+
+    @DisplayName("Latency Aware Load Balancer - All Ejected Still Served")
+    @Test
+    void test_When_AllEjected_Expect_InstanceChosen() {
+        for (ServiceInstance instance : instances) {
+            for (int i = 0; i < 3; i++) {
+                record(instance, 1, true);
+            }
+        }
+
+        assertEquals(300, pick(300).values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @DisplayName("Latency Aware Load Balancer - Unpicked Slow Instance Tried Again")
+    @Test
+    void test_When_SlowInstanceIdle_Expect_CostDecays() {
+        InstanceStats slow = new InstanceStats(0.3, 3, TimeUnit.MINUTES.toNanos(1), TimeUnit.SECONDS.toNanos(10));
+        InstanceStats fast = new InstanceStats(0.3, 3, TimeUnit.MINUTES.toNanos(1), TimeUnit.SECONDS.toNanos(10));
+        long start = 1_000_000_000L;
+        slow.start();
+        slow.complete(TimeUnit.MILLISECONDS.toNanos(200), false, start);
+        fast.start();
+        fast.complete(TimeUnit.MILLISECONDS.toNanos(5), false, start);
+        assertTrue(slow.cost(start) > fast.cost(start));
+
+        // the fast instance keeps getting samples, the slow one none
+        long later = start + TimeUnit.SECONDS.toNanos(60);
+        fast.start();
+        fast.complete(TimeUnit.MILLISECONDS.toNanos(5), false, later);
+
+        assertTrue(slow.cost(later) < fast.cost(later));
+    }
+
+    @DisplayName("Latency Aware Load Balancer - Stats Of Departed Instances Dropped")
+    @Test
+    void test_When_InstanceLeaves_Expect_StatsDropped() {
+        instances.forEach(instance -> record(instance, 5, false));
+        InstanceStats departed = instanceStatsRegistry.get(instances.get(2));
+        InstanceStats kept = instanceStatsRegistry.get(instances.get(0));
+
+        instanceStatsRegistry.retainOnly(instances.subList(0, 2));
+
+        assertSame(kept, instanceStatsRegistry.get(instances.get(0)));
+        assertNotSame(departed, instanceStatsRegistry.get(instances.get(2)));
+    }
+
+    @DisplayName("Latency Aware Load Balancer - Server Errors Of Feign And Gateway Calls Count As Failures")
+    @Test
+    void test_When_Calls_Answer_5xx_Expect_InstanceEjected() {
+        InstanceStatsLifecycle lifecycle = new InstanceStatsLifecycle(instanceStatsRegistry);
+        instances.forEach(instance -> record(instance, 5, false));
+        HttpStatus unavailable = HttpStatus.SERVICE_UNAVAILABLE;
+
+        // what RestTemplate and Feign complete with, then what a gateway lb:// route completes with
+        complete(lifecycle, instances.get(0), new MockClientHttpResponse(new byte[0], unavailable));
+        complete(lifecycle, instances.get(0), new ResponseData(unavailable, new HttpHeaders(), null, null));
+        complete(lifecycle, instances.get(0), new MockClientHttpResponse(new byte[0], unavailable));
+        complete(lifecycle, instances.get(1), new ResponseData(HttpStatus.NOT_FOUND, new HttpHeaders(), null, null));
+
+        Map<Integer, Integer> picks = pick(300);
+
+        assertEquals(0, picks.getOrDefault(8081, 0));
+        assertTrue(picks.get(8082) > 0, "a 4xx is not a failure of the instance; picks: " + picks);
+        assertEquals(1, meterRegistry.get("test.loadbalancer.ejections").counter().count());
+    }
+
+    private void complete(InstanceStatsLifecycle lifecycle, ServiceInstance instance, Object clientResponse) {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        lifecycle.onStartRequest(request, lbResponse);
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, lbResponse,
+                clientResponse));
+    }
+
+    private Map<Integer, Integer> pick(int calls) {
+        Map<Integer, Integer> picks = new HashMap<>();
+        for (int i = 0; i < calls; i++) {
+            ServiceInstance instance = loadBalancer.choose().block().getServer();
+            picks.merge(instance.getPort(), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    private void record(ServiceInstance instance, long latencyMillis, boolean failed) {
+        instanceStatsRegistry.get(instance).start();
+        instanceStatsRegistry.recordCompletion(instance, TimeUnit.MILLISECONDS.toNanos(latencyMillis), failed);
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance(SERVICE + "-" + port, SERVICE, "localhost", port, false);
+    }
+}
@@ -7,8 +7,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.termiwum.orderservice.external.hedge.HedgedRequests;
+import com.termiwum.orderservice.external.hedge.HedgingRestTemplate;
+import com.termiwum.orderservice.external.intercept.DownstreamTimeoutInterceptor;
 import com.termiwum.orderservice.external.intercept.RestTemplateInterceptor;
 
 @SpringBootApplication
@@ -20,9 +24,13 @@ public class OrderServiceApplication {
 
         @Bean
         @LoadBalanced
-        public RestTemplate restTemplate(RestTemplateInterceptor restTemplateInterceptor) {
-                RestTemplate restTemplate = new RestTemplate();
-                restTemplate.setInterceptors(List.of(restTemplateInterceptor));
+        public RestTemplate restTemplate(RestTemplateInterceptor restTemplateInterceptor,
+                        DownstreamTimeoutInterceptor downstreamTimeoutInterceptor,
+                        HttpComponentsClientHttpRequestFactory httpRequestFactory,
+                        HedgedRequests hedgedRequests) {
+                RestTemplate restTemplate = new HedgingRestTemplate(httpRequestFactory, hedgedRequests);
+                // the load balancer interceptor is appended after these
+                restTemplate.setInterceptors(List.of(restTemplateInterceptor, downstreamTimeoutInterceptor));
                 return restTemplate;
         }
 
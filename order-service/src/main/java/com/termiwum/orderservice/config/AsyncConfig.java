@@ -0,0 +1,43 @@
+package com.termiwum.orderservice.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Virtual threads for the downstream lookups of getOrderDetails; each lookup
+     * blocks on I/O, so one virtual thread per call is cheaper than a pool.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    ExecutorService orderDetailsExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-details-", 0).factory());
+    }
+
+    /**
+     * Bounded pool that completes payments for asynchronously placed orders. When
+     * the queue is full the submitting request thread runs the payment itself, which
+     * slows callers down instead of dropping orders.
+     */
+    @Bean
+    ThreadPoolTaskExecutor paymentWorkerExecutor(
+            @Value("${order.placement.workers:8}") int workers,
+            @Value("${order.placement.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("payment-worker-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
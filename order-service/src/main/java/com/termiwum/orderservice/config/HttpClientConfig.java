@@ -0,0 +1,83 @@
+package com.termiwum.orderservice.config;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.termiwum.orderservice.external.intercept.DownstreamTimeoutInterceptor;
+
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * One pooled keep-alive HTTP client shared by the Feign clients and the
+ * RestTemplate, so downstream calls reuse open connections instead of paying for
+ * connection setup on every request. Spring Cloud OpenFeign picks up the
+ * CloseableHttpClient bean through feign-hc5.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${order.http.max-connections:200}") int maxConnections,
+            @Value("${order.http.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${order.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${order.http.read-timeout:5s}") Duration readTimeout,
+            @Value("${order.http.time-to-live:5m}") Duration timeToLive) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager,
+            @Value("${order.http.read-timeout:5s}") Duration readTimeout,
+            @Value("${order.http.idle-timeout:30s}") Duration idleTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    /**
+     * RestTemplate request factory on the shared client. Timeouts chosen by
+     * DownstreamTimeoutInterceptor for the target service override the defaults.
+     */
+    @Bean
+    HttpComponentsClientHttpRequestFactory httpRequestFactory(CloseableHttpClient httpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory(DownstreamTimeoutInterceptor::httpContext);
+        return requestFactory;
+    }
+
+    /**
+     * Leased, pending and available connection gauges under httpcomponents.httpclient.pool.
+     */
+    @Bean
+    PoolingHttpClientConnectionManagerMetricsBinder httpConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpConnectionManager, "downstream");
+    }
+}
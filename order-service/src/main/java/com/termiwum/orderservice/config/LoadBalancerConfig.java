@@ -0,0 +1,49 @@
+package com.termiwum.orderservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.termiwum.loadbalancer.InstanceStatsLifecycle;
+import com.termiwum.loadbalancer.InstanceStatsRegistry;
+import com.termiwum.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-instance latency and error stats of every downstream call, from the
+ * loadbalancer-support module shared with the gateway. Hedged requests read
+ * them whether or not the latency-aware load balancer picks the instances.
+ */
+@Configuration
+public class LoadBalancerConfig {
+
+    @Bean
+    InstanceStatsRegistry instanceStatsRegistry(MeterRegistry meterRegistry,
+            @Value("${order.load-balancer.smoothing:0.3}") double smoothing,
+            @Value("${order.load-balancer.failure-threshold:5}") int failureThreshold,
+            @Value("${order.load-balancer.ejection-time:30s}") Duration ejectionTime,
+            @Value("${order.load-balancer.decay-time:10s}") Duration decayTime) {
+        return new InstanceStatsRegistry(meterRegistry, "order.loadbalancer.ejections", smoothing, failureThreshold,
+                ejectionTime, decayTime);
+    }
+
+    @Bean
+    InstanceStatsLifecycle instanceStatsLifecycle(InstanceStatsRegistry instanceStatsRegistry) {
+        return new InstanceStatsLifecycle(instanceStatsRegistry);
+    }
+
+    /**
+     * Uses the latency-aware load balancer for every downstream service instead
+     * of Spring Cloud LoadBalancer's round robin.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "order.load-balancer.latency-aware", havingValue = "true", matchIfMissing = true)
+    @LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+    static class LatencyAwareLoadBalancing {
+    }
+}
@@ -0,0 +1,108 @@
+package com.termiwum.orderservice.config;
+
+import java.net.ConnectException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.limit.ConcurrencyLimitExceededException;
+import com.termiwum.orderservice.external.resilience.DownstreamResilienceCapability;
+import com.termiwum.orderservice.external.resilience.RetryBudget;
+
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+
+/**
+ * Retry policy of the Feign clients. Attempts, backoff and jitter come from
+ * resilience4j.retry in application.yml; this adds what cannot be configured there:
+ * only failures where the downstream did not process the call are retried, since
+ * neither reducing stock nor paying is idempotent, and every retry has to fit in the
+ * downstream's retry budget.
+ *
+ * The retry predicate runs before Resilience4j checks the attempt count, so it also
+ * runs for the last attempt; the retry it spent there is given back when the Retry
+ * reports the call failed for good. Retried attempts pass through the same Feign
+ * client as first attempts, so their deposit is taken back when they are scheduled.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    private static final Set<String> BUDGETED_INSTANCES = Set.of("productService", "paymentService");
+
+    @Bean
+    RetryConfigCustomizer productServiceRetryCustomizer(DownstreamResilienceCapability downstreamResilience) {
+        return retryWithinBudget("productService", downstreamResilience);
+    }
+
+    @Bean
+    RetryConfigCustomizer paymentServiceRetryCustomizer(DownstreamResilienceCapability downstreamResilience) {
+        return retryWithinBudget("paymentService", downstreamResilience);
+    }
+
+    @Bean
+    RegistryEventConsumer<Retry> retryBudgetAccounting(DownstreamResilienceCapability downstreamResilience) {
+        return new RegistryEventConsumer<>() {
+
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<Retry> entryAddedEvent) {
+                Retry retry = entryAddedEvent.getAddedEntry();
+                if (!BUDGETED_INSTANCES.contains(retry.getName())) {
+                    return;
+                }
+                RetryBudget retryBudget = downstreamResilience.retryBudget(retry.getName());
+                retry.getEventPublisher()
+                        .onRetry(event -> retryBudget.recordRetry())
+                        .onError(event -> retryBudget.cancelRetry());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<Retry> entryRemoveEvent) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<Retry> entryReplacedEvent) {
+            }
+        };
+    }
+
+    private static RetryConfigCustomizer retryWithinBudget(String instance,
+            DownstreamResilienceCapability downstreamResilience) {
+        RetryBudget retryBudget = downstreamResilience.retryBudget(instance);
+        Predicate<Throwable> notProcessed = ResilienceConfig::isNotProcessed;
+
+        // the customizer hands over a raw Builder; viewing it as Builder<?> keeps the calls checked
+        return RetryConfigCustomizer.of(instance, builder -> {
+            RetryConfig.Builder<?> retryConfig = builder;
+            retryConfig.retryOnException(notProcessed.and(e -> retryBudget.tryRetry()))
+                    // a call turned away by the local concurrency limit is not retried into the same limit
+                    .ignoreExceptions(ConcurrencyLimitExceededException.class);
+        });
+    }
+
+    /**
+     * Connection failures and load shedding (429, 503) mean the downstream never ran
+     * the call, so it is safe to send again.
+     */
+    static boolean isNotProcessed(Throwable throwable) {
+        if (throwable instanceof CustomException customException) {
+            return customException.getStatus() == 429
+                    || (customException.getStatus() == 503 && "UNAVAILABLE".equals(customException.getErrorCode()));
+        }
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            // connect failures only; a read timeout may come after the call was processed
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
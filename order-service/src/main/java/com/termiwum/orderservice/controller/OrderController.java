@@ -1,15 +1,27 @@
 package com.termiwum.orderservice.controller;
 
+import com.termiwum.orderservice.model.OrderFilter;
+import com.termiwum.orderservice.model.OrderPage;
+import com.termiwum.orderservice.model.OrderPlacementResult;
 import com.termiwum.orderservice.model.OrderRequest;
 import com.termiwum.orderservice.model.OrderResponse;
+import com.termiwum.orderservice.model.OrderStatusResponse;
 import com.termiwum.orderservice.service.OrderService;
 
 import lombok.extern.log4j.Log4j2;
 
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 @RestController
@@ -20,23 +32,81 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Value("${order.placement.async:false}")
+    private boolean asyncPlacement;
+
     @PreAuthorize("hasAnyRole('Customer')")
     @PostMapping("placeOrder")
-    public ResponseEntity<Long> placeOrder(@RequestBody OrderRequest orderRequest) {
+    public ResponseEntity<Long> placeOrder(@RequestBody OrderRequest orderRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey, Principal principal) {
         log.info("Received placeOrder request: {}", orderRequest);
-        long orderId = orderService.placeOrder(orderRequest);
+        String subject = principal == null ? null : principal.getName();
+        if (asyncPlacement) {
+            long orderId = orderService.placeOrderAsync(orderRequest, subject, idempotencyKey);
+            log.info("Order accepted with ID: {}", orderId);
+            return new ResponseEntity<>(orderId, HttpStatus.ACCEPTED);
+        }
+        long orderId = orderService.placeOrder(orderRequest, subject, idempotencyKey);
         log.info("Order placed with ID: {}", orderId);
         log.info("Returning response with orderId: {}", orderId);
         return new ResponseEntity<>(orderId, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('Customer')")
+    @PostMapping("placeOrders")
+    public ResponseEntity<List<OrderPlacementResult>> placeOrders(@RequestBody List<OrderRequest> orderRequests) {
+        log.info("Received placeOrders request for {} orders", orderRequests.size());
+        List<OrderPlacementResult> results = orderService.placeOrders(orderRequests);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('Admin', 'Customer')")
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getOrderDetails(@PathVariable long orderId) {
+    public ResponseEntity<OrderResponse> getOrderDetails(@PathVariable long orderId,
+            @RequestParam(defaultValue = "false") boolean refresh) {
         log.info("Received getOrderDetails request for orderId: {}", orderId);
-        OrderResponse orderResponse = orderService.getOrderDetails(orderId);
+        OrderResponse orderResponse = orderService.getOrderDetails(orderId, refresh);
         log.info("Returning response: {}", orderResponse);
         return new ResponseEntity<>(orderResponse, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @GetMapping("/{orderId}/status")
+    public ResponseEntity<OrderStatusResponse> getOrderStatus(@PathVariable long orderId) {
+        OrderStatusResponse orderStatusResponse = new OrderStatusResponse(orderId,
+                orderService.getOrderStatus(orderId));
+        return new ResponseEntity<>(orderStatusResponse, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<OrderResponse>> getOrdersDetails(@RequestParam List<Long> ids) {
+        log.info("Received getOrdersDetails request for {} orders", ids.size());
+        List<OrderResponse> orderResponses = orderService.getOrdersDetails(ids);
+        return new ResponseEntity<>(orderResponses, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin')")
+    @GetMapping
+    public ResponseEntity<OrderPage> getOrders(@RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Received getOrders request: status={}, from={}, to={}, limit={}", status, from, to, limit);
+        OrderPage orderPage = orderService.getOrders(new OrderFilter(status, from, to), cursor, limit);
+        return new ResponseEntity<>(orderPage, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        log.info("Received exportOrders request: status={}, from={}, to={}", status, from, to);
+        OrderFilter filter = new OrderFilter(status, from, to);
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(filter, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
 }
@@ -10,7 +10,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "ORDER_DETAILS")
+@Table(name = "ORDER_DETAILS", indexes = {
+        // keyset pagination of GET /orders, newest first, with and without a status filter
+        @Index(name = "IDX_ORDER_DATE_ID", columnList = "ORDER_DATE, id"),
+        @Index(name = "IDX_ORDER_STATUS_DATE_ID", columnList = "STATUS, ORDER_DATE, id")
+}, uniqueConstraints = {
+        // an Idempotency-Key is only unique per caller
+        @UniqueConstraint(name = "UK_ORDER_IDEMPOTENCY", columnNames = { "IDEMPOTENCY_SUBJECT", "IDEMPOTENCY_KEY" })
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -36,4 +43,14 @@ public class Order {
     @Column(name = "TOTAL_AMOUNT")
     private long amount;
 
+    @Column(name = "IDEMPOTENCY_SUBJECT")
+    private String idempotencySubject;
+
+    @Column(name = "IDEMPOTENCY_KEY", length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request placed under the key, to tell a retry from a reused key
+    @Column(name = "REQUEST_HASH", length = 64)
+    private String requestHash;
+
 }
@@ -0,0 +1,65 @@
+package com.termiwum.orderservice.entity;
+
+import java.time.Instant;
+
+import com.termiwum.orderservice.model.PaymentMode;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized copy of an order with the product and payment fields shown by
+ * GET /orders/{orderId}, so the lookup does not have to call other services.
+ * Written when the payment of the order completes.
+ */
+@Entity
+@Table(name = "ORDER_VIEW")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderView {
+
+    @Id
+    @Column(name = "ORDER_ID")
+    private long orderId;
+
+    @Column(name = "ORDER_DATE")
+    private Instant orderDate;
+
+    @Column(name = "STATUS")
+    private String orderStatus;
+
+    @Column(name = "TOTAL_AMOUNT")
+    private long amount;
+
+    @Column(name = "PRODUCT_ID")
+    private long productId;
+
+    @Column(name = "PRODUCT_NAME")
+    private String productName;
+
+    @Column(name = "QUANTITY")
+    private long quantity;
+
+    @Column(name = "PAYMENT_ID")
+    private Long paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "PAYMENT_MODE")
+    private PaymentMode paymentMode;
+
+    @Column(name = "PAYMENT_STATUS")
+    private String paymentStatus;
+
+    @Column(name = "PAYMENT_DATE")
+    private Instant paymentDate;
+
+    @Column(name = "UPDATED_AT")
+    private Instant updatedAt;
+
+}
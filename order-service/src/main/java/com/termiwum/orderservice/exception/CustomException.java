@@ -1,18 +1,34 @@
 package com.termiwum.orderservice.exception;
 
-import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
-@Data
+/**
+ * Immutable, so that the stackless instances the error decoder preallocates
+ * can be shared between requests.
+ */
+@Getter
+@ToString
 @EqualsAndHashCode(callSuper = true)
 public class CustomException extends RuntimeException {
 
-    private String errorCode;
-    private int status;
+    private final String errorCode;
+    private final int status;
 
     public CustomException(String message, String errorCode, int status) {
         super(message);
         this.errorCode = errorCode;
         this.status = status;
     }
+
+    /**
+     * For exceptions on hot error paths: without a stack trace the exception is cheap
+     * to create, and can be preallocated and rethrown.
+     */
+    public CustomException(String message, String errorCode, int status, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.errorCode = errorCode;
+        this.status = status;
+    }
 }
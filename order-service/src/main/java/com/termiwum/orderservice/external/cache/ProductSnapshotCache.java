@@ -0,0 +1,139 @@
+package com.termiwum.orderservice.external.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.termiwum.orderservice.external.response.ProductLookupResponse;
+import com.termiwum.orderservice.external.response.ProductResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Bounded local cache of PRODUCT-SERVICE product snapshots. Product names rarely
+ * change, so order details are served from here and only refreshed once the TTL
+ * expires. Concurrent misses for the same product share a single remote call.
+ *
+ * The cache holds futures and the remote call runs on the thread that missed, outside
+ * any cache lock, so loads never pin the virtual threads of the details fan-out.
+ */
+@Component
+@Log4j2
+public class ProductSnapshotCache {
+
+    private final RestTemplate restTemplate;
+
+    private final String productServiceUrl;
+
+    private final int bulkSize;
+
+    private final AsyncCache<Long, ProductResponse> snapshots;
+
+    public ProductSnapshotCache(RestTemplate restTemplate,
+            @Value("${microservice.PRODUCT-SERVICE}") String productServiceUrl,
+            @Value("${order.product-cache.maximum-size:10000}") long maximumSize,
+            @Value("${order.product-cache.ttl:10m}") Duration ttl,
+            @Value("${order.product-cache.bulk-size:200}") int bulkSize,
+            MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.productServiceUrl = productServiceUrl;
+        this.bulkSize = bulkSize;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "productSnapshots");
+    }
+
+    public ProductResponse get(long productId) {
+        CompletableFuture<ProductResponse> pending = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> snapshot = snapshots.get(productId, (id, executor) -> pending);
+
+        if (snapshot == pending) {
+            try {
+                pending.complete(load(productId));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        return await(snapshot);
+    }
+
+    /**
+     * Returns the cached snapshots for the given products, loading all missing ones
+     * with a single bulk call. Unknown products are absent from the result.
+     */
+    public Map<Long, ProductResponse> getAll(Set<Long> productIds) {
+        return await(snapshots.getAll(productIds, (missingIds, executor) -> {
+            try {
+                return CompletableFuture.completedFuture(loadAll(missingIds));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    private ProductResponse load(long productId) {
+        log.info("Invoking Product service to fetch the product for id: {}", productId);
+        return restTemplate.getForObject(productServiceUrl + productId, ProductResponse.class);
+    }
+
+    /**
+     * Loads in chunks of at most {@code bulkSize} ids, the most PRODUCT-SERVICE
+     * accepts per lookup.
+     */
+    private Map<Long, ProductResponse> loadAll(Set<? extends Long> productIds) {
+        List<? extends Long> ids = List.copyOf(productIds);
+        Map<Long, ProductResponse> products = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += bulkSize) {
+            products.putAll(loadChunk(ids.subList(from, Math.min(from + bulkSize, ids.size()))));
+        }
+        return products;
+    }
+
+    private Map<Long, ProductResponse> loadChunk(List<? extends Long> productIds) {
+        String ids = productIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        log.info("Invoking Product service to fetch products: {}", ids);
+        ProductLookupResponse lookup = restTemplate.getForObject(
+                StringUtils.trimTrailingCharacter(productServiceUrl, '/') + "?ids={ids}",
+                ProductLookupResponse.class, ids);
+
+        if (lookup == null || lookup.getProducts() == null) {
+            return Map.of();
+        }
+        if (lookup.getMissingIds() != null && !lookup.getMissingIds().isEmpty()) {
+            log.info("Products not found: {}", lookup.getMissingIds());
+        }
+        return lookup.getProducts().stream()
+                .collect(Collectors.toMap(ProductResponse::getProductId, Function.identity(), (a, b) -> a));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.termiwum.orderservice.external.client;
+
+import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.limit.ConcurrencyLimitExceededException;
+
+/**
+ * Shared body of the Feign clients' Retry fallbacks.
+ */
+final class DownstreamFallbacks {
+
+    private DownstreamFallbacks() {
+    }
+
+    /**
+     * Returns the exception a failed call is reported with. Only transport failures
+     * and 5xx answers become UNAVAILABLE. A 4xx answer keeps the downstream's status
+     * and error code, so callers know the call was refused rather than lost, and a
+     * call the concurrency limiter turned away keeps its own exception, so callers can
+     * tell local load shedding apart from an unavailable downstream.
+     */
+    static CustomException failure(String service, Exception e) {
+        if (e instanceof ConcurrencyLimitExceededException rejected) {
+            return rejected;
+        }
+        if (e instanceof CustomException refused && refused.getStatus() < 500) {
+            return refused;
+        }
+        return new CustomException(service + " Unavailable", "UNAVAILABLE", 500);
+    }
+}
@@ -1,23 +1,37 @@
 package com.termiwum.orderservice.external.client;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-import com.termiwum.orderservice.exception.CustomException;
 import com.termiwum.orderservice.external.request.PaymentRequest;
+import com.termiwum.orderservice.external.response.PaymentResult;
 
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
 
-@CircuitBreaker(name = "external", fallbackMethod = "fallback")
 @FeignClient(name = "PAYMENT-SERVICE", path = "/payments")
 public interface PaymentService {
 
+    @Retry(name = "paymentService", fallbackMethod = "fallback")
+    @CircuitBreaker(name = "paymentService")
+    @Bulkhead(name = "paymentService")
     @PostMapping
     public ResponseEntity<Long> doPayment(@RequestBody PaymentRequest paymentRequest);
 
+    @Retry(name = "paymentService", fallbackMethod = "fallback")
+    @CircuitBreaker(name = "paymentService")
+    @Bulkhead(name = "paymentService")
+    @PostMapping("/batch")
+    public ResponseEntity<List<PaymentResult>> doPayments(@RequestBody List<PaymentRequest> paymentRequests);
+
+    // not annotated: Resilience4j calls a default fallback through the proxy, so
+    // class-level annotations would retry the fallback into itself
     default ResponseEntity<Void> fallback(Exception e) {
-        throw new CustomException("Payment Service Unavailable", "UNAVAILABLE", 500);
+        throw DownstreamFallbacks.failure("Payment Service", e);
     }
 }
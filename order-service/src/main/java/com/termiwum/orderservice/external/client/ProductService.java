@@ -1,24 +1,49 @@
 package com.termiwum.orderservice.external.client;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.intercept.ServiceToken;
+import com.termiwum.orderservice.external.request.ReduceQuantityRequest;
+import com.termiwum.orderservice.external.request.RestoreQuantityRequest;
+import com.termiwum.orderservice.external.response.ReduceQuantityResponse;
 
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
 
-@CircuitBreaker(name = "external", fallbackMethod = "fallback")
 @FeignClient(name = "PRODUCT-SERVICE", path = "/products")
 public interface ProductService {
 
+    @Retry(name = "productService", fallbackMethod = "fallback")
+    @CircuitBreaker(name = "productService")
+    @Bulkhead(name = "productService")
     @PutMapping("/reduceQuantity/{id}")
     ResponseEntity<Void> reduceQuantity(@PathVariable("id") long productId, @RequestParam long quantity);
 
+    @Retry(name = "productService", fallbackMethod = "fallback")
+    @CircuitBreaker(name = "productService")
+    @Bulkhead(name = "productService")
+    @PutMapping("/reduceQuantities")
+    ResponseEntity<List<ReduceQuantityResponse>> reduceQuantities(@RequestBody List<ReduceQuantityRequest> requests);
+
+    @Retry(name = "productService", fallbackMethod = "fallback")
+    @CircuitBreaker(name = "productService")
+    @Bulkhead(name = "productService")
+    @ServiceToken
+    @PutMapping("/restoreQuantities")
+    ResponseEntity<Void> restoreQuantities(@RequestBody List<RestoreQuantityRequest> requests);
+
+    // not annotated: Resilience4j calls a default fallback through the proxy, so
+    // class-level annotations would retry the fallback into itself
     default ResponseEntity<Void> fallback(Exception e) {
-        throw new CustomException("Product Service Unavailable", "UNAVAILABLE", 500);
+        throw DownstreamFallbacks.failure("Product Service", e);
     }
 
 }
@@ -1,8 +1,13 @@
 package com.termiwum.orderservice.external.decoder;
 
 import java.io.IOException;
+import java.io.InputStream;
 
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.termiwum.orderservice.exception.CustomException;
 import com.termiwum.orderservice.external.response.ErrorResponse;
 
@@ -10,24 +15,95 @@ import feign.Response;
 import feign.codec.ErrorDecoder;
 import lombok.extern.log4j.Log4j2;
 
+/**
+ * Turns downstream error responses into CustomExceptions. This runs for every failed
+ * call, so it is kept cheap for when a downstream is shedding load: overload statuses
+ * map to shared stackless exceptions without reading the body, other bodies are read
+ * up to MAX_BODY_BYTES with a shared reader, and the exceptions carry no stack trace.
+ * A body without an error code, or too large to read, still keeps the downstream's
+ * status, so a 4xx is never reported as a 500.
+ */
 @Log4j2
 public class CustomErrorDecoder implements ErrorDecoder {
 
+    static final int MAX_BODY_BYTES = 4096;
+
+    private static final ObjectReader ERROR_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(ErrorResponse.class);
+
+    private static final CustomException INTERNAL_ERROR = stackless("Internal Server Error", "INTERNAL_ERROR", 500);
+
+    // shared between requests; CustomException has no setters
+    private static final CustomException TOO_MANY_REQUESTS = stackless("Too Many Requests", "TOO_MANY_REQUESTS", 429);
+    private static final CustomException BAD_GATEWAY = stackless("Bad Gateway", "UNAVAILABLE", 502);
+    private static final CustomException SERVICE_UNAVAILABLE = stackless("Service Unavailable", "UNAVAILABLE", 503);
+    private static final CustomException GATEWAY_TIMEOUT = stackless("Gateway Timeout", "UNAVAILABLE", 504);
+
+    // one generic exception per error status, for bodies without an error code
+    private static final CustomException[] GENERIC_ERRORS = new CustomException[600];
+
+    static {
+        for (int status = 400; status < GENERIC_ERRORS.length; status++) {
+            HttpStatus httpStatus = HttpStatus.resolve(status);
+            String message = httpStatus == null ? "Error " + status : httpStatus.getReasonPhrase();
+            String errorCode = status >= 500 ? "INTERNAL_ERROR"
+                    : httpStatus == null ? "CLIENT_ERROR" : httpStatus.name();
+            GENERIC_ERRORS[status] = stackless(message, errorCode, status);
+        }
+    }
+
     @Override
     public Exception decode(String methodKey, Response response) {
-        ObjectMapper objectMapper = new ObjectMapper();
+        if (log.isDebugEnabled()) {
+            log.debug("{} failed with status {}", methodKey, response.status());
+        }
 
-        log.info("::{}", response.request().url());
-        log.info("::{}", response.request().headers());
+        switch (response.status()) {
+            case 429:
+                return TOO_MANY_REQUESTS;
+            case 502:
+                return BAD_GATEWAY;
+            case 503:
+                return SERVICE_UNAVAILABLE;
+            case 504:
+                return GATEWAY_TIMEOUT;
+            default:
+                break;
+        }
 
-        try {
-            ErrorResponse errorResponse = objectMapper.readValue(response.body().asInputStream(), ErrorResponse.class);
+        ErrorResponse errorResponse = readErrorResponse(response);
+        if (errorResponse == null || errorResponse.getErrorCode() == null) {
+            return genericError(response.status());
+        }
+        return stackless(errorResponse.getErrorMessage(), errorResponse.getErrorCode(), response.status());
+    }
 
-            return new CustomException(errorResponse.getErrorMessage(), errorResponse.getErrorCode(),
-                    response.status());
+    private ErrorResponse readErrorResponse(Response response) {
+        if (response.body() == null) {
+            return null;
+        }
+        Integer length = response.body().length();
+        byte[] content = new byte[length != null ? Math.min(length, MAX_BODY_BYTES) : MAX_BODY_BYTES];
+
+        try (InputStream body = response.body().asInputStream()) {
+            int read = body.readNBytes(content, 0, content.length);
+            if (read == 0) {
+                return null;
+            }
+            return ERROR_READER.readValue(content, 0, read);
         } catch (IOException e) {
-            throw new CustomException("Internal Server Error", "INTERNAL_ERROR", 500);
+            // unreadable or truncated body
+            log.debug("Could not read error response: {}", e.getMessage());
+            return null;
         }
     }
 
+    private static CustomException genericError(int status) {
+        return status >= 400 && status < GENERIC_ERRORS.length ? GENERIC_ERRORS[status] : INTERNAL_ERROR;
+    }
+
+    private static CustomException stackless(String message, String errorCode, int status) {
+        return new CustomException(message, errorCode, status, false);
+    }
 }
@@ -0,0 +1,306 @@
+package com.termiwum.orderservice.external.hedge;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.termiwum.orderservice.external.intercept.DownstreamTimeoutInterceptor;
+import com.termiwum.orderservice.external.intercept.RestTemplateInterceptor;
+import com.termiwum.loadbalancer.InstanceStatsRegistry;
+import com.termiwum.orderservice.external.resilience.RetryBudget;
+import com.termiwum.orderservice.service.TokenService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Hedged GETs against load-balanced services. A GET that has not answered after
+ * the route's latency percentile (order.hedging.percentile) is sent a second time
+ * to another instance; the first response wins and the other call is cancelled.
+ *
+ * Hedges are paid from a per-route budget, so they add at most
+ * order.hedging.budget-ratio of the route's calls, even when a whole service is slow.
+ *
+ * Attempts call the chosen instances directly, past the load balancer lifecycle,
+ * so they report their outcome to {@link InstanceStatsRegistry} themselves.
+ */
+@Component
+@Log4j2
+public class HedgedRequests {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final RestTemplate instanceRestTemplate;
+
+    private final DownstreamTimeoutInterceptor downstreamTimeoutInterceptor;
+
+    private final LoadBalancerClient loadBalancerClient;
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    private final ExecutorService executor;
+
+    private final TokenService tokenService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final Set<String> services;
+
+    private final double percentile;
+
+    private final Duration minDelay;
+
+    private final Duration initialDelay;
+
+    private final double budgetRatio;
+
+    private final int budgetMaxBalance;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HedgedRequests(HttpComponentsClientHttpRequestFactory httpRequestFactory,
+            RestTemplateInterceptor restTemplateInterceptor,
+            DownstreamTimeoutInterceptor downstreamTimeoutInterceptor,
+            LoadBalancerClient loadBalancerClient,
+            InstanceStatsRegistry instanceStatsRegistry,
+            @Qualifier("orderDetailsExecutor") ExecutorService executor,
+            TokenService tokenService,
+            MeterRegistry meterRegistry,
+            @Value("${order.hedging.enabled:false}") boolean enabled,
+            @Value("${order.hedging.services:PRODUCT-SERVICE,PAYMENT-SERVICE}") Set<String> services,
+            @Value("${order.hedging.percentile:0.95}") double percentile,
+            @Value("${order.hedging.min-delay:10ms}") Duration minDelay,
+            @Value("${order.hedging.initial-delay:50ms}") Duration initialDelay,
+            @Value("${order.hedging.budget-ratio:0.1}") double budgetRatio,
+            @Value("${order.hedging.budget-max-balance:10}") int budgetMaxBalance) {
+        this(instanceRestTemplate(httpRequestFactory, restTemplateInterceptor), downstreamTimeoutInterceptor,
+                loadBalancerClient, instanceStatsRegistry, executor, tokenService, meterRegistry, enabled, services,
+                percentile, minDelay, initialDelay, budgetRatio, budgetMaxBalance);
+    }
+
+    HedgedRequests(RestTemplate instanceRestTemplate, DownstreamTimeoutInterceptor downstreamTimeoutInterceptor,
+            LoadBalancerClient loadBalancerClient, InstanceStatsRegistry instanceStatsRegistry,
+            ExecutorService executor, TokenService tokenService, MeterRegistry meterRegistry, boolean enabled,
+            Set<String> services, double percentile, Duration minDelay, Duration initialDelay, double budgetRatio,
+            int budgetMaxBalance) {
+        this.instanceRestTemplate = instanceRestTemplate;
+        this.downstreamTimeoutInterceptor = downstreamTimeoutInterceptor;
+        this.loadBalancerClient = loadBalancerClient;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.executor = executor;
+        this.tokenService = tokenService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.services = services;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.initialDelay = initialDelay;
+        this.budgetRatio = budgetRatio;
+        this.budgetMaxBalance = budgetMaxBalance;
+    }
+
+    public boolean appliesTo(URI uri) {
+        return enabled && services.contains(uri.getHost());
+    }
+
+    public <T> T getForObject(URI uri, Class<T> responseType) {
+        Route route = routes.computeIfAbsent(routeKey(uri), this::createRoute);
+        route.budget.recordCall();
+
+        String serviceId = uri.getHost();
+        ServiceInstance primary = choose(serviceId);
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pendingAttempts = new AtomicInteger(1);
+        List<Future<?>> attempts = new ArrayList<>(2);
+        attempts.add(submit(primary, uri, responseType, route, winner, pendingAttempts));
+
+        try {
+            try {
+                return winner.get(route.hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // primary is slower than usual
+            }
+
+            if (route.budget.tryRetry()) {
+                ServiceInstance backup = chooseOther(serviceId, primary);
+                if (backup != null) {
+                    pendingAttempts.incrementAndGet();
+                    route.hedges.increment();
+                    attempts.add(submit(backup, uri, responseType, route, winner, pendingAttempts));
+                }
+            }
+            return winner.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + uri, e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    private <T> Future<?> submit(ServiceInstance instance, URI uri, Class<T> responseType, Route route,
+            CompletableFuture<T> winner, AtomicInteger pendingAttempts) {
+        URI instanceUri = LoadBalancerUriTools.reconstructURI(instance, uri);
+
+        return executor.submit(tokenService.propagate(() -> {
+            instanceStatsRegistry.get(instance).start();
+            long start = System.nanoTime();
+            T response;
+            try {
+                response = downstreamTimeoutInterceptor.withTimeoutsOf(uri.getHost(),
+                        () -> instanceRestTemplate.getForObject(instanceUri, responseType));
+            } catch (RuntimeException e) {
+                // an attempt cut off because the other one won says nothing about its instance
+                boolean cutOff = winner.isDone();
+                // a 4xx is an answer, the same as for load-balanced calls
+                instanceStatsRegistry.recordCompletion(instance, cutOff ? -1 : System.nanoTime() - start,
+                        !cutOff && !(e instanceof HttpClientErrorException));
+                // fail only once every attempt has failed
+                if (pendingAttempts.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+                return;
+            }
+            long rttNanos = System.nanoTime() - start;
+            instanceStatsRegistry.recordCompletion(instance, rttNanos, false);
+            route.record(rttNanos);
+            winner.complete(response);
+        }));
+    }
+
+    private ServiceInstance choose(String serviceId) {
+        ServiceInstance instance = loadBalancerClient.choose(serviceId);
+        if (instance == null) {
+            throw new IllegalStateException("No instances available for " + serviceId);
+        }
+        return instance;
+    }
+
+    private ServiceInstance chooseOther(String serviceId, ServiceInstance primary) {
+        for (int i = 0; i < 3; i++) {
+            ServiceInstance instance = loadBalancerClient.choose(serviceId);
+            if (instance != null && !(Objects.equals(instance.getHost(), primary.getHost())
+                    && instance.getPort() == primary.getPort())) {
+                return instance;
+            }
+        }
+        log.debug("No second instance of {} to hedge on", serviceId);
+        return null;
+    }
+
+    private Route createRoute(String routeKey) {
+        Route route = new Route(new RetryBudget(budgetRatio, budgetMaxBalance),
+                Counter.builder("order.hedging.hedges")
+                        .description("GETs sent a second time to another instance")
+                        .tag("route", routeKey)
+                        .register(meterRegistry));
+
+        FunctionCounter.builder("order.hedging.budget_exhausted", route.budget, RetryBudget::getExhausted)
+                .description("Hedges skipped because the route's budget was used up")
+                .tag("route", routeKey)
+                .register(meterRegistry);
+        return route;
+    }
+
+    /**
+     * Service and path with numeric segments collapsed, e.g. PRODUCT-SERVICE/products/{id}.
+     */
+    static String routeKey(URI uri) {
+        String path = Arrays.stream(uri.getPath().split("/"))
+                .map(segment -> !segment.isEmpty() && segment.chars().allMatch(Character::isDigit) ? "{id}" : segment)
+                .reduce((a, b) -> a + "/" + b)
+                .orElse("");
+        return uri.getHost() + path;
+    }
+
+    private static RestTemplate instanceRestTemplate(HttpComponentsClientHttpRequestFactory httpRequestFactory,
+            RestTemplateInterceptor restTemplateInterceptor) {
+        // calls chosen instances directly, so it is not load balanced
+        RestTemplate restTemplate = new RestTemplate(httpRequestFactory);
+        restTemplate.setInterceptors(List.of(restTemplateInterceptor));
+        return restTemplate;
+    }
+
+    /**
+     * Latency samples and hedge budget of one route. The hedge delay is the
+     * percentile of the last SAMPLES successful calls, recomputed every
+     * RECOMPUTE_EVERY samples.
+     */
+    private class Route {
+
+        private static final int SAMPLES = 512;
+
+        private static final int RECOMPUTE_EVERY = 32;
+
+        private final RetryBudget budget;
+
+        private final Counter hedges;
+
+        private final long[] latencies = new long[SAMPLES];
+
+        private final AtomicLong recorded = new AtomicLong();
+
+        private volatile Duration hedgeDelay = initialDelay;
+
+        Route(RetryBudget budget, Counter hedges) {
+            this.budget = budget;
+            this.hedges = hedges;
+        }
+
+        void record(long latencyNanos) {
+            long count = recorded.incrementAndGet();
+            latencies[(int) ((count - 1) % SAMPLES)] = latencyNanos;
+
+            if (count >= MIN_SAMPLES && count % RECOMPUTE_EVERY == 0) {
+                recompute((int) Math.min(count, SAMPLES));
+            }
+        }
+
+        Duration hedgeDelay() {
+            return hedgeDelay;
+        }
+
+        private void recompute(int samples) {
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            long nanos = sorted[(int) Math.min(samples - 1, Math.ceil(percentile * samples) - 1)];
+            hedgeDelay = Duration.ofNanos(Math.max(minDelay.toNanos(), nanos));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.termiwum.orderservice.external.hedge;
+
+import java.net.URI;
+
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * RestTemplate whose getForObject calls to the services configured under
+ * order.hedging are hedged by {@link HedgedRequests}. Every other call, and all
+ * calls while hedging is disabled, go through the normal interceptor chain.
+ */
+public class HedgingRestTemplate extends RestTemplate {
+
+    private final HedgedRequests hedgedRequests;
+
+    public HedgingRestTemplate(ClientHttpRequestFactory requestFactory, HedgedRequests hedgedRequests) {
+        super(requestFactory);
+        this.hedgedRequests = hedgedRequests;
+    }
+
+    @Override
+    public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables)
+            throws RestClientException {
+        URI uri = getUriTemplateHandler().expand(url, uriVariables);
+
+        if (hedgedRequests.appliesTo(uri)) {
+            return hedgedRequests.getForObject(uri, responseType);
+        }
+        return super.getForObject(uri, responseType);
+    }
+}
@@ -0,0 +1,120 @@
+package com.termiwum.orderservice.external.intercept;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties.FeignClientConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Applies the per-service connect and read timeouts configured for the Feign
+ * clients (spring.cloud.openfeign.client.config.&lt;SERVICE&gt;) to RestTemplate
+ * calls as well, so each downstream has one set of timeouts.
+ *
+ * It has to run before the load balancer interceptor, which replaces the service
+ * name with an instance address; the chosen timeouts are handed to the request
+ * factory on the calling thread.
+ */
+@Configuration
+public class DownstreamTimeoutInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final ThreadLocal<RequestConfig> REQUEST_CONFIG = new ThreadLocal<>();
+
+    private final FeignClientProperties feignClientProperties;
+
+    public DownstreamTimeoutInterceptor(FeignClientProperties feignClientProperties) {
+        this.feignClientProperties = feignClientProperties;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        RequestConfig requestConfig = requestConfigFor(request.getURI().getHost());
+
+        if (requestConfig == null) {
+            return execution.execute(request, body);
+        }
+
+        REQUEST_CONFIG.set(requestConfig);
+        try {
+            return execution.execute(request, body);
+        } finally {
+            REQUEST_CONFIG.remove();
+        }
+    }
+
+    /**
+     * Runs a call made directly to an instance of the service with the service's
+     * timeouts, for callers that bypass the load balancer interceptor.
+     */
+    public <T> T withTimeoutsOf(String serviceName, Supplier<T> call) {
+        RequestConfig requestConfig = requestConfigFor(serviceName);
+
+        if (requestConfig == null) {
+            return call.get();
+        }
+
+        REQUEST_CONFIG.set(requestConfig);
+        try {
+            return call.get();
+        } finally {
+            REQUEST_CONFIG.remove();
+        }
+    }
+
+    /**
+     * HTTP context for the request being created on this thread, or null to use the
+     * request factory defaults.
+     */
+    public static HttpContext httpContext(HttpMethod method, URI uri) {
+        RequestConfig requestConfig = REQUEST_CONFIG.get();
+
+        if (requestConfig == null) {
+            return null;
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(requestConfig);
+        return context;
+    }
+
+    @SuppressWarnings("deprecation")
+    private RequestConfig requestConfigFor(String serviceName) {
+        FeignClientConfiguration config = findConfig(serviceName);
+
+        if (config == null || (config.getConnectTimeout() == null && config.getReadTimeout() == null)) {
+            return null;
+        }
+
+        RequestConfig.Builder builder = RequestConfig.custom();
+        if (config.getConnectTimeout() != null) {
+            builder.setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()));
+        }
+        if (config.getReadTimeout() != null) {
+            builder.setResponseTimeout(Timeout.ofMilliseconds(config.getReadTimeout()));
+        }
+        return builder.build();
+    }
+
+    private FeignClientConfiguration findConfig(String serviceName) {
+        if (serviceName == null) {
+            return null;
+        }
+        return feignClientProperties.getConfig().entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(serviceName))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+}
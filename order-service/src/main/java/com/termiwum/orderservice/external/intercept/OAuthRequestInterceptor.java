@@ -2,6 +2,7 @@ package com.termiwum.orderservice.external.intercept;
 
 import org.springframework.context.annotation.Configuration;
 
+import com.termiwum.orderservice.service.InternalTokenManager;
 import com.termiwum.orderservice.service.TokenService;
 
 import feign.RequestInterceptor;
@@ -12,16 +13,38 @@ public class OAuthRequestInterceptor implements RequestInterceptor {
 
         private final TokenService tokenService;
 
-        public OAuthRequestInterceptor(TokenService tokenService) {
+        private final InternalTokenManager internalTokenManager;
+
+        public OAuthRequestInterceptor(TokenService tokenService, InternalTokenManager internalTokenManager) {
                 this.tokenService = tokenService;
+                this.internalTokenManager = internalTokenManager;
         }
 
         @Override
         public void apply(RequestTemplate template) {
-                String token = tokenService.extractToken(); // Get token from TokenService
+                String token;
+                if (isServiceCall(template)) {
+                        // without a client_credentials registration, fall back to the caller's token
+                        token = internalTokenManager.getToken();
+                        if (token == null) {
+                                token = tokenService.extractToken();
+                        }
+                } else {
+                        token = tokenService.extractToken(); // Get token from TokenService
+
+                        if (token == null) {
+                                // no caller token, e.g. off the request thread: use the service's own token
+                                token = internalTokenManager.getToken();
+                        }
+                }
 
                 if (token != null) {
                         template.header("Authorization", "Bearer " + token);
                 }
         }
+
+        private static boolean isServiceCall(RequestTemplate template) {
+                return template.methodMetadata() != null
+                                && template.methodMetadata().method().isAnnotationPresent(ServiceToken.class);
+        }
 }
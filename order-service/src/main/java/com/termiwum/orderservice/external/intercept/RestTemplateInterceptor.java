@@ -8,6 +8,7 @@ import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 
+import com.termiwum.orderservice.service.InternalTokenManager;
 import com.termiwum.orderservice.service.TokenService;
 
 @Configuration
@@ -15,8 +16,11 @@ public class RestTemplateInterceptor implements ClientHttpRequestInterceptor {
 
     private final TokenService tokenService;
 
-    public RestTemplateInterceptor(TokenService tokenService) {
+    private final InternalTokenManager internalTokenManager;
+
+    public RestTemplateInterceptor(TokenService tokenService, InternalTokenManager internalTokenManager) {
         this.tokenService = tokenService;
+        this.internalTokenManager = internalTokenManager;
     }
 
     @Override
@@ -24,6 +28,11 @@ public class RestTemplateInterceptor implements ClientHttpRequestInterceptor {
             throws IOException {
         String token = tokenService.extractToken(); // Extract token
 
+        if (token == null) {
+            // no caller token, e.g. off the request thread: use the service's own token
+            token = internalTokenManager.getToken();
+        }
+
         if (token != null) {
             request.getHeaders().add("Authorization", "Bearer " + token);
         }
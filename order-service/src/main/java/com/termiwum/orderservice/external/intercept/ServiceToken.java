@@ -0,0 +1,16 @@
+package com.termiwum.orderservice.external.intercept;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Feign method that is sent with the service's own client_credentials
+ * token even when a caller token is at hand, for downstream endpoints that only
+ * other services may call.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ServiceToken {
+}
@@ -0,0 +1,107 @@
+package com.termiwum.orderservice.external.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gradient concurrency limit for one downstream. The limit follows the ratio
+ * between the long-term and the recent round-trip time: while latency stays at its
+ * baseline the limit grows by about sqrt(limit) per sample, and once requests start
+ * queueing downstream (recent latency above the baseline times the tolerance) it
+ * shrinks in proportion.
+ *
+ * Calls over the limit are rejected straight away instead of waiting for a slow
+ * downstream and holding a request thread.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_WINDOW = 600;
+
+    private static final double SHORT_WINDOW = 10;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit;
+
+    private double longRtt;
+
+    private double shortRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double smoothing) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Takes a slot for one call; returns false when the downstream is at its limit.
+     * Every acquired slot must be given back with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a slot and feeds the call's round-trip time into the limit.
+     */
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtCompletion);
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtCompletion) {
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+
+        // once latency recovers, pull a baseline inflated by an earlier slowdown back down
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // only grow when the limit is actually being used
+        if (inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
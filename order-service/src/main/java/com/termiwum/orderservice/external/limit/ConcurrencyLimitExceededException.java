@@ -0,0 +1,16 @@
+package com.termiwum.orderservice.external.limit;
+
+import com.termiwum.orderservice.exception.CustomException;
+
+/**
+ * Thrown when {@link ConcurrencyLimitingCapability} turns a call away before it is
+ * sent. Its own type lets the Retry and CircuitBreaker configurations ignore it:
+ * retrying only adds load to a downstream that is already at its limit, and the
+ * rejection says nothing about the downstream's health.
+ */
+public class ConcurrencyLimitExceededException extends CustomException {
+
+    public ConcurrencyLimitExceededException(String service) {
+        super(service + " concurrency limit reached", "CONCURRENCY_LIMIT_EXCEEDED", 503);
+    }
+}
@@ -0,0 +1,111 @@
+package com.termiwum.orderservice.external.limit;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Puts an {@link AdaptiveConcurrencyLimiter} in front of every Feign client, one per
+ * downstream service. Spring Cloud OpenFeign applies Capability beans to all
+ * clients it builds.
+ *
+ * Exported per service: order.downstream.concurrency.limit,
+ * order.downstream.concurrency.in_flight and order.downstream.concurrency.rejected.
+ */
+@Component
+@Log4j2
+public class ConcurrencyLimitingCapability implements Capability {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final int initialLimit;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double smoothing;
+
+    public ConcurrencyLimitingCapability(MeterRegistry meterRegistry,
+            @Value("${order.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${order.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${order.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${order.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${order.concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${order.concurrency-limit.smoothing:0.2}") double smoothing) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        if (!enabled) {
+            return client;
+        }
+        return (request, options) -> {
+            String service = serviceName(request);
+            AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(service, this::createLimiter);
+
+            if (!limiter.tryAcquire()) {
+                log.warn("Rejecting call to {}: concurrency limit of {} reached", service, limiter.getLimit());
+                throw new ConcurrencyLimitExceededException(service);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return client.execute(request, options);
+            } finally {
+                limiter.release(System.nanoTime() - start);
+            }
+        };
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String service) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                tolerance, smoothing);
+
+        Gauge.builder("order.downstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("service", service)
+                .register(meterRegistry);
+        Gauge.builder("order.downstream.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls currently in flight")
+                .tag("service", service)
+                .register(meterRegistry);
+        FunctionCounter.builder("order.downstream.concurrency.rejected", limiter,
+                AdaptiveConcurrencyLimiter::getRejected)
+                .description("Calls rejected because the limit was reached")
+                .tag("service", service)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static String serviceName(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return URI.create(request.url()).getHost();
+    }
+}
@@ -0,0 +1,17 @@
+package com.termiwum.orderservice.external.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReduceQuantityRequest {
+
+    private long productId;
+    private long quantity;
+
+}
@@ -0,0 +1,18 @@
+package com.termiwum.orderservice.external.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestoreQuantityRequest {
+
+    private long orderId;
+    private long productId;
+    private long quantity;
+
+}
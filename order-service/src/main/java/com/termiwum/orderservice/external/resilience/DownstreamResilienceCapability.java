@@ -0,0 +1,101 @@
+package com.termiwum.orderservice.external.resilience;
+
+import java.beans.Introspector;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-downstream time limit and retry budget for the Feign clients. The
+ * Resilience4j instance of a client is named after its interface (ProductService
+ * is productService), the same name used by its @CircuitBreaker, @Bulkhead and
+ * @Retry annotations.
+ *
+ * The calls are synchronous, so the time limiter's timeout is enforced as the
+ * read timeout of each attempt rather than by handing the call to another thread;
+ * timeouts are still reported through the instance's TimeLimiter events.
+ */
+@Component
+public class DownstreamResilienceCapability implements Capability {
+
+    private final Map<String, RetryBudget> retryBudgets = new ConcurrentHashMap<>();
+
+    private final TimeLimiterRegistry timeLimiterRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final double retryBudgetRatio;
+
+    private final int retryBudgetMaxBalance;
+
+    public DownstreamResilienceCapability(TimeLimiterRegistry timeLimiterRegistry, MeterRegistry meterRegistry,
+            @Value("${order.retry-budget.ratio:0.1}") double retryBudgetRatio,
+            @Value("${order.retry-budget.max-balance:10}") int retryBudgetMaxBalance) {
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.meterRegistry = meterRegistry;
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.retryBudgetMaxBalance = retryBudgetMaxBalance;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String instance = instanceName(request);
+            retryBudget(instance).recordCall();
+
+            TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(instance);
+            long timeoutMillis = timeLimiter.getTimeLimiterConfig().getTimeoutDuration().toMillis();
+            Request.Options limited = timeoutMillis < options.readTimeoutMillis()
+                    ? new Request.Options(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                            timeoutMillis, TimeUnit.MILLISECONDS, options.isFollowRedirects())
+                    : options;
+
+            try {
+                Response response = client.execute(request, limited);
+                timeLimiter.onSuccess();
+                return response;
+            } catch (SocketTimeoutException e) {
+                timeLimiter.onError(new TimeoutException(e.getMessage()));
+                throw e;
+            }
+        };
+    }
+
+    public RetryBudget retryBudget(String instance) {
+        return retryBudgets.computeIfAbsent(instance, this::createRetryBudget);
+    }
+
+    private RetryBudget createRetryBudget(String instance) {
+        RetryBudget retryBudget = new RetryBudget(retryBudgetRatio, retryBudgetMaxBalance);
+
+        Gauge.builder("order.downstream.retry_budget.balance", retryBudget, RetryBudget::getBalance)
+                .description("Retries currently available")
+                .tag("name", instance)
+                .register(meterRegistry);
+        FunctionCounter.builder("order.downstream.retry_budget.exhausted", retryBudget,
+                RetryBudget::getExhausted)
+                .description("Retries skipped because the budget was used up")
+                .tag("name", instance)
+                .register(meterRegistry);
+        return retryBudget;
+    }
+
+    private static String instanceName(Request request) {
+        return Introspector.decapitalize(request.requestTemplate().feignTarget().type().getSimpleName());
+    }
+}
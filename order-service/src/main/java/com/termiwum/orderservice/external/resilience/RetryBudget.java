@@ -0,0 +1,72 @@
+package com.termiwum.orderservice.external.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the retries to one downstream at a fraction of its calls. Every first attempt
+ * adds {@code ratio} to the balance and every retry spends one, so with a ratio of
+ * 0.1 retries add at most about 10% load, however many calls are failing. Retried
+ * attempts do not add to the balance, or a failing downstream would pay for its own
+ * retries. The balance is capped, which limits how many saved-up retries a sudden
+ * outage can spend.
+ */
+public class RetryBudget {
+
+    // balance kept in thousandths of a retry so it can be updated atomically
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public RetryBudget(double ratio, int maxBalance) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = maxBalance * SCALE;
+        this.balance = new AtomicLong(this.maxBalance);
+    }
+
+    public void recordCall() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(maxBalance, current + amount));
+    }
+
+    /**
+     * Takes back the deposit of an attempt that is a retry. Called when the retry is
+     * scheduled, before its attempt is recorded as a call.
+     */
+    public void recordRetry() {
+        balance.addAndGet(-deposit);
+    }
+
+    /**
+     * Spends one retry; returns false when the budget is used up. A retry spent for a
+     * failure that turns out to be the last attempt is given back with
+     * {@link #cancelRetry()}.
+     */
+    public boolean tryRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                exhausted.incrementAndGet();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public void cancelRetry() {
+        balance.accumulateAndGet(SCALE, (current, amount) -> Math.min(maxBalance, current + amount));
+    }
+
+    public double getBalance() {
+        return (double) balance.get() / SCALE;
+    }
+
+    public long getExhausted() {
+        return exhausted.get();
+    }
+}
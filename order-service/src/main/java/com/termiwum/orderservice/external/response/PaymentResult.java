@@ -0,0 +1,18 @@
+package com.termiwum.orderservice.external.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentResult {
+
+    private long orderId;
+    private long paymentId;
+    private String status;
+
+}
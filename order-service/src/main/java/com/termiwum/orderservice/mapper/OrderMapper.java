@@ -0,0 +1,56 @@
+package com.termiwum.orderservice.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.Named;
+
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.entity.OrderView;
+import com.termiwum.orderservice.external.response.PaymentResponse;
+import com.termiwum.orderservice.external.response.ProductResponse;
+import com.termiwum.orderservice.model.OrderResponse;
+
+/**
+ * Order response mappings, generated at compile time by MapStruct. Details
+ * that could not be fetched stay null and are named in unavailableSections.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, imports = List.class)
+public interface OrderMapper {
+
+    @Mapping(target = "orderId", source = "order.id")
+    @Mapping(target = "orderDate", source = "order.orderDate")
+    @Mapping(target = "orderStatus", source = "order.orderStatus")
+    @Mapping(target = "amount", source = "order.amount")
+    @Mapping(target = "productDetails", source = "productResponse")
+    @Mapping(target = "paymentDetails", source = "paymentResponse")
+    @Mapping(target = "unavailableSections", source = "unavailableSections", qualifiedByName = "emptyToNull")
+    OrderResponse toOrderResponse(Order order, ProductResponse productResponse, PaymentResponse paymentResponse,
+            List<String> unavailableSections);
+
+    @Mapping(target = "productDetails", source = ".")
+    @Mapping(target = "paymentDetails", source = ".", conditionExpression = "java(orderView.getPaymentId() != null)")
+    @Mapping(target = "unavailableSections",
+            expression = "java(orderView.getPaymentId() == null ? List.of(\"paymentDetails\") : null)")
+    OrderResponse toOrderResponse(OrderView orderView);
+
+    @Mapping(target = "quantity", ignore = true)
+    @Mapping(target = "price", ignore = true)
+    OrderResponse.ProductDetails toProductDetails(ProductResponse productResponse);
+
+    @Mapping(target = "quantity", ignore = true)
+    @Mapping(target = "price", ignore = true)
+    OrderResponse.ProductDetails toProductDetails(OrderView orderView);
+
+    @Mapping(target = "paymentStatus", source = "status")
+    OrderResponse.PaymentDetails toPaymentDetails(PaymentResponse paymentResponse);
+
+    OrderResponse.PaymentDetails toPaymentDetails(OrderView orderView);
+
+    @Named("emptyToNull")
+    default List<String> emptyToNull(List<String> sections) {
+        return sections == null || sections.isEmpty() ? null : List.copyOf(sections);
+    }
+}
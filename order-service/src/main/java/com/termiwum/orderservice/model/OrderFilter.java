@@ -0,0 +1,22 @@
+package com.termiwum.orderservice.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderFilter {
+
+    private String orderStatus;
+    // inclusive
+    private Instant from;
+    // exclusive
+    private Instant to;
+
+}
@@ -0,0 +1,20 @@
+package com.termiwum.orderservice.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderPage {
+
+    private List<OrderSummary> orders;
+    // pass as cursor to get the next page; null on the last page
+    private String nextCursor;
+
+}
@@ -0,0 +1,18 @@
+package com.termiwum.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderPlacementResult {
+
+    private long orderId;
+    private String orderStatus;
+    private String errorCode;
+
+}
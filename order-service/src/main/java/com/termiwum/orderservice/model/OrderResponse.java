@@ -1,6 +1,7 @@
 package com.termiwum.orderservice.model;
 
 import java.time.Instant;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +20,7 @@ public class OrderResponse {
     private long amount;
     private ProductDetails productDetails;
     private PaymentDetails paymentDetails;
+    private List<String> unavailableSections;
 
     @Data
     @Builder
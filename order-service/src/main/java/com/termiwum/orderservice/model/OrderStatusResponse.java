@@ -0,0 +1,17 @@
+package com.termiwum.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderStatusResponse {
+
+    private long orderId;
+    private String orderStatus;
+
+}
@@ -0,0 +1,23 @@
+package com.termiwum.orderservice.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderSummary {
+
+    private long orderId;
+    private long productId;
+    private long quantity;
+    private Instant orderDate;
+    private String orderStatus;
+    private long amount;
+
+}
@@ -0,0 +1,263 @@
+package com.termiwum.orderservice.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.exception.CustomException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Collects ORDER_DETAILS inserts and status updates from concurrent requests and
+ * commits them together: one transaction and one JDBC batch per flush. A flush
+ * happens when the batch is full or the commit window has passed. Callers block
+ * until their write has been committed.
+ *
+ * A caller that stops waiting cancels its write if the writer has not taken it
+ * yet, so a WRITE_TIMEOUT never leaves an order behind. Once taken, the write's
+ * transaction decides the outcome and the caller waits for it.
+ *
+ * A single writer thread drains the queue in arrival order, so the writes of one
+ * order are committed in the order they were made.
+ */
+@Component
+@Log4j2
+public class OrderGroupCommitWriter {
+
+    private static final String UPDATE_STATUS_SQL = "update order_details set status = ? where id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final int maxBatchSize;
+
+    private final Duration commitWindow;
+
+    private final Duration writeTimeout;
+
+    private final BlockingQueue<PendingWrite> queue;
+
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    public OrderGroupCommitWriter(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.group-commit.enabled:false}") boolean enabled,
+            @Value("${order.group-commit.max-batch-size:100}") int maxBatchSize,
+            @Value("${order.group-commit.window:5ms}") Duration commitWindow,
+            @Value("${order.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${order.group-commit.write-timeout:5s}") Duration writeTimeout,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.commitWindow = commitWindow;
+        this.writeTimeout = writeTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("order.group_commit.batch.size")
+                .description("Writes committed per ORDER_DETAILS transaction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("order-group-commit").daemon().start(this::run);
+        log.info("Group commit enabled for ORDER_DETAILS (batch {} / window {})", maxBatchSize, commitWindow);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(writeTimeout.toMillis());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inserts the order and assigns its id; returns once the insert is committed.
+     */
+    public void insert(Order order) {
+        await(enqueue(new PendingWrite(order, 0, null)));
+    }
+
+    /**
+     * Changes the status of an already inserted order; returns once committed.
+     */
+    public void updateStatus(long orderId, String orderStatus) {
+        await(enqueue(new PendingWrite(null, orderId, orderStatus)));
+    }
+
+    private PendingWrite enqueue(PendingWrite write) {
+        try {
+            if (!running || !queue.offer(write, writeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new CustomException("Order writer is overloaded", "WRITE_REJECTED", 503);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Interrupted while queueing order write", "WRITE_REJECTED", 503);
+        }
+        return write;
+    }
+
+    private void await(PendingWrite write) {
+        try {
+            write.committed().get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return;
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (write.claim()) {
+                throw new CustomException("Timed out waiting for order write", "WRITE_TIMEOUT", 503);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (write.claim()) {
+                throw new CustomException("Interrupted while waiting for order write", "WRITE_TIMEOUT", 503);
+            }
+        }
+
+        // the writer took it before it could be cancelled; it is committed or failed shortly
+        try {
+            write.committed().join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(cause);
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null || !first.claim()) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + commitWindow.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    PendingWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.claim()) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                List<PendingWrite> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                rest.stream().filter(PendingWrite::claim).forEach(batch::add);
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            batchSizes.record(batch.size());
+            batch.forEach(write -> write.committed().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} order writes failed, retrying them one by one: {}", batch.size(),
+                    e.getMessage());
+            for (PendingWrite write : batch) {
+                if (write.order() != null) {
+                    // the rolled back batch already assigned an id
+                    write.order().setId(0);
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(List.of(write)));
+                    write.committed().complete(null);
+                } catch (RuntimeException writeFailure) {
+                    write.committed().completeExceptionally(writeFailure);
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<Object[]> statusUpdates = new ArrayList<>();
+
+        for (PendingWrite write : batch) {
+            if (write.order() != null) {
+                entityManager.persist(write.order());
+            } else {
+                statusUpdates.add(new Object[] { write.orderStatus(), write.orderId() });
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        if (!statusUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, statusUpdates);
+        }
+    }
+
+    /**
+     * A queued write; whoever claims it first, the writer or the caller giving
+     * up on it, decides whether it is written.
+     */
+    private record PendingWrite(Order order, long orderId, String orderStatus, CompletableFuture<Void> committed,
+            AtomicBoolean claimed) {
+
+        PendingWrite(Order order, long orderId, String orderStatus) {
+            this(order, orderId, orderStatus, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
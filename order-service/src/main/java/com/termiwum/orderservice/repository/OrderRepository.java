@@ -1,10 +1,24 @@
 package com.termiwum.orderservice.repository;
 
+import java.util.Collection;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.termiwum.orderservice.entity.Order;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    Optional<Order> findByIdempotencySubjectAndIdempotencyKey(String idempotencySubject, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.orderStatus = :orderStatus where o.id in :ids")
+    int updateOrderStatus(@Param("ids") Collection<Long> ids, @Param("orderStatus") String orderStatus);
 }
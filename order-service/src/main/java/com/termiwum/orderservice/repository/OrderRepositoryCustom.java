@@ -0,0 +1,36 @@
+package com.termiwum.orderservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.termiwum.orderservice.model.OrderSummary;
+
+/**
+ * Order listing queries. A null status, from or to means no filter on it; the
+ * predicate is left out of the query instead of being written as
+ * "(:x is null or ...)", which keeps the database from using the (STATUS,
+ * ORDER_DATE, id) and (ORDER_DATE, id) indexes.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * First page of orders, newest first.
+     */
+    List<OrderSummary> findFirstPage(String status, Instant from, Instant to, Limit limit);
+
+    /**
+     * Orders that come after (orderDate, id) in newest-first order. Seeks on the
+     * (ORDER_DATE, id) index instead of skipping rows, so every page costs the same.
+     */
+    List<OrderSummary> findPageAfter(String status, Instant from, Instant to, Instant orderDate, long id,
+            Limit limit);
+
+    /**
+     * All matching orders read through a database cursor. Summaries are not managed
+     * entities, so memory stays flat; must be consumed inside a transaction.
+     */
+    Stream<OrderSummary> streamAll(String status, Instant from, Instant to);
+}
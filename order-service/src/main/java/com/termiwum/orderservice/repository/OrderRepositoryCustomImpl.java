@@ -0,0 +1,92 @@
+package com.termiwum.orderservice.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+
+import com.termiwum.orderservice.model.OrderSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String SUMMARY = "select new com.termiwum.orderservice.model.OrderSummary("
+            + "o.id, o.productId, o.quantity, o.orderDate, o.orderStatus, o.amount) from Order o";
+
+    private static final String NEWEST_FIRST = " order by o.orderDate desc, o.id desc";
+
+    private final EntityManager entityManager;
+
+    public OrderRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<OrderSummary> findFirstPage(String status, Instant from, Instant to, Limit limit) {
+        return query(status, from, to, null, 0, maxResults(limit)).getResultList();
+    }
+
+    @Override
+    public List<OrderSummary> findPageAfter(String status, Instant from, Instant to, Instant orderDate, long id,
+            Limit limit) {
+        return query(status, from, to, orderDate, id, maxResults(limit)).getResultList();
+    }
+
+    @Override
+    public Stream<OrderSummary> streamAll(String status, Instant from, Instant to) {
+        return query(status, from, to, null, 0, 0)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+
+    /**
+     * Builds the listing query from the filters that are set. afterDate null means
+     * the first page; maxResults 0 means no limit.
+     */
+    private TypedQuery<OrderSummary> query(String status, Instant from, Instant to, Instant afterDate, long afterId,
+            int maxResults) {
+        List<String> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add("o.orderStatus = :status");
+        }
+        if (from != null) {
+            predicates.add("o.orderDate >= :from");
+        }
+        if (to != null) {
+            predicates.add("o.orderDate < :to");
+        }
+        if (afterDate != null) {
+            predicates.add("(o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id))");
+        }
+        String jpql = SUMMARY + (predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates))
+                + NEWEST_FIRST;
+
+        TypedQuery<OrderSummary> query = entityManager.createQuery(jpql, OrderSummary.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (afterDate != null) {
+            query.setParameter("orderDate", afterDate);
+            query.setParameter("id", afterId);
+        }
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults);
+        }
+        return query;
+    }
+
+    private static int maxResults(Limit limit) {
+        return limit.isLimited() ? limit.max() : 0;
+    }
+}
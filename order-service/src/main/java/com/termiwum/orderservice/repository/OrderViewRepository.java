@@ -0,0 +1,10 @@
+package com.termiwum.orderservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.termiwum.orderservice.entity.OrderView;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+}
@@ -0,0 +1,137 @@
+package com.termiwum.orderservice.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.stereotype.Service;
+
+import com.termiwum.orderservice.exception.CustomException;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Holds the service's own client_credentials access token, used for downstream
+ * calls that have no caller token, e.g. work running off the request thread.
+ *
+ * The token is fetched once and kept in memory. Once it is within the refresh
+ * window of its expiry one caller refreshes it while the others keep using the
+ * current token; only an expired token makes callers wait for the refresh.
+ */
+@Service
+@Log4j2
+public class InternalTokenManager {
+
+    private final ClientRegistration registration;
+
+    private final OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient;
+
+    private final Duration refreshAhead;
+
+    private final Clock clock;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile OAuth2AccessToken accessToken;
+
+    @Autowired
+    public InternalTokenManager(ObjectProvider<ClientRegistrationRepository> clientRegistrationRepository,
+            @Value("${order.internal-token.registration-id:internal-client}") String registrationId,
+            @Value("${order.internal-token.refresh-ahead:60s}") Duration refreshAhead) {
+        this(findRegistration(clientRegistrationRepository.getIfAvailable(), registrationId),
+                new RestClientClientCredentialsTokenResponseClient(), refreshAhead, Clock.systemUTC());
+    }
+
+    InternalTokenManager(ClientRegistration registration,
+            OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenResponseClient,
+            Duration refreshAhead, Clock clock) {
+        this.registration = registration;
+        this.tokenResponseClient = tokenResponseClient;
+        this.refreshAhead = refreshAhead;
+        this.clock = clock;
+
+        if (registration == null) {
+            log.info("No client_credentials registration found, internal calls only forward the caller's token");
+        }
+    }
+
+    /**
+     * Returns the current service access token, or null when no client_credentials
+     * registration is configured.
+     */
+    public String getToken() {
+        if (registration == null) {
+            return null;
+        }
+
+        OAuth2AccessToken token = accessToken;
+        Instant now = clock.instant();
+
+        if (token != null && !isDue(token, now)) {
+            return token.getTokenValue();
+        }
+
+        if (token != null && !isExpired(token, now)) {
+            // still valid: this caller refreshes it, concurrent callers keep the current one
+            if (refreshLock.tryLock()) {
+                try {
+                    refreshIfDue();
+                } catch (RuntimeException e) {
+                    log.warn("Early refresh of the internal access token failed: {}", e.getMessage());
+                } finally {
+                    refreshLock.unlock();
+                }
+            }
+            return accessToken.getTokenValue();
+        }
+
+        refreshLock.lock();
+        try {
+            refreshIfDue();
+            return accessToken.getTokenValue();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void refreshIfDue() {
+        OAuth2AccessToken token = accessToken;
+        if (token != null && !isDue(token, clock.instant())) {
+            // another caller refreshed it while we waited for the lock
+            return;
+        }
+
+        log.info("Requesting access token for client registration: {}", registration.getRegistrationId());
+        try {
+            accessToken = tokenResponseClient
+                    .getTokenResponse(new OAuth2ClientCredentialsGrantRequest(registration))
+                    .getAccessToken();
+        } catch (RuntimeException e) {
+            throw new CustomException("Could not obtain internal access token: " + e.getMessage(),
+                    "TOKEN_UNAVAILABLE", 503);
+        }
+    }
+
+    private boolean isDue(OAuth2AccessToken token, Instant now) {
+        return token.getExpiresAt() != null && !now.isBefore(token.getExpiresAt().minus(refreshAhead));
+    }
+
+    private boolean isExpired(OAuth2AccessToken token, Instant now) {
+        return token.getExpiresAt() != null && !now.isBefore(token.getExpiresAt());
+    }
+
+    private static ClientRegistration findRegistration(ClientRegistrationRepository repository,
+            String registrationId) {
+        return repository == null ? null : repository.findByRegistrationId(registrationId);
+    }
+}
@@ -0,0 +1,174 @@
+package com.termiwum.orderservice.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.repository.OrderRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Runs each order placement once per Idempotency-Key of a caller. A retried request
+ * gets the id of the order placed by the first one; if the first one is still
+ * running the retry waits for it instead of reducing stock and paying again. Keys
+ * are scoped to the authenticated subject, so two callers picking the same key do
+ * not see each other's orders, and a key reused with a different request body is
+ * rejected with 422.
+ *
+ * Recent keys are kept in a bounded local index. Keys that are no longer in it are
+ * looked up by the unique (IDEMPOTENCY_SUBJECT, IDEMPOTENCY_KEY) columns of
+ * ORDER_DETAILS. A placement claims its key by storing its order under those
+ * columns before reducing stock, which also covers retries that reach another
+ * instance at the same time.
+ */
+@Component
+@Log4j2
+public class OrderIdempotencyIndex {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderRepository orderRepository;
+
+    private final Cache<ScopedKey, Placement> placements;
+
+    private final Duration waitTimeout;
+
+    public OrderIdempotencyIndex(OrderRepository orderRepository,
+            @Value("${order.idempotency.maximum-size:10000}") long maximumSize,
+            @Value("${order.idempotency.ttl:1h}") Duration ttl,
+            @Value("${order.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.orderRepository = orderRepository;
+        this.waitTimeout = waitTimeout;
+        this.placements = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the id of the order placed for the subject's key, running the placement
+     * only if no order has been placed or is being placed for it on this instance.
+     * A placement that fails is forgotten here; whether a retry places the order
+     * anew is decided by its claim, see {@link #claim}.
+     */
+    public long placeOnce(IdempotencyKey idempotencyKey, Supplier<Long> placement) {
+        String key = idempotencyKey.key();
+        String requestHash = idempotencyKey.requestHash();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new CustomException("Idempotency-Key must have 1 to " + MAX_KEY_LENGTH + " characters",
+                    "INVALID_IDEMPOTENCY_KEY", 400);
+        }
+
+        ScopedKey scopedKey = new ScopedKey(idempotencyKey.subject(), key);
+        Placement pending = new Placement(requestHash, new CompletableFuture<>());
+        Placement existing = placements.asMap().putIfAbsent(scopedKey, pending);
+
+        if (existing != null) {
+            log.info("Order for Idempotency-Key {} already placed or in progress", key);
+            checkSameRequest(existing.requestHash(), requestHash);
+            return await(existing.orderId());
+        }
+
+        try {
+            long orderId = findOrderId(scopedKey, requestHash).orElseGet(placement);
+            pending.orderId().complete(orderId);
+            return orderId;
+        } catch (RuntimeException e) {
+            placements.asMap().remove(scopedKey, pending);
+            pending.orderId().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the order under its key before any stock is taken for it. The insert is
+     * checked by UK_ORDER_IDEMPOTENCY, so of two placements with the same key, on
+     * this instance or another, only one goes on to reduce stock. Returns the id of
+     * the order already stored under the key, or empty when this order claimed it.
+     */
+    public Optional<Long> claim(IdempotencyKey idempotencyKey, Order order) {
+        order.setIdempotencySubject(idempotencyKey.subject());
+        order.setIdempotencyKey(idempotencyKey.key());
+        order.setRequestHash(idempotencyKey.requestHash());
+        try {
+            orderRepository.saveAndFlush(order);
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            log.info("Idempotency-Key {} was claimed by another placement", idempotencyKey.key());
+            Optional<Long> orderId = findOrderId(new ScopedKey(idempotencyKey.subject(), idempotencyKey.key()),
+                    idempotencyKey.requestHash());
+            if (orderId.isEmpty()) {
+                // not a key conflict after all
+                throw e;
+            }
+            return orderId;
+        }
+    }
+
+    /**
+     * Gives back the key of a claimed order that failed before any stock was taken,
+     * so that a retry places it anew.
+     */
+    public void release(Order order) {
+        orderRepository.delete(order);
+    }
+
+    private Optional<Long> findOrderId(ScopedKey scopedKey, String requestHash) {
+        return orderRepository.findByIdempotencySubjectAndIdempotencyKey(scopedKey.subject(), scopedKey.key())
+                .map(order -> {
+                    checkSameRequest(order.getRequestHash(), requestHash);
+                    return order.getId();
+                });
+    }
+
+    private static void checkSameRequest(String placedHash, String requestHash) {
+        // orders stored before request hashes were kept have none to compare
+        if (placedHash != null && !placedHash.equals(requestHash)) {
+            throw new CustomException("Idempotency-Key was already used for a different request",
+                    "IDEMPOTENCY_KEY_REUSED", 422);
+        }
+    }
+
+    private long await(CompletableFuture<Long> placement) {
+        try {
+            return placement.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CustomException("Order with the same Idempotency-Key is still in progress",
+                    "ORDER_IN_PROGRESS", 409);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Interrupted while waiting for order placement", "ORDER_IN_PROGRESS", 409);
+        }
+    }
+
+    /**
+     * An Idempotency-Key with the subject it belongs to and the SHA-256 of the
+     * request it was sent with; stored on the order placed under it.
+     */
+    public record IdempotencyKey(String subject, String key, String requestHash) {
+    }
+
+    private record ScopedKey(String subject, String key) {
+    }
+
+    private record Placement(String requestHash, CompletableFuture<Long> orderId) {
+    }
+}
@@ -1,5 +1,12 @@
 package com.termiwum.orderservice.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.termiwum.orderservice.model.OrderFilter;
+import com.termiwum.orderservice.model.OrderPage;
+import com.termiwum.orderservice.model.OrderPlacementResult;
 import com.termiwum.orderservice.model.OrderRequest;
 import com.termiwum.orderservice.model.OrderResponse;
 
@@ -7,5 +14,23 @@ public interface OrderService {
 
     long placeOrder(OrderRequest orderRequest);
 
+    long placeOrder(OrderRequest orderRequest, String subject, String idempotencyKey);
+
+    long placeOrderAsync(OrderRequest orderRequest);
+
+    long placeOrderAsync(OrderRequest orderRequest, String subject, String idempotencyKey);
+
+    List<OrderPlacementResult> placeOrders(List<OrderRequest> orderRequests);
+
+    String getOrderStatus(long orderId);
+
     OrderResponse getOrderDetails(long orderId);
+
+    OrderResponse getOrderDetails(long orderId, boolean refresh);
+
+    List<OrderResponse> getOrdersDetails(List<Long> orderIds);
+
+    OrderPage getOrders(OrderFilter filter, String cursor, int limit);
+
+    void exportOrders(OrderFilter filter, OutputStream outputStream) throws IOException;
 }
\ No newline at end of file
@@ -1,22 +1,74 @@
 package com.termiwum.orderservice.service;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.entity.OrderView;
 import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.cache.ProductSnapshotCache;
 import com.termiwum.orderservice.external.client.PaymentService;
 import com.termiwum.orderservice.external.client.ProductService;
+import com.termiwum.orderservice.external.limit.ConcurrencyLimitExceededException;
 import com.termiwum.orderservice.external.request.PaymentRequest;
+import com.termiwum.orderservice.external.request.ReduceQuantityRequest;
+import com.termiwum.orderservice.external.request.RestoreQuantityRequest;
 import com.termiwum.orderservice.external.response.PaymentResponse;
+import com.termiwum.orderservice.external.response.PaymentResult;
 import com.termiwum.orderservice.external.response.ProductResponse;
+import com.termiwum.orderservice.external.response.ReduceQuantityResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.termiwum.orderservice.mapper.OrderMapper;
+import com.termiwum.orderservice.model.OrderFilter;
+import com.termiwum.orderservice.model.OrderPage;
+import com.termiwum.orderservice.model.OrderPlacementResult;
 import com.termiwum.orderservice.model.OrderRequest;
 import com.termiwum.orderservice.model.OrderResponse;
+import com.termiwum.orderservice.model.OrderSummary;
+import com.termiwum.orderservice.model.PaymentMode;
+import com.termiwum.orderservice.repository.OrderGroupCommitWriter;
 import com.termiwum.orderservice.repository.OrderRepository;
+import com.termiwum.orderservice.repository.OrderViewRepository;
+import com.termiwum.orderservice.service.OrderIdempotencyIndex.IdempotencyKey;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -24,9 +76,19 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class OrderServiceImpl implements OrderService {
 
+        // placements whose stock reduction or payment may or may not have happened
+        private static final String STOCK_UNCONFIRMED = "STOCK_UNCONFIRMED";
+        private static final String PAYMENT_UNCONFIRMED = "PAYMENT_UNCONFIRMED";
+
         @Autowired
         private OrderRepository orderRepository;
 
+        @Autowired
+        private OrderGroupCommitWriter orderGroupCommitWriter;
+
+        @Autowired
+        private OrderViewRepository orderViewRepository;
+
         @Autowired
         private ProductService productService;
 
@@ -36,39 +98,444 @@ public class OrderServiceImpl implements OrderService {
         @Autowired
         private RestTemplate restTemplate;
 
-        @Value("${microservice.PRODUCT-SERVICE}")
-        private String productServiceUrl;
+        @Autowired
+        private ProductSnapshotCache productSnapshotCache;
+
+        @Autowired
+        private TokenService tokenService;
+
+        @Autowired
+        private OrderIdempotencyIndex orderIdempotencyIndex;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private OrderMapper orderMapper;
+
+        @Autowired
+        @Qualifier("orderDetailsExecutor")
+        private ExecutorService orderDetailsExecutor;
+
+        @Autowired
+        @Qualifier("paymentWorkerExecutor")
+        private Executor paymentWorkerExecutor;
 
         @Value("${microservice.PAYMENT-SERVICE}")
         private String paymentServiceUrl;
 
+        @Value("${order.details.parallel:true}")
+        private boolean parallelDetailsFetch;
+
+        @Value("${order.details.timeout:2s}")
+        private Duration detailsTimeout;
+
+        @Value("${order.details.max-batch-size:200}")
+        private int maxBatchSize;
+
+        @Value("${order.placement.max-bulk-size:500}")
+        private int maxBulkPlacementSize;
+
+        @Value("${order.read-model.enabled:true}")
+        private boolean readModelEnabled;
+
+        @Value("${order.listing.max-page-size:500}")
+        private int maxPageSize;
+
         @Override
         public long placeOrder(OrderRequest orderRequest) {
+                return placeOrder(orderRequest, null, null);
+        }
+
+        @Override
+        public long placeOrder(OrderRequest orderRequest, String subject, String idempotencyKey) {
+                if (idempotencyKey == null) {
+                        return doPlaceOrder(orderRequest, null);
+                }
+                IdempotencyKey key = idempotencyKey(orderRequest, subject, idempotencyKey);
+                return orderIdempotencyIndex.placeOnce(key, () -> doPlaceOrder(orderRequest, key));
+        }
+
+        @Override
+        public long placeOrderAsync(OrderRequest orderRequest) {
+                return placeOrderAsync(orderRequest, null, null);
+        }
+
+        @Override
+        public long placeOrderAsync(OrderRequest orderRequest, String subject, String idempotencyKey) {
+                if (idempotencyKey == null) {
+                        return doPlaceOrderAsync(orderRequest, null);
+                }
+                IdempotencyKey key = idempotencyKey(orderRequest, subject, idempotencyKey);
+                return orderIdempotencyIndex.placeOnce(key, () -> doPlaceOrderAsync(orderRequest, key));
+        }
+
+        /**
+         * Scopes the key to the caller and hashes the request, so a key reused for a
+         * different order can be told from a retry.
+         */
+        private IdempotencyKey idempotencyKey(OrderRequest orderRequest, String subject, String idempotencyKey) {
+                try {
+                        byte[] digest = MessageDigest.getInstance("SHA-256")
+                                        .digest(objectMapper.writeValueAsBytes(orderRequest));
+                        return new IdempotencyKey(subject == null ? "" : subject, idempotencyKey,
+                                        HexFormat.of().formatHex(digest));
+                } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+                        throw new IllegalStateException("Could not hash order request", e);
+                }
+        }
+
+        private long doPlaceOrder(OrderRequest orderRequest, IdempotencyKey idempotencyKey) {
                 log.info("Placing order request {}", orderRequest);
 
-                productService.reduceQuantity(orderRequest.getProductId(), orderRequest.getQuantity());
+                Order order = newOrder(orderRequest);
+                if (idempotencyKey != null) {
+                        Optional<Long> placed = orderIdempotencyIndex.claim(idempotencyKey, order);
+                        if (placed.isPresent()) {
+                                return placed.get();
+                        }
+                }
+                createOrder(order, idempotencyKey != null);
+                completePayment(order, orderRequest);
 
-                log.info("Creating Order With Status CREATED");
+                log.info("Order placed successfully with ID: {}", order.getId());
+
+                return order.getId();
+        }
+
+        private long doPlaceOrderAsync(OrderRequest orderRequest, IdempotencyKey idempotencyKey) {
+                log.info("Placing order request {} asynchronously", orderRequest);
+
+                Order order = newOrder(orderRequest);
+                if (idempotencyKey != null) {
+                        Optional<Long> placed = orderIdempotencyIndex.claim(idempotencyKey, order);
+                        if (placed.isPresent()) {
+                                return placed.get();
+                        }
+                }
+                createOrder(order, idempotencyKey != null);
+
+                // a full worker queue makes the caller run the payment itself (backpressure)
+                paymentWorkerExecutor.execute(tokenService.propagate(() -> completePayment(order, orderRequest)));
 
-                Order order = Order.builder()
+                log.info("Order accepted with ID: {}, payment pending", order.getId());
+
+                return order.getId();
+        }
+
+        @Override
+        public List<OrderPlacementResult> placeOrders(List<OrderRequest> orderRequests) {
+                log.info("Placing {} orders in bulk", orderRequests.size());
+
+                if (orderRequests.size() > maxBulkPlacementSize) {
+                        throw new CustomException("At most " + maxBulkPlacementSize + " orders can be placed at once",
+                                        "TOO_MANY_ORDERS", 400);
+                }
+
+                OrderPlacementResult[] results = new OrderPlacementResult[orderRequests.size()];
+
+                String[] stockErrors = reduceQuantities(orderRequests);
+
+                List<Order> orders = new ArrayList<>();
+                List<Integer> orderPositions = new ArrayList<>();
+                for (int i = 0; i < orderRequests.size(); i++) {
+                        OrderRequest request = orderRequests.get(i);
+                        String stockError = stockErrors[i];
+                        boolean stockUnconfirmed = STOCK_UNCONFIRMED.equals(stockError);
+                        if (stockError != null && !stockUnconfirmed) {
+                                results[i] = OrderPlacementResult.builder().errorCode(stockError).build();
+                                continue;
+                        }
+                        // an order whose stock may or may not have been taken is kept for reconciliation, unpaid
+                        orders.add(Order.builder()
+                                        .amount(request.getTotalAmount())
+                                        .orderStatus(stockUnconfirmed ? STOCK_UNCONFIRMED : "CREATED")
+                                        .productId(request.getProductId())
+                                        .orderDate(Instant.now())
+                                        .quantity(request.getQuantity())
+                                        .build());
+                        orderPositions.add(i);
+                }
+
+                if (orders.isEmpty()) {
+                        return List.of(results);
+                }
+
+                log.info("Creating {} Orders", orders.size());
+                orders = orderRepository.saveAll(orders);
+
+                List<Order> created = new ArrayList<>();
+                List<Integer> createdPositions = new ArrayList<>();
+                for (int i = 0; i < orders.size(); i++) {
+                        Order order = orders.get(i);
+                        if (STOCK_UNCONFIRMED.equals(order.getOrderStatus())) {
+                                results[orderPositions.get(i)] = OrderPlacementResult.builder()
+                                                .orderId(order.getId())
+                                                .orderStatus(STOCK_UNCONFIRMED)
+                                                .errorCode(STOCK_UNCONFIRMED)
+                                                .build();
+                        } else {
+                                created.add(order);
+                                createdPositions.add(orderPositions.get(i));
+                        }
+                }
+                if (created.isEmpty()) {
+                        return List.of(results);
+                }
+
+                Map<Long, PaymentResult> payments = doPayments(created, createdPositions, orderRequests);
+
+                List<Long> placed = new ArrayList<>();
+                List<Long> paymentFailed = new ArrayList<>();
+                List<Long> paymentUnconfirmed = new ArrayList<>();
+                List<RestoreQuantityRequest> unpaidStock = new ArrayList<>();
+                List<OrderView> orderViews = new ArrayList<>();
+                for (int i = 0; i < created.size(); i++) {
+                        Order order = created.get(i);
+                        OrderRequest request = orderRequests.get(createdPositions.get(i));
+                        PaymentResult payment = payments == null ? null : payments.get(order.getId());
+                        boolean paid = payment != null && "SUCCESS".equals(payment.getStatus());
+                        String orderStatus = paid ? "PLACED"
+                                        : payments == null ? PAYMENT_UNCONFIRMED : "PAYMENT_FAILED";
+
+                        order.setOrderStatus(orderStatus);
+                        if (paid) {
+                                placed.add(order.getId());
+                        } else if (payments == null) {
+                                // the payment may have gone through; neither refund the stock nor show a view
+                                paymentUnconfirmed.add(order.getId());
+                        } else {
+                                paymentFailed.add(order.getId());
+                                unpaidStock.add(RestoreQuantityRequest.builder()
+                                                .orderId(order.getId())
+                                                .productId(request.getProductId())
+                                                .quantity(request.getQuantity())
+                                                .build());
+                        }
+                        if (payments != null) {
+                                orderViews.add(toOrderView(order, request.getPaymentMode(),
+                                                payment == null ? null : payment.getPaymentId(),
+                                                payment == null ? null : payment.getStatus()));
+                        }
+                        results[createdPositions.get(i)] = OrderPlacementResult.builder()
+                                        .orderId(order.getId())
+                                        .orderStatus(orderStatus)
+                                        .errorCode(paid ? null : orderStatus)
+                                        .build();
+                }
+
+                if (!placed.isEmpty()) {
+                        orderRepository.updateOrderStatus(placed, "PLACED");
+                }
+                if (!paymentFailed.isEmpty()) {
+                        orderRepository.updateOrderStatus(paymentFailed, "PAYMENT_FAILED");
+                        restoreQuantities(unpaidStock);
+                }
+                if (!paymentUnconfirmed.isEmpty()) {
+                        orderRepository.updateOrderStatus(paymentUnconfirmed, PAYMENT_UNCONFIRMED);
+                }
+                saveOrderViews(orderViews);
+
+                log.info("Bulk placement done: {} placed, {} payment failed, {} payment unconfirmed, "
+                                + "{} stock unconfirmed, {} rejected", placed.size(), paymentFailed.size(),
+                                paymentUnconfirmed.size(), orders.size() - created.size(),
+                                orderRequests.size() - orders.size());
+
+                return List.of(results);
+        }
+
+        /**
+         * Reduces stock for every order line in one call, with the quantities of each
+         * product summed into one reduction, and spreads each product's outcome back over
+         * its lines. Returns the error code of each line, null where the stock was taken.
+         * A client error means nothing was reduced; any other failure may have happened
+         * after the reduction, so those lines are {@code STOCK_UNCONFIRMED}.
+         */
+        private String[] reduceQuantities(List<OrderRequest> orderRequests) {
+                Map<Long, Long> quantitiesByProduct = new LinkedHashMap<>();
+                orderRequests.forEach(request -> quantitiesByProduct.merge(request.getProductId(),
+                                request.getQuantity(), Long::sum));
+                List<ReduceQuantityRequest> requests = quantitiesByProduct.entrySet().stream()
+                                .map(entry -> ReduceQuantityRequest.builder()
+                                                .productId(entry.getKey())
+                                                .quantity(entry.getValue())
+                                                .build())
+                                .toList();
+
+                // a product without an answer has an unknown outcome
+                Map<Long, String> productErrors = new HashMap<>();
+                quantitiesByProduct.keySet().forEach(productId -> productErrors.put(productId, STOCK_UNCONFIRMED));
+                try {
+                        List<ReduceQuantityResponse> responses = productService.reduceQuantities(requests).getBody();
+                        if (responses != null) {
+                                for (ReduceQuantityResponse response : responses) {
+                                        productErrors.replace(response.getProductId(),
+                                                        response.isReduced() ? null : response.getErrorCode());
+                                }
+                        }
+                } catch (CustomException e) {
+                        log.error("Error reducing product quantities: {}", e.getMessage());
+                        String error = e.getStatus() < 500 ? e.getErrorCode() : STOCK_UNCONFIRMED;
+                        productErrors.replaceAll((productId, productError) -> error);
+                } catch (Exception e) {
+                        log.error("Error reducing product quantities, outcome unknown: {}", e.getMessage());
+                }
+
+                String[] stockErrors = new String[orderRequests.size()];
+                for (int i = 0; i < stockErrors.length; i++) {
+                        stockErrors[i] = productErrors.get(orderRequests.get(i).getProductId());
+                }
+                return stockErrors;
+        }
+
+        /**
+         * Submits the payments of all created orders in one call and returns the payment
+         * result of every order the payment service answered for, by order id. When the
+         * call fails the payments recorded so far are looked up instead; null when that
+         * fails too and the outcome is unknown.
+         */
+        private Map<Long, PaymentResult> doPayments(List<Order> orders, List<Integer> orderPositions,
+                        List<OrderRequest> orderRequests) {
+                List<PaymentRequest> paymentRequests = new ArrayList<>();
+                for (int i = 0; i < orders.size(); i++) {
+                        OrderRequest request = orderRequests.get(orderPositions.get(i));
+                        paymentRequests.add(PaymentRequest.builder()
+                                        .orderId(orders.get(i).getId())
+                                        .paymentMode(request.getPaymentMode())
+                                        .amount(request.getTotalAmount())
+                                        .build());
+                }
+
+                log.info("Calling Payment Service to complete {} payments", paymentRequests.size());
+                try {
+                        List<PaymentResult> paymentResults = paymentService.doPayments(paymentRequests).getBody();
+                        if (paymentResults == null) {
+                                return recordedPayments(orders);
+                        }
+                        return paymentResults.stream()
+                                        .collect(Collectors.toMap(PaymentResult::getOrderId, Function.identity(),
+                                                        (a, b) -> a));
+                } catch (Exception e) {
+                        log.error("Error occurred while processing bulk payment: {}", e.getMessage());
+                        return recordedPayments(orders);
+                }
+        }
+
+        private Map<Long, PaymentResult> recordedPayments(List<Order> orders) {
+                String orderIds = orders.stream()
+                                .map(order -> String.valueOf(order.getId()))
+                                .collect(Collectors.joining(","));
+                try {
+                        PaymentResponse[] payments = restTemplate.getForObject(
+                                        paymentServiceUrl + "orders?orderIds={orderIds}", PaymentResponse[].class,
+                                        orderIds);
+                        if (payments == null) {
+                                return null;
+                        }
+                        return Arrays.stream(payments)
+                                        .collect(Collectors.toMap(PaymentResponse::getOrderId,
+                                                        payment -> PaymentResult.builder()
+                                                                        .orderId(payment.getOrderId())
+                                                                        .paymentId(payment.getPaymentId())
+                                                                        .status(payment.getStatus())
+                                                                        .build(),
+                                                        (a, b) -> a));
+                } catch (Exception e) {
+                        log.error("Could not look up the payments of orders {}, leaving them {}: {}", orderIds,
+                                        PAYMENT_UNCONFIRMED, e.getMessage());
+                        return null;
+                }
+        }
+
+        /**
+         * Gives back the stock of orders whose payment failed. product-service restores
+         * each order's stock only once, so a resent call adds nothing; a call that still
+         * fails is logged with its orders for reconciliation.
+         */
+        private void restoreQuantities(List<RestoreQuantityRequest> requests) {
+                try {
+                        productService.restoreQuantities(requests);
+                } catch (Exception e) {
+                        log.error("Could not restore the stock of unpaid orders {}: {}",
+                                        requests.stream().map(RestoreQuantityRequest::getOrderId).toList(),
+                                        e.getMessage());
+                }
+        }
+
+        @Override
+        public String getOrderStatus(long orderId) {
+                return orderRepository.findById(orderId)
+                                .map(Order::getOrderStatus)
+                                .orElseThrow(() -> new CustomException("Order not found for order ID: " + orderId,
+                                                "NOT_FOUND", 404));
+        }
+
+        private Order newOrder(OrderRequest orderRequest) {
+                return Order.builder()
                                 .amount(orderRequest.getTotalAmount())
                                 .orderStatus("CREATED")
                                 .productId(orderRequest.getProductId())
                                 .orderDate(Instant.now())
                                 .quantity(orderRequest.getQuantity())
                                 .build();
+        }
 
-                orderRepository.save(order);
+        /**
+         * Takes the order's stock and stores the order as CREATED. A claimed order is
+         * already stored: if product-service turned the reduction down its key is
+         * released so that a retry places it anew, and if the outcome is unknown the
+         * order is kept as {@code STOCK_UNCONFIRMED}, so that a retry gets it back
+         * instead of reducing the stock a second time.
+         */
+        private void createOrder(Order order, boolean claimed) {
+                try {
+                        productService.reduceQuantity(order.getProductId(), order.getQuantity());
+                } catch (RuntimeException e) {
+                        if (claimed) {
+                                keepOrReleaseClaim(order, e);
+                        }
+                        throw e;
+                }
+
+                if (claimed) {
+                        return;
+                }
+                log.info("Creating Order With Status CREATED");
+                if (orderGroupCommitWriter.isEnabled()) {
+                        orderGroupCommitWriter.insert(order);
+                } else {
+                        orderRepository.save(order);
+                }
+        }
+
+        private void keepOrReleaseClaim(Order order, RuntimeException failure) {
+                boolean notReduced = failure instanceof ConcurrencyLimitExceededException
+                                || (failure instanceof CustomException refused && refused.getStatus() < 500);
+                try {
+                        if (notReduced) {
+                                orderIdempotencyIndex.release(order);
+                        } else {
+                                order.setOrderStatus(STOCK_UNCONFIRMED);
+                                orderRepository.save(order);
+                        }
+                } catch (RuntimeException e) {
+                        // the claim stays as CREATED; a retry still gets this order back
+                        log.warn("Could not update claimed order {} after a failed stock reduction: {}",
+                                        order.getId(), e.getMessage());
+                }
+        }
 
+        private void completePayment(Order order, OrderRequest orderRequest) {
                 log.info("Calling Payment Service to complete the payment");
                 PaymentRequest paymentRequest = PaymentRequest.builder().orderId(order.getId())
                                 .paymentMode(orderRequest.getPaymentMode()).amount(orderRequest.getTotalAmount())
                                 .build();
 
                 String orderStatus = null;
+                Long paymentId = null;
 
                 try {
-                        paymentService.doPayment(paymentRequest);
+                        paymentId = paymentService.doPayment(paymentRequest).getBody();
                         log.info("Payment done Successfully. Changing the Order status to PLACED");
                         orderStatus = "PLACED";
                 } catch (Exception e) {
@@ -77,53 +544,298 @@ public class OrderServiceImpl implements OrderService {
                 }
 
                 order.setOrderStatus(orderStatus);
-                orderRepository.save(order);
+                if (orderGroupCommitWriter.isEnabled()) {
+                        orderGroupCommitWriter.updateStatus(order.getId(), orderStatus);
+                } else {
+                        orderRepository.save(order);
+                }
 
-                log.info("Order placed successfully with ID: {}", order.getId());
+                saveOrderViews(List.of(toOrderView(order, orderRequest.getPaymentMode(), paymentId,
+                                "PLACED".equals(orderStatus) ? "SUCCESS" : null)));
+        }
 
-                return order.getId();
+        /**
+         * Builds the read model row of an order whose payment has completed; the product
+         * name is filled in by {@link #saveOrderViews}.
+         */
+        private OrderView toOrderView(Order order, PaymentMode paymentMode, Long paymentId,
+                        String paymentStatus) {
+                Instant now = Instant.now();
+                return OrderView.builder()
+                                .orderId(order.getId())
+                                .orderDate(order.getOrderDate())
+                                .orderStatus(order.getOrderStatus())
+                                .amount(order.getAmount())
+                                .productId(order.getProductId())
+                                .quantity(order.getQuantity())
+                                .paymentId(paymentId)
+                                .paymentMode(paymentMode)
+                                .paymentStatus(paymentStatus)
+                                .paymentDate(paymentId == null ? null : now)
+                                .updatedAt(now)
+                                .build();
+        }
+
+        /**
+         * Stores read model rows with their product names. The order itself is already
+         * committed, so a failure here is only logged; lookups of those orders fall back
+         * to the live services.
+         */
+        private void saveOrderViews(List<OrderView> orderViews) {
+                if (!readModelEnabled) {
+                        return;
+                }
+                try {
+                        Set<Long> productIds = orderViews.stream()
+                                        .map(OrderView::getProductId)
+                                        .collect(Collectors.toSet());
+                        Map<Long, ProductResponse> products = productSnapshotCache.getAll(productIds);
+                        orderViews.forEach(orderView -> {
+                                ProductResponse product = products.get(orderView.getProductId());
+                                orderView.setProductName(product == null ? null : product.getProductName());
+                        });
+                        orderViewRepository.saveAll(orderViews);
+                } catch (Exception e) {
+                        log.warn("Could not store the read model of {} orders: {}", orderViews.size(),
+                                        e.getMessage());
+                }
         }
 
         @Override
         public OrderResponse getOrderDetails(long orderId) {
+                return getOrderDetails(orderId, false);
+        }
+
+        @Override
+        public OrderResponse getOrderDetails(long orderId, boolean refresh) {
                 log.info("Fetching details for order ID: {}", orderId);
 
+                if (readModelEnabled && !refresh) {
+                        Optional<OrderView> orderView = orderViewRepository.findById(orderId);
+                        // rows saved without a product name are completed by a live lookup
+                        if (orderView.isPresent() && orderView.get().getProductName() != null) {
+                                return orderMapper.toOrderResponse(orderView.get());
+                        }
+                }
+
                 Order order = orderRepository.findById(orderId)
                                 .orElseThrow(() -> new CustomException("Order not found for order ID: " + orderId,
                                                 "NOT_FOUND", 404));
 
-                log.info("Invoking Product service to fetch the product for id: {}", order.getProductId());
-                ProductResponse productReponse = restTemplate.getForObject(
-                                productServiceUrl + order.getProductId(),
-                                ProductResponse.class);
+                Future<ProductResponse> productFuture = fetchDetails(
+                                () -> productSnapshotCache.get(order.getProductId()));
 
-                log.info("Getting payment information form the payment service");
-                PaymentResponse paymentResponse = restTemplate.getForObject(
-                                paymentServiceUrl + "orders/" + order.getId(),
-                                PaymentResponse.class);
+                Future<PaymentResponse> paymentFuture = fetchDetails(() -> {
+                        log.info("Getting payment information form the payment service");
+                        return restTemplate.getForObject(
+                                        paymentServiceUrl + "orders/" + order.getId(),
+                                        PaymentResponse.class);
+                });
 
-                OrderResponse.ProductDetails productDetails = OrderResponse.ProductDetails.builder()
-                                .productId(productReponse.getProductId())
-                                .productName(productReponse.getProductName())
-                                .build();
+                long deadline = System.nanoTime() + detailsTimeout.toNanos();
+                List<String> unavailableSections = new ArrayList<>();
 
-                OrderResponse.PaymentDetails paymentDetails = OrderResponse.PaymentDetails.builder()
-                                .paymentId(paymentResponse.getPaymentId())
-                                .paymentMode(paymentResponse.getPaymentMode())
-                                .paymentStatus(paymentResponse.getStatus())
-                                .paymentDate(paymentResponse.getPaymentDate())
-                                .build();
+                ProductResponse productReponse = awaitDetails("productDetails", productFuture, deadline,
+                                unavailableSections);
+                PaymentResponse paymentResponse = awaitDetails("paymentDetails", paymentFuture, deadline,
+                                unavailableSections);
 
-                OrderResponse orderResponse = OrderResponse.builder()
-                                .orderId(order.getId())
-                                .orderDate(order.getOrderDate())
-                                .orderStatus(order.getOrderStatus())
-                                .amount(order.getAmount())
-                                .productDetails(productDetails)
-                                .paymentDetails(paymentDetails)
+                if (readModelEnabled && unavailableSections.isEmpty()) {
+                        refreshOrderView(order, productReponse, paymentResponse);
+                }
+                return orderMapper.toOrderResponse(order, productReponse, paymentResponse, unavailableSections);
+        }
+
+        private void refreshOrderView(Order order, ProductResponse productResponse, PaymentResponse paymentResponse) {
+                try {
+                        orderViewRepository.save(OrderView.builder()
+                                        .orderId(order.getId())
+                                        .orderDate(order.getOrderDate())
+                                        .orderStatus(order.getOrderStatus())
+                                        .amount(order.getAmount())
+                                        .productId(order.getProductId())
+                                        .productName(productResponse.getProductName())
+                                        .quantity(order.getQuantity())
+                                        .paymentId(paymentResponse.getPaymentId())
+                                        .paymentMode(paymentResponse.getPaymentMode())
+                                        .paymentStatus(paymentResponse.getStatus())
+                                        .paymentDate(paymentResponse.getPaymentDate())
+                                        .updatedAt(Instant.now())
+                                        .build());
+                } catch (Exception e) {
+                        log.warn("Could not refresh the read model of order {}: {}", order.getId(), e.getMessage());
+                }
+        }
+
+        @Override
+        public List<OrderResponse> getOrdersDetails(List<Long> orderIds) {
+                log.info("Fetching details for {} orders", orderIds.size());
+
+                if (orderIds.size() > maxBatchSize) {
+                        throw new CustomException("At most " + maxBatchSize + " orders can be fetched at once",
+                                        "TOO_MANY_IDS", 400);
+                }
+
+                List<Order> orders = orderRepository.findAllById(orderIds);
+                if (orders.isEmpty()) {
+                        return List.of();
+                }
+
+                Set<Long> productIds = orders.stream()
+                                .map(Order::getProductId)
+                                .collect(Collectors.toSet());
+                String paymentOrderIds = orders.stream()
+                                .map(order -> String.valueOf(order.getId()))
+                                .collect(Collectors.joining(","));
+
+                Future<Map<Long, ProductResponse>> productsFuture = fetchDetails(
+                                () -> productSnapshotCache.getAll(productIds));
+
+                Future<PaymentResponse[]> paymentsFuture = fetchDetails(() -> {
+                        log.info("Getting payment information for orders: {}", paymentOrderIds);
+                        return restTemplate.getForObject(
+                                        paymentServiceUrl + "orders?orderIds={orderIds}",
+                                        PaymentResponse[].class, paymentOrderIds);
+                });
+
+                long deadline = System.nanoTime() + detailsTimeout.toNanos();
+                List<String> failedSections = new ArrayList<>();
+
+                Map<Long, ProductResponse> products = awaitDetails("productDetails", productsFuture, deadline,
+                                failedSections);
+                PaymentResponse[] payments = awaitDetails("paymentDetails", paymentsFuture, deadline, failedSections);
+
+                Map<Long, ProductResponse> productsById = products == null ? Map.of() : products;
+                Map<Long, PaymentResponse> paymentsByOrderId = payments == null ? Map.of()
+                                : Arrays.stream(payments).collect(Collectors.toMap(
+                                                PaymentResponse::getOrderId, Function.identity(), (a, b) -> a));
+
+                return orders.stream()
+                                .map(order -> {
+                                        ProductResponse product = productsById.get(order.getProductId());
+                                        PaymentResponse payment = paymentsByOrderId.get(order.getId());
+
+                                        List<String> unavailableSections = new ArrayList<>();
+                                        if (product == null) {
+                                                unavailableSections.add("productDetails");
+                                        }
+                                        if (payment == null) {
+                                                unavailableSections.add("paymentDetails");
+                                        }
+                                        return orderMapper.toOrderResponse(order, product, payment, unavailableSections);
+                                })
+                                .toList();
+        }
+
+        @Override
+        public OrderPage getOrders(OrderFilter filter, String cursor, int limit) {
+                if (limit < 1 || limit > maxPageSize) {
+                        throw new CustomException("Page size must be between 1 and " + maxPageSize,
+                                        "INVALID_PAGE_SIZE", 400);
+                }
+
+                // one extra row tells whether there is a next page
+                Limit pageLimit = Limit.of(limit + 1);
+                List<OrderSummary> orders;
+                if (cursor == null || cursor.isEmpty()) {
+                        orders = orderRepository.findFirstPage(filter.getOrderStatus(), filter.getFrom(),
+                                        filter.getTo(), pageLimit);
+                } else {
+                        OrderSummary last = decodeCursor(cursor);
+                        orders = orderRepository.findPageAfter(filter.getOrderStatus(), filter.getFrom(),
+                                        filter.getTo(), last.getOrderDate(), last.getOrderId(), pageLimit);
+                }
+
+                if (orders.size() <= limit) {
+                        return OrderPage.builder().orders(orders).build();
+                }
+                orders = orders.subList(0, limit);
+                return OrderPage.builder()
+                                .orders(orders)
+                                .nextCursor(encodeCursor(orders.get(limit - 1)))
                                 .build();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public void exportOrders(OrderFilter filter, OutputStream outputStream) throws IOException {
+                ObjectWriter writer = objectMapper.writerFor(OrderSummary.class);
+                BufferedOutputStream out = new BufferedOutputStream(outputStream);
+                long exported = 0;
+
+                try (Stream<OrderSummary> orders = orderRepository.streamAll(filter.getOrderStatus(),
+                                filter.getFrom(), filter.getTo())) {
+                        for (Iterator<OrderSummary> it = orders.iterator(); it.hasNext();) {
+                                out.write(writer.writeValueAsBytes(it.next()));
+                                out.write('\n');
+                                exported++;
+                        }
+                }
+                out.flush();
+                log.info("Exported {} orders", exported);
+        }
 
-                return orderResponse;
+        /**
+         * The cursor is the (orderDate, id) of the last order of a page, so the next
+         * page starts right after it.
+         */
+        private static String encodeCursor(OrderSummary last) {
+                String position = last.getOrderDate() + "," + last.getOrderId();
+                return Base64.getUrlEncoder().withoutPadding()
+                                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static OrderSummary decodeCursor(String cursor) {
+                try {
+                        String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                        int separator = position.lastIndexOf(',');
+                        return OrderSummary.builder()
+                                        .orderDate(Instant.parse(position.substring(0, separator)))
+                                        .orderId(Long.parseLong(position.substring(separator + 1)))
+                                        .build();
+                } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                        throw new CustomException("Invalid cursor: " + cursor, "INVALID_CURSOR", 400);
+                }
+        }
+
+        /**
+         * Starts a downstream lookup on the details executor, or runs it inline when
+         * parallel fetching is disabled.
+         */
+        private <T> Future<T> fetchDetails(Callable<T> lookup) {
+                if (parallelDetailsFetch) {
+                        return orderDetailsExecutor.submit(tokenService.propagate(lookup));
+                }
+
+                FutureTask<T> task = new FutureTask<>(lookup);
+                task.run();
+                return task;
+        }
+
+        /**
+         * Waits for a lookup until the shared deadline. A lookup that fails or runs out
+         * of time is cancelled and its section reported as unavailable.
+         */
+        private <T> T awaitDetails(String section, Future<T> future, long deadline,
+                        List<String> unavailableSections) {
+                try {
+                        T details = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        if (details != null) {
+                                return details;
+                        }
+                        log.warn("No {} returned, returning the order without it", section);
+                } catch (TimeoutException e) {
+                        future.cancel(true);
+                        log.warn("Timed out fetching {}, returning the order without it", section);
+                } catch (ExecutionException e) {
+                        log.warn("Error fetching {}, returning the order without it: {}", section,
+                                        e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        future.cancel(true);
+                }
+                unavailableSections.add(section);
+                return null;
         }
 
 }
@@ -1,5 +1,7 @@
 package com.termiwum.orderservice.service;
 
+import java.util.concurrent.Callable;
+
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -9,6 +11,8 @@ import jakarta.servlet.http.HttpServletRequest;
 @Service
 public class TokenService {
 
+    private static final ThreadLocal<String> PROPAGATED_TOKEN = new ThreadLocal<>();
+
     public String extractToken() {
         ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
@@ -20,6 +24,36 @@ public class TokenService {
                 return authHeader.substring(7);
             }
         }
-        return null;
+        return PROPAGATED_TOKEN.get();
+    }
+
+    /**
+     * Captures the caller's token on the current (request) thread so the task can
+     * still authenticate downstream calls when it runs on another thread.
+     */
+    public <T> Callable<T> propagate(Callable<T> task) {
+        String token = extractToken();
+
+        return () -> {
+            PROPAGATED_TOKEN.set(token);
+            try {
+                return task.call();
+            } finally {
+                PROPAGATED_TOKEN.remove();
+            }
+        };
+    }
+
+    public Runnable propagate(Runnable task) {
+        String token = extractToken();
+
+        return () -> {
+            PROPAGATED_TOKEN.set(token);
+            try {
+                task.run();
+            } finally {
+                PROPAGATED_TOKEN.remove();
+            }
+        };
     }
 }
@@ -0,0 +1,52 @@
+package com.termiwum.orderservice.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.resilience.DownstreamResilienceCapability;
+import com.termiwum.orderservice.external.resilience.RetryBudget;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResilienceConfigTest {
+
+    private final ResilienceConfig resilienceConfig = new ResilienceConfig();
+
+    private final DownstreamResilienceCapability downstreamResilience = new DownstreamResilienceCapability(
+            TimeLimiterRegistry.ofDefaults(), new SimpleMeterRegistry(), 0.1, 10);
+
+    @DisplayName("Retry Budget - Only Scheduled Retries Spend, Only First Attempts Deposit")
+    @Test
+    void test_When_All_Attempts_Fail_then_Budget_Charged_Per_Retry() {
+        RetryConfig.Builder<Object> config = RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1));
+        resilienceConfig.productServiceRetryCustomizer(downstreamResilience).customize(config);
+        Retry retry = RetryRegistry.of(config.build(), resilienceConfig.retryBudgetAccounting(downstreamResilience))
+                .retry("productService");
+        RetryBudget retryBudget = downstreamResilience.retryBudget("productService");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CustomException.class, () -> retry.executeSupplier(() -> {
+            // what the Feign capability records for every attempt
+            retryBudget.recordCall();
+            attempts.incrementAndGet();
+            throw new CustomException("Service Unavailable", "UNAVAILABLE", 503);
+        }));
+
+        // a full balance of 10, less the two retries; the last failure and the retried attempts cost nothing
+        assertEquals(3, attempts.get());
+        assertEquals(8.0, retryBudget.getBalance());
+    }
+}
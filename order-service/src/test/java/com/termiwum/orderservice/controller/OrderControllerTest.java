@@ -79,7 +79,7 @@ public class OrderControllerTest {
         }
 
         private void reduceQuantity() {
-                circuitBreakerRegistry.circuitBreaker("external").reset();
+                circuitBreakerRegistry.circuitBreaker("productService").reset();
                 wireMockServer.stubFor(put(urlMatching("/product/reduceQuantity/.*"))
                                 .willReturn(aResponse()
                                                 .withStatus(HttpStatus.OK.value())
@@ -87,7 +87,7 @@ public class OrderControllerTest {
         }
 
         private void getPaymentDetails() throws IOException {
-                circuitBreakerRegistry.circuitBreaker("external").reset();
+                circuitBreakerRegistry.circuitBreaker("paymentService").reset();
                 wireMockServer.stubFor(get(urlMatching("/payment/.*"))
                                 .willReturn(aResponse()
                                                 .withStatus(HttpStatus.OK.value())
@@ -0,0 +1,127 @@
+package com.termiwum.orderservice.external.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestTemplate;
+
+import com.termiwum.orderservice.external.response.ProductLookupResponse;
+import com.termiwum.orderservice.external.response.ProductResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSnapshotCacheTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductSnapshotCache productSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productSnapshotCache = new ProductSnapshotCache(restTemplate, "http://PRODUCT-SERVICE/products/", 100,
+                Duration.ofMinutes(10), 200, meterRegistry);
+    }
+
+    @DisplayName("Product Snapshot - Concurrent Misses Load Once")
+    @Test
+    void test_When_Concurrent_Misses_then_Product_Loaded_Once() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        when(restTemplate.getForObject("http://PRODUCT-SERVICE/products/1", ProductResponse.class))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return getMockProductResponse(1);
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ProductResponse>> lookups = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                lookups.add(executor.submit(() -> {
+                    start.await();
+                    return productSnapshotCache.get(1);
+                }));
+            }
+            start.countDown();
+
+            for (Future<ProductResponse> lookup : lookups) {
+                assertEquals("iPhone", lookup.get().getProductName());
+            }
+        }
+
+        verify(restTemplate, times(1)).getForObject("http://PRODUCT-SERVICE/products/1", ProductResponse.class);
+    }
+
+    @DisplayName("Product Snapshot - Bulk Load Only Fetches Misses")
+    @Test
+    void test_When_Get_All_then_Only_Missing_Products_Fetched() {
+        when(restTemplate.getForObject("http://PRODUCT-SERVICE/products/1", ProductResponse.class))
+                .thenReturn(getMockProductResponse(1));
+        when(restTemplate.getForObject("http://PRODUCT-SERVICE/products?ids={ids}", ProductLookupResponse.class, "2"))
+                .thenReturn(new ProductLookupResponse(List.of(getMockProductResponse(2)), List.of()));
+
+        productSnapshotCache.get(1);
+        Map<Long, ProductResponse> products = productSnapshotCache.getAll(Set.of(1L, 2L));
+
+        assertEquals(2, products.size());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "productSnapshots").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @DisplayName("Product Snapshot - Bulk Load Split Into Capped Lookups")
+    @Test
+    void test_When_Get_All_Over_Bulk_Size_then_Chunked() {
+        productSnapshotCache = new ProductSnapshotCache(restTemplate, "http://PRODUCT-SERVICE/products/", 100,
+                Duration.ofMinutes(10), 2, meterRegistry);
+        when(restTemplate.getForObject(eq("http://PRODUCT-SERVICE/products?ids={ids}"),
+                eq(ProductLookupResponse.class), anyString()))
+                .thenAnswer(invocation -> {
+                    String[] ids = invocation.getArgument(2, String.class).split(",");
+                    // product 3 does not exist
+                    return new ProductLookupResponse(Arrays.stream(ids)
+                            .map(Long::parseLong)
+                            .filter(id -> id != 3)
+                            .map(this::getMockProductResponse)
+                            .toList(), List.of());
+                });
+
+        Map<Long, ProductResponse> products = productSnapshotCache.getAll(Set.of(1L, 2L, 3L, 4L, 5L));
+
+        assertEquals(Set.of(1L, 2L, 4L, 5L), products.keySet());
+        verify(restTemplate, times(3)).getForObject(eq("http://PRODUCT-SERVICE/products?ids={ids}"),
+                eq(ProductLookupResponse.class), anyString());
+    }
+
+    private ProductResponse getMockProductResponse(long productId) {
+        return ProductResponse.builder()
+                .productId(productId)
+                .productName("iPhone")
+                .price(100)
+                .quantity(200)
+                .build();
+    }
+}
@@ -0,0 +1,219 @@
+package com.termiwum.orderservice.external.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.discovery.composite.CompositeDiscoveryClientAutoConfiguration;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryClientAutoConfiguration;
+import org.springframework.cloud.commons.util.UtilAutoConfiguration;
+import org.springframework.cloud.loadbalancer.config.BlockingLoadBalancerClientAutoConfiguration;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.loadbalancer.FeignLoadBalancerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.termiwum.orderservice.config.FeignConfig;
+import com.termiwum.orderservice.config.ResilienceConfig;
+import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.limit.ConcurrencyLimitExceededException;
+import com.termiwum.orderservice.external.request.ReduceQuantityRequest;
+import com.termiwum.orderservice.external.limit.ConcurrencyLimitingCapability;
+import com.termiwum.orderservice.external.resilience.DownstreamResilienceCapability;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.retry.autoconfigure.RetryAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Calls ProductService through the Feign proxy built by Spring Cloud OpenFeign, with
+ * the Resilience4j aspects, the error decoder and the Feign capabilities of the
+ * application, against a stub product-service. The stub is a JDK HttpServer because
+ * WireMock's Jetty does not run next to the Jetty version Spring Boot manages.
+ */
+@SpringBootTest(classes = ProductServiceClientTest.ClientConfig.class, webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cloud.config.enabled=false",
+        "order.concurrency-limit.initial-limit=1",
+        "order.concurrency-limit.min-limit=1",
+        "order.concurrency-limit.max-limit=1",
+        "resilience4j.timelimiter.instances.productService.timeout-duration=5s",
+        "resilience4j.retry.instances.productService.max-attempts=3",
+        "resilience4j.retry.instances.productService.wait-duration=10ms" })
+public class ProductServiceClientTest {
+
+    private static final HttpServer productServiceStub = startStub();
+
+    // what the stub answers to the next requests
+    private static volatile int responseStatus = 200;
+    private static volatile String responseBody = "";
+    private static volatile long responseDelayMillis;
+
+    private static final AtomicInteger requests = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void productServiceInstance(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.PRODUCT-SERVICE[0].uri",
+                () -> "http://localhost:" + productServiceStub.getAddress().getPort());
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setup() {
+        circuitBreakerRegistry.circuitBreaker("productService").reset();
+        requests.set(0);
+        responseStatus = 200;
+        responseBody = "";
+        responseDelayMillis = 0;
+    }
+
+    @AfterAll
+    static void stopStub() {
+        productServiceStub.stop(0);
+    }
+
+    @DisplayName("Product Client - Call Over The Concurrency Limit Rejected Once, Not Retried")
+    @Test
+    void test_When_Concurrency_Limit_Reached_then_Rejection_Passed_Through() throws Exception {
+        responseDelayMillis = 1000;
+
+        CompletableFuture<Void> slowCall = CompletableFuture
+                .runAsync(() -> productService.reduceQuantity(1, 1));
+        awaitInFlight(1);
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.reduceQuantity(2, 1));
+
+        slowCall.get(5, TimeUnit.SECONDS);
+        assertEquals(ConcurrencyLimitExceededException.class, exception.getClass());
+        assertEquals("CONCURRENCY_LIMIT_EXCEEDED", exception.getErrorCode());
+        assertEquals(503, exception.getStatus());
+        // only the slow call reached product-service; the rejected one was not sent again
+        assertEquals(1, requests.get());
+    }
+
+    @DisplayName("Product Client - Client Error Keeps Its Status Through The Fallback")
+    @Test
+    void test_When_Product_Service_Answers_4xx_then_Status_And_Error_Code_Kept() {
+        responseStatus = 409;
+        responseBody = "{\"errorMessage\":\"Not enough stock\",\"errorCode\":\"INSUFFICIENT_QUANTITY\"}";
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.reduceQuantities(List.of(ReduceQuantityRequest.builder()
+                        .productId(1)
+                        .quantity(5)
+                        .build())));
+
+        assertEquals(409, exception.getStatus());
+        assertEquals("INSUFFICIENT_QUANTITY", exception.getErrorCode());
+        // refused, not lost: sent once
+        assertEquals(1, requests.get());
+    }
+
+    @DisplayName("Product Client - Server Error Reported As Unavailable")
+    @Test
+    void test_When_Product_Service_Answers_500_then_Unavailable() {
+        responseStatus = 500;
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.reduceQuantity(1, 5));
+
+        assertEquals(500, exception.getStatus());
+        assertEquals("UNAVAILABLE", exception.getErrorCode());
+    }
+
+    private void awaitInFlight(int inFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("order.downstream.concurrency.in_flight").gauge() == null
+                || meterRegistry.find("order.downstream.concurrency.in_flight").gauge().value() < inFlight) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("call to product-service never started");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/products", ProductServiceClientTest::respond);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(responseDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(responseStatus, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = ProductService.class)
+    @ImportAutoConfiguration({ AopAutoConfiguration.class, JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class, UtilAutoConfiguration.class,
+            SimpleDiscoveryClientAutoConfiguration.class, CompositeDiscoveryClientAutoConfiguration.class,
+            LoadBalancerAutoConfiguration.class, BlockingLoadBalancerClientAutoConfiguration.class,
+            org.springframework.cloud.client.loadbalancer.LoadBalancerAutoConfiguration.class,
+            FeignAutoConfiguration.class, FeignLoadBalancerAutoConfiguration.class,
+            RetryAutoConfiguration.class, CircuitBreakerAutoConfiguration.class,
+            BulkheadAutoConfiguration.class, TimeLimiterAutoConfiguration.class })
+    @Import({ FeignConfig.class, ResilienceConfig.class, DownstreamResilienceCapability.class,
+            ConcurrencyLimitingCapability.class })
+    static class ClientConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.termiwum.orderservice.external.decoder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import feign.Response;
+
+/**
+ * Decode throughput and allocation per call of CustomErrorDecoder, for an overload
+ * status and for an error body. Not part of the test run; start it with
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.termiwum.orderservice.external.decoder.CustomErrorDecoderBenchmark
+ *
+ * Allocation per call is reported as gc.alloc.rate.norm (bytes/op).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomErrorDecoderBenchmark {
+
+    private static final String ERROR_BODY = "{\"errorMessage\":\"Product does not have sufficient Quantity\","
+            + "\"errorCode\":\"INSUFFICIENT_QUANTITY\"}";
+
+    @Param({ "400", "503" })
+    private int status;
+
+    private final CustomErrorDecoder errorDecoder = new CustomErrorDecoder();
+
+    private Response response;
+
+    @Setup
+    public void setUp() {
+        // feign string bodies can be read repeatedly
+        response = CustomErrorDecoderTest.response(status, ERROR_BODY);
+    }
+
+    @Benchmark
+    public Exception decode() {
+        return errorDecoder.decode("ProductService#reduceQuantity", response);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CustomErrorDecoderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.termiwum.orderservice.external.decoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.termiwum.orderservice.exception.CustomException;
+
+import feign.Request;
+import feign.Response;
+
+public class CustomErrorDecoderTest {
+
+    private final CustomErrorDecoder errorDecoder = new CustomErrorDecoder();
+
+    @DisplayName("Error Decoder - Error Body Mapped")
+    @Test
+    void test_When_Error_Body_then_Error_Code_Mapped() {
+        CustomException exception = (CustomException) errorDecoder.decode("ProductService#reduceQuantity",
+                response(404, "{\"errorMessage\":\"Product not found\",\"errorCode\":\"PRODUCT_NOT_FOUND\"}"));
+
+        assertEquals("PRODUCT_NOT_FOUND", exception.getErrorCode());
+        assertEquals("Product not found", exception.getMessage());
+        assertEquals(404, exception.getStatus());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @DisplayName("Error Decoder - Overload Status Shared Exception")
+    @Test
+    void test_When_Service_Unavailable_then_Shared_Exception() {
+        Exception first = errorDecoder.decode("ProductService#reduceQuantity", response(503, "overloaded"));
+        Exception second = errorDecoder.decode("ProductService#reduceQuantity", response(503, null));
+
+        assertSame(first, second);
+        assertEquals("UNAVAILABLE", ((CustomException) first).getErrorCode());
+        assertEquals(503, ((CustomException) first).getStatus());
+    }
+
+    @DisplayName("Error Decoder - Oversized Body Not Read Fully")
+    @Test
+    void test_When_Body_Too_Large_then_Status_Kept() {
+        String body = "{\"errorMessage\":\"" + "x".repeat(CustomErrorDecoder.MAX_BODY_BYTES)
+                + "\",\"errorCode\":\"PRODUCT_NOT_FOUND\"}";
+
+        CustomException exception = (CustomException) errorDecoder.decode("ProductService#reduceQuantity",
+                response(404, body));
+
+        assertEquals("NOT_FOUND", exception.getErrorCode());
+        assertEquals(404, exception.getStatus());
+    }
+
+    @DisplayName("Error Decoder - Body Without Error Code Keeps Status")
+    @Test
+    void test_When_No_Error_Code_then_Generic_Code_With_Status() {
+        CustomException badRequest = (CustomException) errorDecoder.decode("ProductService#reduceQuantity",
+                response(400, "{\"message\":\"bad\"}"));
+        CustomException serverError = (CustomException) errorDecoder.decode("ProductService#reduceQuantity",
+                response(500, null));
+
+        assertEquals("BAD_REQUEST", badRequest.getErrorCode());
+        assertEquals(400, badRequest.getStatus());
+        assertEquals("INTERNAL_ERROR", serverError.getErrorCode());
+        assertEquals(500, serverError.getStatus());
+    }
+
+    static Response response(int status, String body) {
+        Request request = Request.create(Request.HttpMethod.PUT, "http://PRODUCT-SERVICE/products/reduceQuantity/1",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        Response.Builder response = Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of());
+        if (body != null) {
+            response.body(body, StandardCharsets.UTF_8);
+        }
+        return response.build();
+    }
+}
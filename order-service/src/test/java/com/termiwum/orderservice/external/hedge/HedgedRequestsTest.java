@@ -0,0 +1,195 @@
+package com.termiwum.orderservice.external.hedge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+import com.termiwum.loadbalancer.InstanceStats;
+import com.termiwum.loadbalancer.InstanceStatsRegistry;
+import com.termiwum.orderservice.external.intercept.DownstreamTimeoutInterceptor;
+import com.termiwum.orderservice.service.TokenService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Three product-service instances on local HTTP servers behind a round-robin load
+ * balancer. Every tenth request is stuck for SLOW_MS, which is what hedging is
+ * meant to hide.
+ */
+public class HedgedRequestsTest {
+
+    private static final String SERVICE = "PRODUCT-SERVICE";
+
+    private static final URI PRODUCT_URI = URI.create("http://PRODUCT-SERVICE/products/1");
+
+    private static final long SLOW_MS = 300;
+
+    private static final int CALLS = 60;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final List<ServiceInstance> instances = new ArrayList<>();
+
+    private LoadBalancerClient loadBalancerClient;
+
+    private InstanceStatsRegistry instanceStatsRegistry;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/products", exchange -> {
+                boolean failing = exchange.getRequestURI().getPath().endsWith("/0");
+                sleep(requests.incrementAndGet() % 10 == 0 ? SLOW_MS : 2);
+
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(failing ? 500 : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            servers.add(server);
+            instances.add(new DefaultServiceInstance("product-" + i, SERVICE, "localhost",
+                    server.getAddress().getPort(), false));
+        }
+
+        RoundRobinLoadBalancer loadBalancer = new RoundRobinLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE, instances.toArray(ServiceInstance[]::new)),
+                SERVICE);
+        loadBalancerClient = mock(LoadBalancerClient.class);
+        when(loadBalancerClient.choose(anyString()))
+                .thenAnswer(invocation -> loadBalancer.choose().block().getServer());
+
+        instanceStatsRegistry = new InstanceStatsRegistry(new SimpleMeterRegistry(), "order.loadbalancer.ejections", 0.3,
+                3, Duration.ofMinutes(1), Duration.ofSeconds(10));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+
+    @DisplayName("Hedged Requests - Hedging Cuts p99 Latency")
+    @Test
+    void test_When_Hedging_Expect_LowerP99() {
+        // a minimum delay far above SLOW_MS means a hedge is never sent
+        HedgedRequests unhedged = hedgedRequests(Duration.ofMinutes(1));
+        HedgedRequests hedged = hedgedRequests(Duration.ofMillis(30));
+
+        long unhedgedP99 = p99Millis(unhedged);
+        long hedgedP99 = p99Millis(hedged);
+
+        assertTrue(unhedgedP99 >= SLOW_MS, "unhedged p99 was " + unhedgedP99 + "ms");
+        assertTrue(hedgedP99 < SLOW_MS / 2, "hedged p99 was " + hedgedP99 + "ms");
+        assertTrue(hedgedP99 * 2 < unhedgedP99);
+    }
+
+    @DisplayName("Hedged Requests - Failure When All Attempts Fail")
+    @Test
+    void test_When_AllAttemptsFail_Expect_Exception() {
+        HedgedRequests hedged = hedgedRequests(Duration.ofMillis(10));
+
+        assertThrows(HttpServerErrorException.class,
+                () -> hedged.getForObject(URI.create("http://PRODUCT-SERVICE/products/0"), String.class));
+    }
+
+    @DisplayName("Hedged Requests - Attempts Recorded In Instance Stats")
+    @Test
+    void test_When_AttemptsComplete_Expect_InstanceStatsUpdated() {
+        HedgedRequests hedged = hedgedRequests(Duration.ofMillis(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", hedged.getForObject(PRODUCT_URI, String.class));
+        }
+        // round robin gives every instance three failures in a row, enough to eject it
+        for (int i = 0; i < 9; i++) {
+            assertThrows(HttpServerErrorException.class,
+                    () -> hedged.getForObject(URI.create("http://PRODUCT-SERVICE/products/0"), String.class));
+        }
+
+        long now = System.nanoTime();
+        for (ServiceInstance instance : instances) {
+            InstanceStats stats = instanceStatsRegistry.get(instance);
+            assertTrue(stats.hasLatency(), instance.getInstanceId() + " has no latency sample");
+            assertTrue(stats.isEjected(now), instance.getInstanceId() + " was not ejected");
+            assertEquals(0, stats.getInFlight());
+        }
+    }
+
+    @DisplayName("Hedged Requests - Only Configured Services Hedged")
+    @Test
+    void test_When_ServiceNotConfigured_Expect_NotApplied() {
+        HedgedRequests hedged = hedgedRequests(Duration.ofMillis(10));
+
+        assertTrue(hedged.appliesTo(PRODUCT_URI));
+        assertFalse(hedged.appliesTo(URI.create("http://PAYMENT-SERVICE/payments/orders/1")));
+        assertEquals("PRODUCT-SERVICE/products/{id}", HedgedRequests.routeKey(PRODUCT_URI));
+    }
+
+    private HedgedRequests hedgedRequests(Duration minDelay) {
+        return new HedgedRequests(new RestTemplate(new HttpComponentsClientHttpRequestFactory()),
+                new DownstreamTimeoutInterceptor(new FeignClientProperties()),
+                loadBalancerClient, instanceStatsRegistry, executor, new TokenService(), new SimpleMeterRegistry(), true,
+                Set.of(SERVICE), 0.8, minDelay, minDelay, 0.5, 20);
+    }
+
+    private long p99Millis(HedgedRequests hedgedRequests) {
+        long[] latencies = new long[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            assertEquals("ok", hedgedRequests.getForObject(PRODUCT_URI, String.class));
+            latencies[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(0.99 * CALLS) - 1];
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
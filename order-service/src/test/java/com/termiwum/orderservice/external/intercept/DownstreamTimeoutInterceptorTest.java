@@ -0,0 +1,72 @@
+package com.termiwum.orderservice.external.intercept;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.cloud.openfeign.FeignClientProperties.FeignClientConfiguration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+public class DownstreamTimeoutInterceptorTest {
+
+    private DownstreamTimeoutInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        FeignClientConfiguration productService = new FeignClientConfiguration();
+        productService.setConnectTimeout(1000);
+        productService.setReadTimeout(2000);
+
+        FeignClientProperties feignClientProperties = new FeignClientProperties();
+        feignClientProperties.getConfig().put("PRODUCT-SERVICE", productService);
+
+        interceptor = new DownstreamTimeoutInterceptor(feignClientProperties);
+    }
+
+    @DisplayName("Downstream Timeouts - Service Timeouts Applied")
+    @Test
+    @SuppressWarnings("deprecation")
+    void test_When_Service_Configured_then_Request_Config_Applied() throws Exception {
+        AtomicReference<HttpContext> context = new AtomicReference<>();
+
+        interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, URI.create("http://PRODUCT-SERVICE/products/1")),
+                new byte[0], (request, body) -> {
+                    // the load balancer has replaced the service name by now
+                    context.set(DownstreamTimeoutInterceptor.httpContext(HttpMethod.GET,
+                            URI.create("http://10.0.0.1:8080/products/1")));
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                });
+
+        RequestConfig requestConfig = HttpClientContext.castOrCreate(context.get()).getRequestConfig();
+        assertEquals(Timeout.ofMilliseconds(1000), requestConfig.getConnectTimeout());
+        assertEquals(Timeout.ofMilliseconds(2000), requestConfig.getResponseTimeout());
+        assertNull(DownstreamTimeoutInterceptor.httpContext(HttpMethod.GET, URI.create("http://10.0.0.1:8080/")));
+    }
+
+    @DisplayName("Downstream Timeouts - Unknown Service Uses Defaults")
+    @Test
+    void test_When_Service_Not_Configured_then_Defaults_Used() throws Exception {
+        AtomicReference<HttpContext> context = new AtomicReference<>();
+
+        interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, URI.create("http://PAYMENT-SERVICE/payments/1")),
+                new byte[0], (request, body) -> {
+                    context.set(DownstreamTimeoutInterceptor.httpContext(HttpMethod.GET, request.getURI()));
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                });
+
+        assertNull(context.get());
+    }
+}
@@ -0,0 +1,63 @@
+package com.termiwum.orderservice.external.intercept;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import com.termiwum.orderservice.external.client.ProductService;
+import com.termiwum.orderservice.service.InternalTokenManager;
+import com.termiwum.orderservice.service.TokenService;
+
+import feign.MethodMetadata;
+import feign.RequestTemplate;
+
+public class OAuthRequestInterceptorTest {
+
+    private final TokenService tokenService = mock(TokenService.class);
+
+    private final InternalTokenManager internalTokenManager = mock(InternalTokenManager.class);
+
+    private final OAuthRequestInterceptor interceptor = new OAuthRequestInterceptor(tokenService,
+            internalTokenManager);
+
+    private final List<MethodMetadata> productServiceMethods = new SpringMvcContract()
+            .parseAndValidateMetadata(ProductService.class);
+
+    @BeforeEach
+    void setUp() {
+        when(tokenService.extractToken()).thenReturn("caller-token");
+        when(internalTokenManager.getToken()).thenReturn("service-token");
+    }
+
+    @DisplayName("Feign Auth - Caller Token Forwarded")
+    @Test
+    void test_When_Caller_Token_Present_then_Forwarded() {
+        assertEquals("Bearer caller-token", authorization("reduceQuantities"));
+    }
+
+    @DisplayName("Feign Auth - Service-Only Endpoint Gets The Service Token")
+    @Test
+    void test_When_Method_Needs_Service_Token_then_Caller_Token_Not_Used() {
+        assertEquals("Bearer service-token", authorization("restoreQuantities"));
+    }
+
+    private String authorization(String methodName) {
+        MethodMetadata metadata = productServiceMethods.stream()
+                .filter(method -> method.method().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        RequestTemplate template = new RequestTemplate();
+        template.methodMetadata(metadata);
+
+        interceptor.apply(template);
+
+        return template.headers().get("Authorization").iterator().next();
+    }
+}
@@ -0,0 +1,55 @@
+package com.termiwum.orderservice.external.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @DisplayName("Concurrency Limit - Calls Over Limit Rejected")
+    @Test
+    void test_When_Limit_Reached_then_Call_Rejected() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @DisplayName("Concurrency Limit - Grows at Baseline, Shrinks When Latency Rises")
+    @Test
+    void test_When_Latency_Rises_then_Limit_Shrinks() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, 0.2);
+
+        saturate(limiter, TimeUnit.MILLISECONDS.toNanos(10), 200);
+        int steadyLimit = limiter.getLimit();
+        assertTrue(steadyLimit > 20, "limit should grow while latency is steady: " + steadyLimit);
+
+        saturate(limiter, TimeUnit.MILLISECONDS.toNanos(100), 200);
+        int slowLimit = limiter.getLimit();
+        assertTrue(slowLimit < steadyLimit / 2, "limit should shrink when latency rises: " + slowLimit);
+
+        saturate(limiter, TimeUnit.MILLISECONDS.toNanos(10), 400);
+        assertTrue(limiter.getLimit() > slowLimit, "limit should recover: " + limiter.getLimit());
+    }
+
+    /**
+     * Keeps the limiter full while completing calls with the given round-trip time.
+     */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int calls) {
+        for (int i = 0; i < calls; i++) {
+            while (limiter.tryAcquire()) {
+                // fill up to the current limit
+            }
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.termiwum.orderservice.external.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RetryBudgetTest {
+
+    @DisplayName("Retry Budget - Saved Retries Capped")
+    @Test
+    void test_When_Balance_Spent_then_Retry_Refused() {
+        RetryBudget retryBudget = new RetryBudget(0.1, 2);
+
+        assertTrue(retryBudget.tryRetry());
+        assertTrue(retryBudget.tryRetry());
+        assertFalse(retryBudget.tryRetry());
+        assertEquals(1, retryBudget.getExhausted());
+    }
+
+    @DisplayName("Retry Budget - Retries Limited to Ratio of Calls")
+    @Test
+    void test_When_All_Calls_Fail_then_Retries_Bounded_By_Ratio() {
+        RetryBudget retryBudget = new RetryBudget(0.1, 10);
+        int retries = 0;
+
+        for (int call = 0; call < 1000; call++) {
+            retryBudget.recordCall();
+            if (retryBudget.tryRetry()) {
+                retries++;
+            }
+        }
+
+        // about the initial balance plus 10% of the calls
+        assertTrue(retries >= 100 && retries <= 110, "retries: " + retries);
+    }
+}
@@ -0,0 +1,130 @@
+package com.termiwum.orderservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.termiwum.orderservice.entity.Order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Measures ORDER_DETAILS placement writes (CREATED insert followed by a status
+ * update) per second against H2, with one transaction per write and with the
+ * group-commit writer. Tagged out of the default test run; start it with
+ * mvn test -Pbenchmarks.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ContextConfiguration(classes = OrderGroupCommitWriterBenchmarkTest.BenchmarkConfig.class)
+@TestPropertySource(properties = "order.group-commit.enabled=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Log4j2
+public class OrderGroupCommitWriterBenchmarkTest {
+
+    private static final int CLIENTS = 16;
+    private static final int ORDERS_PER_CLIENT = 25;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderGroupCommitWriter orderGroupCommitWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    @EntityScan(basePackageClasses = Order.class)
+    @Import(OrderGroupCommitWriter.class)
+    static class BenchmarkConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+    }
+
+    @DisplayName("Group Commit - Writes Per Second With and Without Writer")
+    @Test
+    void test_Group_Commit_Writes_All_Orders_In_Order() throws Exception {
+        double direct = measure(order -> {
+            orderRepository.save(order);
+            order.setOrderStatus("PLACED");
+            orderRepository.save(order);
+        });
+        orderRepository.deleteAll();
+
+        double grouped = measure(order -> {
+            orderGroupCommitWriter.insert(order);
+            orderGroupCommitWriter.updateStatus(order.getId(), "PLACED");
+        });
+
+        log.info("ORDER_DETAILS writes/s: one transaction per write={} | group commit={} (mean batch {})",
+                Math.round(direct), Math.round(grouped),
+                meterRegistry.get("order.group_commit.batch.size").summary().mean());
+
+        List<Order> orders = orderRepository.findAll();
+        assertEquals(CLIENTS * ORDERS_PER_CLIENT, orders.size());
+        assertTrue(orders.stream().allMatch(order -> "PLACED".equals(order.getOrderStatus())));
+        assertTrue(meterRegistry.get("order.group_commit.batch.size").summary().mean() > 1);
+    }
+
+    private double measure(Consumer<Order> placement) throws Exception {
+        long start = System.nanoTime();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int client = 0; client < CLIENTS; client++) {
+                runs.add(clients.submit(() -> {
+                    for (int i = 0; i < ORDERS_PER_CLIENT; i++) {
+                        placement.accept(Order.builder()
+                                .productId(1)
+                                .quantity(1)
+                                .amount(100)
+                                .orderStatus("CREATED")
+                                .orderDate(Instant.now())
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return 2 * CLIENTS * ORDERS_PER_CLIENT / seconds;
+    }
+}
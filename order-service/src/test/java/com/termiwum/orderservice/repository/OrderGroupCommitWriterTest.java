@@ -0,0 +1,101 @@
+package com.termiwum.orderservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.exception.CustomException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderGroupCommitWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final CountDownLatch databaseStalled = new CountDownLatch(1);
+
+    private OrderGroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new OrderGroupCommitWriter(jdbcTemplate, transactionManager, true, 10, Duration.ofMillis(1), 10,
+                Duration.ofMillis(100), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        databaseStalled.countDown();
+        writer.stop();
+    }
+
+    @DisplayName("Group Commit - Timed Out Write Is Never Committed")
+    @Test
+    void test_When_Caller_Times_Out_Before_Write_Taken_then_Write_Dropped() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            firstBatchStarted.countDown();
+            databaseStalled.await();
+            return new SimpleTransactionStatus();
+        });
+
+        Order stuck = order();
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> writer.insert(stuck));
+        firstBatchStarted.await();
+
+        // the writer is busy with the first batch, so this one is still queued when its caller gives up
+        Order abandoned = order();
+        CustomException timeout = assertThrows(CustomException.class, () -> writer.insert(abandoned));
+        assertEquals("WRITE_TIMEOUT", timeout.getErrorCode());
+
+        databaseStalled.countDown();
+        first.get();
+        Order next = order();
+        writer.insert(next);
+
+        verify(entityManager).persist(stuck);
+        verify(entityManager).persist(next);
+        verify(entityManager, never()).persist(abandoned);
+    }
+
+    private static Order order() {
+        return Order.builder()
+                .productId(1)
+                .quantity(1)
+                .amount(100)
+                .orderStatus("CREATED")
+                .orderDate(Instant.now())
+                .build();
+    }
+}
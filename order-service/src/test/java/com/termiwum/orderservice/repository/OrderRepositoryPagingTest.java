@@ -0,0 +1,129 @@
+package com.termiwum.orderservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.model.OrderSummary;
+
+@DataJpaTest
+@ContextConfiguration(classes = OrderRepositoryPagingTest.PagingConfig.class)
+public class OrderRepositoryPagingTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private List<Order> orders;
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    @EntityScan(basePackageClasses = Order.class)
+    static class PagingConfig {
+    }
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+
+        orders = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // pairs of orders share a date, so pages have to break ties on id
+            orders.add(Order.builder()
+                    .productId(i)
+                    .quantity(1)
+                    .amount(100)
+                    .orderDate(START.plus(i / 2, ChronoUnit.MINUTES))
+                    .orderStatus(i % 3 == 0 ? "PAYMENT_FAILED" : "PLACED")
+                    .build());
+        }
+        orders = orderRepository.saveAll(orders);
+    }
+
+    @DisplayName("Order Listing - Pages Cover Every Order Once, Newest First")
+    @Test
+    void test_When_Paging_then_All_Orders_In_Order() {
+        List<Long> expected = orders.stream()
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+
+        assertEquals(expected, readAllPages(null, 7));
+    }
+
+    @DisplayName("Order Listing - Status and Date Filters")
+    @Test
+    void test_When_Filtered_then_Only_Matching_Orders() {
+        List<Long> expected = orders.stream()
+                .filter(order -> order.getOrderStatus().equals("PAYMENT_FAILED"))
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+        assertEquals(expected, readAllPages("PAYMENT_FAILED", 2));
+
+        Instant from = START.plus(3, ChronoUnit.MINUTES);
+        Instant to = START.plus(5, ChronoUnit.MINUTES);
+        List<OrderSummary> window = orderRepository.findFirstPage(null, from, to, Limit.of(100));
+        assertEquals(4, window.size());
+        assertTrue(window.stream().allMatch(order -> !order.getOrderDate().isBefore(from)
+                && order.getOrderDate().isBefore(to)));
+    }
+
+    @DisplayName("Order Listing - Status and Date Window Paged Together")
+    @Test
+    void test_When_Status_And_Window_then_Pages_Match_Both() {
+        Instant from = START.plus(2, ChronoUnit.MINUTES);
+        Instant to = START.plus(10, ChronoUnit.MINUTES);
+        List<Long> expected = orders.stream()
+                .filter(order -> order.getOrderStatus().equals("PLACED"))
+                .filter(order -> !order.getOrderDate().isBefore(from) && order.getOrderDate().isBefore(to))
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+
+        assertEquals(expected, readAllPages("PLACED", from, to, 3));
+    }
+
+    @DisplayName("Order Export - Stream Returns Every Order")
+    @Test
+    void test_When_Streaming_then_All_Orders() {
+        try (Stream<OrderSummary> stream = orderRepository.streamAll(null, null, null)) {
+            assertEquals(orders.size(), stream.count());
+        }
+    }
+
+    private List<Long> readAllPages(String status, int pageSize) {
+        return readAllPages(status, null, null, pageSize);
+    }
+
+    private List<Long> readAllPages(String status, Instant from, Instant to, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        List<OrderSummary> page = orderRepository.findFirstPage(status, from, to, Limit.of(pageSize));
+        while (!page.isEmpty()) {
+            page.forEach(order -> ids.add(order.getOrderId()));
+            OrderSummary last = page.get(page.size() - 1);
+            page = orderRepository.findPageAfter(status, from, to, last.getOrderDate(), last.getOrderId(),
+                    Limit.of(pageSize));
+        }
+        return ids;
+    }
+}
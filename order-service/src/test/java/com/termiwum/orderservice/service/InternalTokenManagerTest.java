@@ -0,0 +1,135 @@
+package com.termiwum.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+
+public class InternalTokenManagerTest {
+
+    // token responses compute their expiry from the wall clock
+    private static final Instant NOW = Instant.now();
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+
+    private final ClientRegistration registration = ClientRegistration.withRegistrationId("internal-client")
+            .clientId("client-id")
+            .clientSecret("client-secret")
+            .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+            .tokenUri("https://idp.example.com/token")
+            .build();
+
+    @DisplayName("Internal Token - Fetched Once and Reused")
+    @Test
+    void test_When_Token_Valid_then_Cached() {
+        InternalTokenManager tokenManager = new InternalTokenManager(registration,
+                tokenClient(Duration.ofHours(1), null), Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertEquals("token-1", tokenManager.getToken());
+        assertEquals("token-1", tokenManager.getToken());
+        assertEquals(1, tokenRequests.get());
+    }
+
+    @DisplayName("Internal Token - Refreshed Ahead of Expiry")
+    @Test
+    void test_When_Token_Near_Expiry_then_Refreshed() {
+        MutableClock clock = new MutableClock();
+        InternalTokenManager tokenManager = new InternalTokenManager(registration,
+                tokenClient(Duration.ofMinutes(5), null), Duration.ofSeconds(60), clock);
+
+        assertEquals("token-1", tokenManager.getToken());
+
+        clock.now = NOW.plus(Duration.ofMinutes(4).plusSeconds(30));
+        assertEquals("token-2", tokenManager.getToken());
+        assertEquals(2, tokenRequests.get());
+    }
+
+    @DisplayName("Internal Token - Concurrent Callers Share One Request")
+    @Test
+    void test_When_Concurrent_Callers_then_Single_Token_Request() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        InternalTokenManager tokenManager = new InternalTokenManager(registration,
+                tokenClient(Duration.ofHours(1), release), Duration.ofSeconds(60), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tokens.add(callers.submit(tokenManager::getToken));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> token : tokens) {
+                assertEquals("token-1", token.get());
+            }
+        }
+        assertEquals(1, tokenRequests.get());
+    }
+
+    @DisplayName("Internal Token - No Registration")
+    @Test
+    void test_When_No_Registration_then_No_Token() {
+        InternalTokenManager tokenManager = new InternalTokenManager(null,
+                tokenClient(Duration.ofHours(1), null), Duration.ofSeconds(60), Clock.systemUTC());
+
+        assertNull(tokenManager.getToken());
+        assertEquals(0, tokenRequests.get());
+    }
+
+    private OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenClient(Duration lifetime,
+            CountDownLatch release) {
+        return grantRequest -> {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return OAuth2AccessTokenResponse.withToken("token-" + tokenRequests.incrementAndGet())
+                    .tokenType(OAuth2AccessToken.TokenType.BEARER)
+                    .expiresIn(lifetime.toSeconds())
+                    .build();
+        };
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = NOW;
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
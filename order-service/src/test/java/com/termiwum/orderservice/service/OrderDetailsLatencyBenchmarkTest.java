@@ -0,0 +1,138 @@
+package com.termiwum.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.external.cache.ProductSnapshotCache;
+import com.termiwum.orderservice.external.response.PaymentResponse;
+import com.termiwum.orderservice.external.response.ProductResponse;
+import com.termiwum.orderservice.mapper.OrderMapper;
+import com.termiwum.orderservice.model.PaymentMode;
+import com.termiwum.orderservice.repository.OrderRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Compares getOrderDetails latency with sequential and parallel downstream
+ * lookups, using simulated PRODUCT-SERVICE and PAYMENT-SERVICE latencies.
+ * Tagged out of the default test run; start it with mvn test -Pbenchmarks.
+ */
+@Tag("benchmark")
+@ExtendWith(MockitoExtension.class)
+@Log4j2
+public class OrderDetailsLatencyBenchmarkTest {
+
+    private static final long PRODUCT_LATENCY_MS = 80;
+    private static final long PAYMENT_LATENCY_MS = 60;
+    private static final int ITERATIONS = 20;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Spy
+    private TokenService tokenService = new TokenService();
+
+    @Spy
+    private OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+
+    private final ExecutorService orderDetailsExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @InjectMocks
+    OrderService orderService = new OrderServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        // size 0 disables product caching so every lookup pays the simulated latency
+        ReflectionTestUtils.setField(orderService, "productSnapshotCache", new ProductSnapshotCache(restTemplate,
+                "http://PRODUCT-SERVICE/products/", 0, Duration.ofMinutes(10), 200, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(orderService, "paymentServiceUrl", "http://PAYMENT-SERVICE/payments/");
+        ReflectionTestUtils.setField(orderService, "orderDetailsExecutor", orderDetailsExecutor);
+        ReflectionTestUtils.setField(orderService, "detailsTimeout", Duration.ofSeconds(2));
+
+        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(Order.builder()
+                .id(1)
+                .productId(2)
+                .orderStatus("PLACED")
+                .orderDate(Instant.now())
+                .build()));
+
+        when(restTemplate.getForObject(startsWith("http://PRODUCT-SERVICE/"), eq(ProductResponse.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(PRODUCT_LATENCY_MS);
+                    return ProductResponse.builder().productId(2).productName("iPhone").build();
+                });
+        when(restTemplate.getForObject(startsWith("http://PAYMENT-SERVICE/"), eq(PaymentResponse.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(PAYMENT_LATENCY_MS);
+                    return PaymentResponse.builder().paymentId(1).paymentMode(PaymentMode.CASH).status("SUCCESS")
+                            .build();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDetailsExecutor.shutdownNow();
+    }
+
+    @DisplayName("Get Order Details - Parallel vs Sequential Latency")
+    @Test
+    void test_Parallel_Lookups_Beat_Sequential_Lookups() {
+        long[] sequential = measure(false);
+        long[] parallel = measure(true);
+
+        log.info("getOrderDetails sequential p50={}ms p99={}ms | parallel p50={}ms p99={}ms",
+                percentile(sequential, 50), percentile(sequential, 99),
+                percentile(parallel, 50), percentile(parallel, 99));
+
+        // sequential pays for both hops, parallel only for the slowest one
+        assertTrue(percentile(sequential, 50) >= PRODUCT_LATENCY_MS + PAYMENT_LATENCY_MS);
+        assertTrue(percentile(parallel, 50) < PRODUCT_LATENCY_MS + PAYMENT_LATENCY_MS);
+    }
+
+    private long[] measure(boolean parallel) {
+        ReflectionTestUtils.setField(orderService, "parallelDetailsFetch", parallel);
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            orderService.getOrderDetails(1);
+            samples[i] = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private long percentile(long[] sortedSamples, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,188 @@
+package com.termiwum.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.repository.OrderRepository;
+import com.termiwum.orderservice.service.OrderIdempotencyIndex.IdempotencyKey;
+
+public class OrderIdempotencyIndexTest {
+
+    private static final IdempotencyKey KEY_1 = new IdempotencyKey("alice", "key-1", "hash-1");
+
+    private OrderRepository orderRepository;
+
+    private OrderIdempotencyIndex orderIdempotencyIndex;
+
+    private final AtomicInteger placements = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findByIdempotencySubjectAndIdempotencyKey(anyString(), anyString()))
+                .thenReturn(Optional.empty());
+        orderIdempotencyIndex = new OrderIdempotencyIndex(orderRepository, 100, Duration.ofMinutes(1),
+                Duration.ofSeconds(5));
+    }
+
+    @DisplayName("Idempotency - Retry Returns Original Order")
+    @Test
+    void test_When_Key_Repeated_then_Placed_Once() {
+        long first = orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet());
+        long second = orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet());
+
+        assertEquals(1L, first);
+        assertEquals(1L, second);
+        assertEquals(1, placements.get());
+    }
+
+    @DisplayName("Idempotency - In-Flight Retry Waits for Original")
+    @Test
+    void test_When_Key_In_Flight_then_Retry_Waits() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(2)) {
+            Future<Long> original = clients.submit(() -> orderIdempotencyIndex.placeOnce(KEY_1, () -> {
+                started.countDown();
+                await(release);
+                return (long) placements.incrementAndGet();
+            }));
+            started.await();
+            Future<Long> retry = clients.submit(
+                    () -> orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet()));
+
+            release.countDown();
+            assertEquals(1L, original.get());
+            assertEquals(1L, retry.get());
+        }
+        assertEquals(1, placements.get());
+    }
+
+    @DisplayName("Idempotency - Failed Placement Can Be Retried")
+    @Test
+    void test_When_Placement_Fails_then_Key_Released() {
+        assertThrows(CustomException.class, () -> orderIdempotencyIndex.placeOnce(KEY_1, () -> {
+            throw new CustomException("Product Service Unavailable", "UNAVAILABLE", 500);
+        }));
+
+        long orderId = orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet());
+
+        assertEquals(1L, orderId);
+    }
+
+    @DisplayName("Idempotency - Stored Key Returns Stored Order")
+    @Test
+    void test_When_Key_Stored_then_Stored_Order_Returned() {
+        when(orderRepository.findByIdempotencySubjectAndIdempotencyKey("alice", "key-1"))
+                .thenReturn(Optional.of(Order.builder()
+                        .id(42)
+                        .idempotencyKey("key-1")
+                        .requestHash("hash-1")
+                        .build()));
+
+        long orderId = orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet());
+
+        assertEquals(42L, orderId);
+        assertEquals(0, placements.get());
+    }
+
+    @DisplayName("Idempotency - Same Key From Another Subject Places Its Own Order")
+    @Test
+    void test_When_Key_Used_By_Other_Subject_then_Placed_Again() {
+        long first = orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet());
+        long second = orderIdempotencyIndex.placeOnce(new IdempotencyKey("bob", "key-1", "hash-1"),
+                () -> (long) placements.incrementAndGet());
+
+        assertEquals(1L, first);
+        assertEquals(2L, second);
+    }
+
+    @DisplayName("Idempotency - Key Reused With Different Request Rejected")
+    @Test
+    void test_When_Key_Reused_With_Other_Request_then_Unprocessable() {
+        orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet());
+
+        CustomException exception = assertThrows(CustomException.class, () -> orderIdempotencyIndex.placeOnce(
+                new IdempotencyKey("alice", "key-1", "hash-2"), () -> (long) placements.incrementAndGet()));
+
+        assertEquals("IDEMPOTENCY_KEY_REUSED", exception.getErrorCode());
+        assertEquals(422, exception.getStatus());
+        assertEquals(1, placements.get());
+    }
+
+    @DisplayName("Idempotency - Stored Key Reused With Different Request Rejected")
+    @Test
+    void test_When_Stored_Key_Reused_With_Other_Request_then_Unprocessable() {
+        when(orderRepository.findByIdempotencySubjectAndIdempotencyKey("alice", "key-1"))
+                .thenReturn(Optional.of(Order.builder()
+                        .id(42)
+                        .idempotencyKey("key-1")
+                        .requestHash("hash-0")
+                        .build()));
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> orderIdempotencyIndex.placeOnce(KEY_1, () -> (long) placements.incrementAndGet()));
+
+        assertEquals(422, exception.getStatus());
+        assertEquals(0, placements.get());
+    }
+
+    @DisplayName("Idempotency - Lost Claim Returns The Order That Won It")
+    @Test
+    void test_When_Claim_Hits_Unique_Key_then_Stored_Order_Returned() {
+        when(orderRepository.saveAndFlush(any(Order.class)))
+                .thenThrow(new DataIntegrityViolationException("UK_ORDER_IDEMPOTENCY"));
+        when(orderRepository.findByIdempotencySubjectAndIdempotencyKey("alice", "key-1"))
+                .thenReturn(Optional.of(Order.builder()
+                        .id(42)
+                        .idempotencyKey("key-1")
+                        .requestHash("hash-1")
+                        .build()));
+
+        Optional<Long> orderId = orderIdempotencyIndex.claim(KEY_1, new Order());
+
+        assertEquals(Optional.of(42L), orderId);
+    }
+
+    @DisplayName("Idempotency - Won Claim Stores The Order Under The Key")
+    @Test
+    void test_When_Claim_Free_then_Order_Stored_With_Key() {
+        Order order = new Order();
+
+        assertEquals(Optional.empty(), orderIdempotencyIndex.claim(KEY_1, order));
+
+        verify(orderRepository).saveAndFlush(order);
+        assertEquals("alice", order.getIdempotencySubject());
+        assertEquals("key-1", order.getIdempotencyKey());
+        assertEquals("hash-1", order.getRequestHash());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,33 +4,63 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.termiwum.orderservice.entity.Order;
+import com.termiwum.orderservice.entity.OrderView;
 import com.termiwum.orderservice.exception.CustomException;
+import com.termiwum.orderservice.external.cache.ProductSnapshotCache;
 import com.termiwum.orderservice.external.client.PaymentService;
 import com.termiwum.orderservice.external.client.ProductService;
 import com.termiwum.orderservice.external.request.PaymentRequest;
+import com.termiwum.orderservice.external.request.ReduceQuantityRequest;
+import com.termiwum.orderservice.external.request.RestoreQuantityRequest;
 import com.termiwum.orderservice.external.response.PaymentResponse;
+import com.termiwum.orderservice.external.response.PaymentResult;
+import com.termiwum.orderservice.external.response.ProductLookupResponse;
 import com.termiwum.orderservice.external.response.ProductResponse;
+import com.termiwum.orderservice.external.response.ReduceQuantityResponse;
+import com.termiwum.orderservice.mapper.OrderMapper;
+import com.termiwum.orderservice.model.OrderFilter;
+import com.termiwum.orderservice.model.OrderPage;
+import com.termiwum.orderservice.model.OrderPlacementResult;
 import com.termiwum.orderservice.model.OrderRequest;
 import com.termiwum.orderservice.model.OrderResponse;
+import com.termiwum.orderservice.model.OrderSummary;
 import com.termiwum.orderservice.model.PaymentMode;
+import com.termiwum.orderservice.repository.OrderGroupCommitWriter;
 import com.termiwum.orderservice.repository.OrderRepository;
+import com.termiwum.orderservice.repository.OrderViewRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class OrderServiceImplTest {
@@ -38,6 +68,12 @@ public class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderGroupCommitWriter orderGroupCommitWriter;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
     @Mock
     private ProductService productService;
 
@@ -47,13 +83,34 @@ public class OrderServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OrderIdempotencyIndex orderIdempotencyIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private TokenService tokenService = new TokenService();
+
+    @Spy
+    private OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+
+    private final ExecutorService orderDetailsExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     @InjectMocks
     OrderService orderService = new OrderServiceImpl();
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(orderService, "productServiceUrl", "http://PRODUCT-SERVICE/products/");
+        ReflectionTestUtils.setField(orderService, "productSnapshotCache", new ProductSnapshotCache(restTemplate,
+                "http://PRODUCT-SERVICE/products/", 1000, Duration.ofMinutes(10), 200, new SimpleMeterRegistry()));
         ReflectionTestUtils.setField(orderService, "paymentServiceUrl", "http://PAYMENT-SERVICE/payments/");
+        ReflectionTestUtils.setField(orderService, "orderDetailsExecutor", orderDetailsExecutor);
+        ReflectionTestUtils.setField(orderService, "parallelDetailsFetch", true);
+        ReflectionTestUtils.setField(orderService, "detailsTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(orderService, "maxBatchSize", 200);
+        ReflectionTestUtils.setField(orderService, "maxBulkPlacementSize", 500);
+        ReflectionTestUtils.setField(orderService, "maxPageSize", 500);
     }
 
     @DisplayName("Get Order - Success Scenario")
@@ -89,6 +146,79 @@ public class OrderServiceImplTest {
         assertEquals(order.getId(), orderResponse.getOrderId());
     }
 
+    @DisplayName("Get Order - Product Lookup Timed Out")
+    @Test
+    void test_When_Product_Lookup_Times_Out_then_Section_Unavailable() {
+        ReflectionTestUtils.setField(orderService, "detailsTimeout", Duration.ofMillis(200));
+
+        Order order = getMockOrder();
+        when(orderRepository.findById(anyLong()))
+                .thenReturn(Optional.of(order));
+
+        when(restTemplate.getForObject(
+                "http://PRODUCT-SERVICE/products/" + order.getProductId(),
+                ProductResponse.class)).thenAnswer(invocation -> {
+                    Thread.sleep(2_000);
+                    return getMockProductResponse();
+                });
+
+        when(restTemplate.getForObject(
+                "http://PAYMENT-SERVICE/payments/orders/" + order.getId(),
+                PaymentResponse.class)).thenReturn(getMockPaymentResponse());
+
+        OrderResponse orderResponse = orderService.getOrderDetails(1);
+
+        assertNull(orderResponse.getProductDetails());
+        assertNotNull(orderResponse.getPaymentDetails());
+        assertEquals(List.of("productDetails"), orderResponse.getUnavailableSections());
+    }
+
+    @DisplayName("Get Order - Payment Lookup Failed")
+    @Test
+    void test_When_Payment_Lookup_Fails_then_Section_Unavailable() {
+        Order order = getMockOrder();
+        when(orderRepository.findById(anyLong()))
+                .thenReturn(Optional.of(order));
+
+        when(restTemplate.getForObject(
+                "http://PRODUCT-SERVICE/products/" + order.getProductId(),
+                ProductResponse.class)).thenReturn(getMockProductResponse());
+
+        when(restTemplate.getForObject(
+                "http://PAYMENT-SERVICE/payments/orders/" + order.getId(),
+                PaymentResponse.class)).thenThrow(new RuntimeException("Payment Service Unavailable"));
+
+        OrderResponse orderResponse = orderService.getOrderDetails(1);
+
+        assertNotNull(orderResponse.getProductDetails());
+        assertNull(orderResponse.getPaymentDetails());
+        assertEquals(List.of("paymentDetails"), orderResponse.getUnavailableSections());
+    }
+
+    @DisplayName("Get Orders Details - Bulk Lookups")
+    @Test
+    void test_When_Get_Orders_Details_then_One_Bulk_Call_Per_Service() {
+        Order order = getMockOrder();
+        when(orderRepository.findAllById(List.of(1L, 5L)))
+                .thenReturn(List.of(order));
+
+        when(restTemplate.getForObject(
+                "http://PRODUCT-SERVICE/products?ids={ids}",
+                ProductLookupResponse.class, "2")).thenReturn(new ProductLookupResponse(
+                        List.of(getMockProductResponse()), List.of()));
+
+        when(restTemplate.getForObject(
+                "http://PAYMENT-SERVICE/payments/orders?orderIds={orderIds}",
+                PaymentResponse[].class, "1")).thenReturn(new PaymentResponse[] { getMockPaymentResponse() });
+
+        List<OrderResponse> orderResponses = orderService.getOrdersDetails(List.of(1L, 5L));
+
+        assertEquals(1, orderResponses.size());
+        assertEquals("iPhone", orderResponses.get(0).getProductDetails().getProductName());
+        assertEquals("ACCEPTED", orderResponses.get(0).getPaymentDetails().getPaymentStatus());
+        assertNull(orderResponses.get(0).getUnavailableSections());
+    }
+
     @DisplayName("Get Orders - Failure Scenario")
     @Test
     void test_When_Get_Order_NOT_FOUND_then_Not_Found() {
@@ -166,6 +296,376 @@ public class OrderServiceImplTest {
         assertEquals(1L, orderId);
     }
 
+    @DisplayName("Place Order Async - Payment Completed by Worker")
+    @Test
+    void test_When_Place_Order_Async_then_Payment_Completed_By_Worker() {
+        OrderRequest orderRequest = getMockOrderRequest();
+        List<Runnable> paymentTasks = new ArrayList<>();
+        ReflectionTestUtils.setField(orderService, "paymentWorkerExecutor", (Executor) paymentTasks::add);
+
+        when(orderRepository.save(any(Order.class)))
+                .thenAnswer(invocation -> {
+                    Order savedOrder = invocation.getArgument(0);
+                    if (savedOrder.getId() == 0) {
+                        savedOrder.setId(1L);
+                    }
+                    return savedOrder;
+                });
+        when(productService.reduceQuantity(anyLong(), anyLong()))
+                .thenReturn(new ResponseEntity<Void>(HttpStatus.OK));
+        when(paymentService.doPayment(any(PaymentRequest.class)))
+                .thenReturn(new ResponseEntity<Long>(1L, HttpStatus.OK));
+
+        long orderId = orderService.placeOrderAsync(orderRequest);
+
+        assertEquals(1L, orderId);
+        assertEquals(1, paymentTasks.size());
+        verify(orderRepository, times(1)).save(any());
+        verify(paymentService, never()).doPayment(any(PaymentRequest.class));
+
+        paymentTasks.get(0).run();
+
+        ArgumentCaptor<Order> savedOrder = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(2)).save(savedOrder.capture());
+        verify(paymentService, times(1)).doPayment(any(PaymentRequest.class));
+        assertEquals("PLACED", savedOrder.getValue().getOrderStatus());
+    }
+
+    @DisplayName("Place Orders - One Inventory and One Payment Call")
+    @Test
+    void test_When_Place_Orders_then_Inventory_And_Payments_Batched() {
+        List<OrderRequest> orderRequests = List.of(
+                getMockOrderRequest(),
+                OrderRequest.builder().productId(2).quantity(5).paymentMode(PaymentMode.CASH).totalAmount(50).build(),
+                getMockOrderRequest());
+
+        when(productService.reduceQuantities(any()))
+                .thenReturn(new ResponseEntity<>(List.of(
+                        ReduceQuantityResponse.builder().productId(1).reduced(true).build(),
+                        ReduceQuantityResponse.builder().productId(2).reduced(false)
+                                .errorCode("INSUFFICIENT_QUANTITY").build()),
+                        HttpStatus.OK));
+        when(orderRepository.saveAll(any())).thenAnswer(this::assignOrderIds);
+        when(paymentService.doPayments(any()))
+                .thenReturn(new ResponseEntity<>(List.of(
+                        PaymentResult.builder().orderId(1).paymentId(1).status("SUCCESS").build(),
+                        PaymentResult.builder().orderId(2).status("FAILED").build()),
+                        HttpStatus.CREATED));
+
+        List<OrderPlacementResult> results = orderService.placeOrders(orderRequests);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReduceQuantityRequest>> reductions = ArgumentCaptor.forClass(List.class);
+        verify(productService, times(1)).reduceQuantities(reductions.capture());
+        verify(productService, never()).reduceQuantity(anyLong(), anyLong());
+        verify(paymentService, times(1)).doPayments(any());
+        verify(orderRepository, times(1)).updateOrderStatus(List.of(1L), "PLACED");
+        verify(orderRepository, times(1)).updateOrderStatus(List.of(2L), "PAYMENT_FAILED");
+        verify(productService, times(1)).restoreQuantities(
+                List.of(RestoreQuantityRequest.builder().orderId(2).productId(1).quantity(10).build()));
+
+        // one reduction per product, covering both of its order lines
+        assertEquals(List.of(ReduceQuantityRequest.builder().productId(1).quantity(20).build(),
+                ReduceQuantityRequest.builder().productId(2).quantity(5).build()), reductions.getValue());
+        assertEquals(3, results.size());
+        assertEquals("PLACED", results.get(0).getOrderStatus());
+        assertEquals("INSUFFICIENT_QUANTITY", results.get(1).getErrorCode());
+        assertEquals("PAYMENT_FAILED", results.get(2).getOrderStatus());
+    }
+
+    @DisplayName("Place Orders - Product Short For Its Summed Quantity Rejects All Its Lines")
+    @Test
+    void test_When_Place_Orders_Product_Rejected_then_Every_Line_Of_It_Rejected() {
+        when(productService.reduceQuantities(any()))
+                .thenReturn(new ResponseEntity<>(List.of(
+                        ReduceQuantityResponse.builder().productId(1).reduced(false)
+                                .errorCode("INSUFFICIENT_QUANTITY").build()),
+                        HttpStatus.OK));
+
+        List<OrderPlacementResult> results = orderService.placeOrders(
+                List.of(getMockOrderRequest(), getMockOrderRequest()));
+
+        verify(orderRepository, never()).saveAll(any());
+        assertEquals(List.of("INSUFFICIENT_QUANTITY", "INSUFFICIENT_QUANTITY"),
+                results.stream().map(OrderPlacementResult::getErrorCode).toList());
+    }
+
+    @DisplayName("Place Orders - Inventory Outcome Unknown Keeps Orders Unpaid")
+    @Test
+    void test_When_Place_Orders_Inventory_Fails_then_Stock_Unconfirmed() {
+        when(productService.reduceQuantities(any()))
+                .thenThrow(new CustomException("Product Service Unavailable", "UNAVAILABLE", 500));
+        when(orderRepository.saveAll(any())).thenAnswer(this::assignOrderIds);
+
+        List<OrderPlacementResult> results = orderService.placeOrders(
+                List.of(getMockOrderRequest(), getMockOrderRequest()));
+
+        ArgumentCaptor<Iterable<Order>> savedOrders = ArgumentCaptor.captor();
+        verify(orderRepository, times(1)).saveAll(savedOrders.capture());
+        savedOrders.getValue().forEach(order -> assertEquals("STOCK_UNCONFIRMED", order.getOrderStatus()));
+        verifyNoInteractions(paymentService);
+        assertEquals(List.of("STOCK_UNCONFIRMED", "STOCK_UNCONFIRMED"),
+                results.stream().map(OrderPlacementResult::getOrderStatus).toList());
+    }
+
+    @DisplayName("Place Orders - Inventory Rejection Creates No Orders")
+    @Test
+    void test_When_Place_Orders_Inventory_Rejects_then_No_Orders() {
+        when(productService.reduceQuantities(any()))
+                .thenThrow(new CustomException("Bad request", "INVALID_REQUEST", 400));
+
+        List<OrderPlacementResult> results = orderService.placeOrders(List.of(getMockOrderRequest()));
+
+        verify(orderRepository, never()).saveAll(any());
+        assertEquals("INVALID_REQUEST", results.get(0).getErrorCode());
+    }
+
+    @DisplayName("Place Orders - Payment Call Fails, Recorded Payments Kept And Others Refunded")
+    @Test
+    void test_When_Place_Orders_Payment_Call_Fails_then_Recorded_Payments_Checked() {
+        when(productService.reduceQuantities(any()))
+                .thenReturn(new ResponseEntity<>(List.of(
+                        ReduceQuantityResponse.builder().productId(1).reduced(true).build()),
+                        HttpStatus.OK));
+        when(orderRepository.saveAll(any())).thenAnswer(this::assignOrderIds);
+        when(paymentService.doPayments(any()))
+                .thenThrow(new CustomException("Payment Service Unavailable", "UNAVAILABLE", 500));
+        when(restTemplate.getForObject("http://PAYMENT-SERVICE/payments/orders?orderIds={orderIds}",
+                PaymentResponse[].class, "1,2"))
+                .thenReturn(new PaymentResponse[] {
+                        PaymentResponse.builder().paymentId(1).orderId(1).status("SUCCESS").build() });
+
+        List<OrderPlacementResult> results = orderService.placeOrders(
+                List.of(getMockOrderRequest(), getMockOrderRequest()));
+
+        verify(orderRepository, times(1)).updateOrderStatus(List.of(1L), "PLACED");
+        verify(orderRepository, times(1)).updateOrderStatus(List.of(2L), "PAYMENT_FAILED");
+        verify(productService, times(1)).restoreQuantities(
+                List.of(RestoreQuantityRequest.builder().orderId(2).productId(1).quantity(10).build()));
+        assertEquals("PLACED", results.get(0).getOrderStatus());
+        assertEquals("PAYMENT_FAILED", results.get(1).getOrderStatus());
+    }
+
+    @DisplayName("Place Orders - Payment Outcome Unknown Keeps Stock")
+    @Test
+    void test_When_Place_Orders_Payments_Unknown_then_Payment_Unconfirmed() {
+        when(productService.reduceQuantities(any()))
+                .thenReturn(new ResponseEntity<>(List.of(
+                        ReduceQuantityResponse.builder().productId(1).reduced(true).build()),
+                        HttpStatus.OK));
+        when(orderRepository.saveAll(any())).thenAnswer(this::assignOrderIds);
+        when(paymentService.doPayments(any()))
+                .thenThrow(new CustomException("Payment Service Unavailable", "UNAVAILABLE", 500));
+        when(restTemplate.getForObject(any(String.class), eq(PaymentResponse[].class), any(Object[].class)))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        List<OrderPlacementResult> results = orderService.placeOrders(List.of(getMockOrderRequest()));
+
+        verify(orderRepository, times(1)).updateOrderStatus(List.of(1L), "PAYMENT_UNCONFIRMED");
+        verify(productService, never()).restoreQuantities(any());
+        assertEquals("PAYMENT_UNCONFIRMED", results.get(0).getOrderStatus());
+    }
+
+    @DisplayName("Place Order - Keyed Order Stored Before Stock Is Taken")
+    @Test
+    void test_When_Place_Order_With_Key_then_Claimed_Before_Reduce() {
+        runPlacementsDirectly();
+        when(orderIdempotencyIndex.claim(any(), any())).thenReturn(Optional.empty());
+        when(paymentService.doPayment(any(PaymentRequest.class))).thenReturn(new ResponseEntity<>(1L, HttpStatus.OK));
+
+        orderService.placeOrder(getMockOrderRequest(), "alice", "key-1");
+
+        var inOrder = inOrder(orderIdempotencyIndex, productService);
+        inOrder.verify(orderIdempotencyIndex).claim(any(), any());
+        inOrder.verify(productService).reduceQuantity(1, 10);
+        // only the payment outcome is saved; the claim already stored the order
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @DisplayName("Place Order - Key Claimed Elsewhere Returns That Order Without Taking Stock")
+    @Test
+    void test_When_Key_Already_Claimed_then_Existing_Order_Returned() {
+        runPlacementsDirectly();
+        when(orderIdempotencyIndex.claim(any(), any())).thenReturn(Optional.of(42L));
+
+        long orderId = orderService.placeOrder(getMockOrderRequest(), "alice", "key-1");
+
+        assertEquals(42L, orderId);
+        verifyNoInteractions(productService, paymentService);
+    }
+
+    @DisplayName("Place Order - Unknown Stock Outcome Keeps The Claim")
+    @Test
+    void test_When_Reduce_Outcome_Unknown_then_Claim_Kept_As_Stock_Unconfirmed() {
+        runPlacementsDirectly();
+        when(orderIdempotencyIndex.claim(any(), any())).thenReturn(Optional.empty());
+        doThrow(new CustomException("Product Service Unavailable", "UNAVAILABLE", 500))
+                .when(productService).reduceQuantity(anyLong(), anyLong());
+
+        assertThrows(CustomException.class,
+                () -> orderService.placeOrder(getMockOrderRequest(), "alice", "key-1"));
+
+        ArgumentCaptor<Order> savedOrder = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(savedOrder.capture());
+        assertEquals("STOCK_UNCONFIRMED", savedOrder.getValue().getOrderStatus());
+        verify(orderIdempotencyIndex, never()).release(any());
+    }
+
+    @DisplayName("Place Order - Refused Stock Releases The Claim")
+    @Test
+    void test_When_Reduce_Refused_then_Claim_Released() {
+        runPlacementsDirectly();
+        when(orderIdempotencyIndex.claim(any(), any())).thenReturn(Optional.empty());
+        doThrow(new CustomException("Insufficient quantity", "INSUFFICIENT_QUANTITY", 409))
+                .when(productService).reduceQuantity(anyLong(), anyLong());
+
+        assertThrows(CustomException.class,
+                () -> orderService.placeOrder(getMockOrderRequest(), "alice", "key-1"));
+
+        verify(orderIdempotencyIndex).release(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runPlacementsDirectly() {
+        when(orderIdempotencyIndex.placeOnce(any(), any()))
+                .thenAnswer(invocation -> ((Supplier<Long>) invocation.getArgument(1)).get());
+    }
+
+    private List<Order> assignOrderIds(InvocationOnMock invocation) {
+        List<Order> orders = invocation.getArgument(0);
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(i + 1);
+        }
+        return orders;
+    }
+
+    @DisplayName("Place Orders - Too Many Orders")
+    @Test
+    void test_When_Place_Orders_Over_Limit_then_Rejected() {
+        ReflectionTestUtils.setField(orderService, "maxBulkPlacementSize", 1);
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> orderService.placeOrders(List.of(getMockOrderRequest(), getMockOrderRequest())));
+
+        assertEquals("TOO_MANY_ORDERS", exception.getErrorCode());
+        assertEquals(400, exception.getStatus());
+        verify(productService, never()).reduceQuantities(any());
+    }
+
+    @DisplayName("Get Order - Served From Read Model")
+    @Test
+    void test_When_Order_View_Exists_then_No_Downstream_Calls() {
+        ReflectionTestUtils.setField(orderService, "readModelEnabled", true);
+
+        OrderView orderView = OrderView.builder()
+                .orderId(1)
+                .orderStatus("PLACED")
+                .productId(2)
+                .productName("iPhone")
+                .paymentId(5L)
+                .paymentMode(PaymentMode.CASH)
+                .paymentStatus("SUCCESS")
+                .build();
+        when(orderViewRepository.findById(1L)).thenReturn(Optional.of(orderView));
+
+        OrderResponse orderResponse = orderService.getOrderDetails(1);
+
+        verify(orderRepository, never()).findById(anyLong());
+        verifyNoInteractions(restTemplate);
+        assertEquals("iPhone", orderResponse.getProductDetails().getProductName());
+        assertEquals(5L, orderResponse.getPaymentDetails().getPaymentId());
+        assertNull(orderResponse.getUnavailableSections());
+    }
+
+    @DisplayName("Get Order - Refresh Rebuilds Read Model")
+    @Test
+    void test_When_Refresh_then_Live_Lookup_And_View_Saved() {
+        ReflectionTestUtils.setField(orderService, "readModelEnabled", true);
+
+        Order order = getMockOrder();
+        when(orderRepository.findById(anyLong())).thenReturn(Optional.of(order));
+        when(restTemplate.getForObject(
+                "http://PRODUCT-SERVICE/products/" + order.getProductId(),
+                ProductResponse.class)).thenReturn(getMockProductResponse());
+        when(restTemplate.getForObject(
+                "http://PAYMENT-SERVICE/payments/orders/" + order.getId(),
+                PaymentResponse.class)).thenReturn(getMockPaymentResponse());
+
+        orderService.getOrderDetails(1, true);
+
+        verify(orderViewRepository, never()).findById(anyLong());
+        ArgumentCaptor<OrderView> saved = ArgumentCaptor.forClass(OrderView.class);
+        verify(orderViewRepository).save(saved.capture());
+        assertEquals("iPhone", saved.getValue().getProductName());
+        assertEquals("ACCEPTED", saved.getValue().getPaymentStatus());
+    }
+
+    @DisplayName("Place Order - Read Model Filled")
+    @Test
+    void test_When_Place_Order_then_Order_View_Saved() {
+        ReflectionTestUtils.setField(orderService, "readModelEnabled", true);
+        OrderRequest orderRequest = getMockOrderRequest();
+
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order savedOrder = invocation.getArgument(0);
+            savedOrder.setId(1);
+            return savedOrder;
+        });
+        when(productService.reduceQuantity(anyLong(), anyLong()))
+                .thenReturn(new ResponseEntity<Void>(HttpStatus.OK));
+        when(paymentService.doPayment(any(PaymentRequest.class)))
+                .thenReturn(new ResponseEntity<Long>(7L, HttpStatus.OK));
+        when(restTemplate.getForObject("http://PRODUCT-SERVICE/products?ids={ids}", ProductLookupResponse.class,
+                "1")).thenReturn(new ProductLookupResponse(
+                        List.of(ProductResponse.builder().productId(1).productName("iPhone").build()), List.of()));
+
+        orderService.placeOrder(orderRequest);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderView>> saved = ArgumentCaptor.forClass(List.class);
+        verify(orderViewRepository).saveAll(saved.capture());
+        OrderView orderView = saved.getValue().get(0);
+        assertEquals("PLACED", orderView.getOrderStatus());
+        assertEquals("iPhone", orderView.getProductName());
+        assertEquals(7L, orderView.getPaymentId());
+        assertEquals(PaymentMode.CASH, orderView.getPaymentMode());
+    }
+
+    @DisplayName("List Orders - Next Page Continues After Cursor")
+    @Test
+    void test_When_List_Orders_then_Cursor_Points_After_Last_Order() {
+        Instant orderDate = Instant.parse("2026-03-01T10:15:30.123456Z");
+        OrderFilter filter = new OrderFilter("PLACED", null, null);
+        when(orderRepository.findFirstPage("PLACED", null, null, Limit.of(3))).thenReturn(List.of(
+                OrderSummary.builder().orderId(9).orderDate(orderDate).build(),
+                OrderSummary.builder().orderId(8).orderDate(orderDate).build(),
+                OrderSummary.builder().orderId(7).orderDate(orderDate).build()));
+
+        OrderPage page = orderService.getOrders(filter, null, 2);
+
+        assertEquals(2, page.getOrders().size());
+        assertNotNull(page.getNextCursor());
+
+        when(orderRepository.findPageAfter("PLACED", null, null, orderDate, 8L, Limit.of(3)))
+                .thenReturn(List.of(OrderSummary.builder().orderId(7).orderDate(orderDate).build()));
+
+        OrderPage lastPage = orderService.getOrders(filter, page.getNextCursor(), 2);
+
+        assertEquals(1, lastPage.getOrders().size());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @DisplayName("List Orders - Invalid Cursor Rejected")
+    @Test
+    void test_When_Cursor_Invalid_then_Bad_Request() {
+        CustomException exception = assertThrows(CustomException.class,
+                () -> orderService.getOrders(new OrderFilter(), "not-a-cursor", 10));
+
+        assertEquals("INVALID_CURSOR", exception.getErrorCode());
+        assertEquals(400, exception.getStatus());
+    }
+
     private OrderRequest getMockOrderRequest() {
         return OrderRequest.builder()
                 .productId(1)
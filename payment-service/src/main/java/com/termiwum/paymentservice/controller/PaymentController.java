@@ -1,5 +1,7 @@
 package com.termiwum.paymentservice.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,12 +11,14 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.termiwum.paymentservice.model.PaymentRequest;
 import com.termiwum.paymentservice.model.PaymentResponse;
+import com.termiwum.paymentservice.model.PaymentResult;
 import com.termiwum.paymentservice.service.PaymentService;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping("/payments")
@@ -31,6 +35,14 @@ public class PaymentController {
                 HttpStatus.CREATED);
     }
 
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @PostMapping("/batch")
+    public ResponseEntity<List<PaymentResult>> doPayments(@RequestBody List<PaymentRequest> requests) {
+        return new ResponseEntity<>(
+                paymentService.doPayments(requests),
+                HttpStatus.CREATED);
+    }
+
     @PreAuthorize("hasAnyRole('Admin')")
     @GetMapping("/order/{orderId}")
     public ResponseEntity<PaymentResponse> getDetailsByOrderId(@PathVariable String orderId) {
@@ -38,4 +50,10 @@ public class PaymentController {
         return new ResponseEntity<>(paymentResponse, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('Admin')")
+    @GetMapping("/orders")
+    public ResponseEntity<List<PaymentResponse>> getDetailsByOrderIds(@RequestParam List<Long> orderIds) {
+        return new ResponseEntity<>(paymentService.getDetailsByOrderIds(orderIds), HttpStatus.OK);
+    }
+
 }
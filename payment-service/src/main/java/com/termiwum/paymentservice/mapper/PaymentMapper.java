@@ -0,0 +1,32 @@
+package com.termiwum.paymentservice.mapper;
+
+import java.time.Instant;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import com.termiwum.paymentservice.entity.TransactionDetails;
+import com.termiwum.paymentservice.model.PaymentRequest;
+import com.termiwum.paymentservice.model.PaymentResponse;
+import com.termiwum.paymentservice.model.PaymentResult;
+
+/**
+ * Payment mappings, generated at compile time by MapStruct.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, imports = Instant.class)
+public interface PaymentMapper {
+
+    @Mapping(target = "paymentId", source = "id")
+    @Mapping(target = "status", source = "paymentStatus")
+    PaymentResponse toPaymentResponse(TransactionDetails transactionDetails);
+
+    @Mapping(target = "paymentId", source = "id")
+    @Mapping(target = "status", source = "paymentStatus")
+    PaymentResult toPaymentResult(TransactionDetails transactionDetails);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "paymentDate", expression = "java(Instant.now())")
+    @Mapping(target = "paymentStatus", constant = "SUCCESS")
+    TransactionDetails toTransactionDetails(PaymentRequest paymentRequest);
+}
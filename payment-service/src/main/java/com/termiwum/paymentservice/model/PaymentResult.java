@@ -0,0 +1,7 @@
+package com.termiwum.paymentservice.model;
+
+public record PaymentResult(
+        long orderId,
+        long paymentId,
+        String status) {
+}
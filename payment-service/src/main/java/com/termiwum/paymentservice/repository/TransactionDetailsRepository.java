@@ -1,5 +1,8 @@
 package com.termiwum.paymentservice.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +13,6 @@ public interface TransactionDetailsRepository extends JpaRepository<TransactionD
 
     TransactionDetails findByOrderId(long orderId);
 
+    List<TransactionDetails> findByOrderIdIn(Collection<Long> orderIds);
+
 }
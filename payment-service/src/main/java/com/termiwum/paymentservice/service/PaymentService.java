@@ -1,11 +1,18 @@
 package com.termiwum.paymentservice.service;
 
+import java.util.List;
+
 import com.termiwum.paymentservice.model.PaymentRequest;
 import com.termiwum.paymentservice.model.PaymentResponse;
+import com.termiwum.paymentservice.model.PaymentResult;
 
 public interface PaymentService {
 
     long doPayment(PaymentRequest request);
 
+    List<PaymentResult> doPayments(List<PaymentRequest> requests);
+
     PaymentResponse getDetailByOrderId(String orderId);
+
+    List<PaymentResponse> getDetailsByOrderIds(List<Long> orderIds);
 }
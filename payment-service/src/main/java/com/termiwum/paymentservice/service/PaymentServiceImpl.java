@@ -1,13 +1,15 @@
 package com.termiwum.paymentservice.service;
 
-import java.time.Instant;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.termiwum.paymentservice.entity.TransactionDetails;
-import com.termiwum.paymentservice.model.PaymentMode;
+import com.termiwum.paymentservice.mapper.PaymentMapper;
 import com.termiwum.paymentservice.model.PaymentRequest;
 import com.termiwum.paymentservice.model.PaymentResponse;
+import com.termiwum.paymentservice.model.PaymentResult;
 import com.termiwum.paymentservice.repository.TransactionDetailsRepository;
 
 import lombok.extern.log4j.Log4j2;
@@ -19,19 +21,15 @@ public class PaymentServiceImpl implements PaymentService {
     @Autowired
     private TransactionDetailsRepository transactionDetailsRepository;
 
+    @Autowired
+    private PaymentMapper paymentMapper;
+
     @Override
     public long doPayment(PaymentRequest request) {
 
         log.info("Recording payment details: {}", request);
 
-        TransactionDetails transactionDetails = TransactionDetails.builder()
-                .orderId(request.orderId())
-                .paymentMode(request.paymentMode().name())
-                .referenceNumber(request.referenceNumber())
-                .paymentDate(Instant.now())
-                .paymentStatus("SUCCESS")
-                .amount(request.amount())
-                .build();
+        TransactionDetails transactionDetails = paymentMapper.toTransactionDetails(request);
 
         transactionDetailsRepository.save(transactionDetails);
 
@@ -40,6 +38,18 @@ public class PaymentServiceImpl implements PaymentService {
         return transactionDetails.getId();
     }
 
+    @Override
+    public List<PaymentResult> doPayments(List<PaymentRequest> requests) {
+        log.info("Recording {} payments", requests.size());
+
+        List<TransactionDetails> transactions = transactionDetailsRepository.saveAll(
+                requests.stream().map(paymentMapper::toTransactionDetails).toList());
+
+        return transactions.stream()
+                .map(paymentMapper::toPaymentResult)
+                .toList();
+    }
+
     @Override
     public PaymentResponse getDetailByOrderId(String orderId) {
         log.info("Fetching payment details for order ID: {}", orderId);
@@ -51,16 +61,19 @@ public class PaymentServiceImpl implements PaymentService {
             return null;
         }
 
-        PaymentResponse response = new PaymentResponse(
-                transactionDetails.getId(),
-                transactionDetails.getPaymentStatus(),
-                PaymentMode.valueOf(transactionDetails.getPaymentMode()),
-                transactionDetails.getAmount(),
-                transactionDetails.getPaymentDate(),
-                transactionDetails.getOrderId());
+        PaymentResponse response = paymentMapper.toPaymentResponse(transactionDetails);
 
         log.info("Payment details fetched successfully for order ID: {}", orderId);
 
         return response;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<PaymentResponse> getDetailsByOrderIds(List<Long> orderIds) {
+        log.info("Fetching payment details for {} orders", orderIds.size());
+
+        return transactionDetailsRepository.findByOrderIdIn(orderIds).stream()
+                .map(paymentMapper::toPaymentResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.termiwum.productservice.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.termiwum.productservice.model.ProductResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of {@link ProductResponse}s in front of the
+ * PRODUCT table, with {@link RedisProductCache} as an optional shared tier.
+ * Writers evict the products they change from both tiers; other instances'
+ * local entries catch up when their TTL expires, so it is kept short.
+ *
+ * Hit ratio comes from the Caffeine stats; loads are timed per tier in
+ * {@code product.cache.load}.
+ */
+@Component
+public class ProductResponseCache {
+
+    private final Cache<Long, ProductResponse> products;
+
+    private final RedisProductCache redisProductCache;
+
+    private final Timer redisLoads;
+
+    private final Timer databaseLoads;
+
+    public ProductResponseCache(ObjectProvider<RedisProductCache> redisProductCache,
+            @Value("${product.cache.maximum-size:10000}") long maximumSize,
+            @Value("${product.cache.ttl:30s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.redisProductCache = redisProductCache.getIfAvailable();
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.redisLoads = loadTimer(meterRegistry, "redis");
+        this.databaseLoads = loadTimer(meterRegistry, "database");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "productResponses");
+    }
+
+    /**
+     * Returns the cached product, loading it on a miss. Exceptions from the
+     * loader propagate and nothing is cached.
+     */
+    public ProductResponse get(long productId, Function<Long, ProductResponse> loader) {
+        return products.get(productId, id -> loadAll(Set.of(id), missing -> Map.of(id, loader.apply(id))).get(id));
+    }
+
+    /**
+     * Returns the cached products, loading all missing ones with one call.
+     * Products the loader does not return are absent from the result.
+     */
+    public Map<Long, ProductResponse> getAll(Collection<Long> productIds,
+            Function<Set<? extends Long>, Map<Long, ProductResponse>> loader) {
+        return products.getAll(productIds, missing -> loadAll(missing, loader));
+    }
+
+    public void evict(long productId) {
+        evictAll(List.of(productId));
+    }
+
+    public void evictAll(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        products.invalidateAll(productIds);
+        if (redisProductCache != null) {
+            redisProductCache.evictAll(productIds);
+        }
+    }
+
+    private Map<Long, ProductResponse> loadAll(Set<? extends Long> productIds,
+            Function<Set<? extends Long>, Map<Long, ProductResponse>> loader) {
+        Map<Long, ProductResponse> loaded = new HashMap<>();
+        if (redisProductCache != null) {
+            loaded.putAll(redisLoads.record(() -> redisProductCache.getAll(productIds)));
+            if (loaded.size() == productIds.size()) {
+                return loaded;
+            }
+        }
+
+        Set<Long> missing = productIds.stream()
+                .filter(id -> !loaded.containsKey(id))
+                .collect(Collectors.toSet());
+        Map<Long, ProductResponse> fromDatabase = databaseLoads.record(() -> loader.apply(missing));
+        if (redisProductCache != null && !fromDatabase.isEmpty()) {
+            redisProductCache.putAll(fromDatabase.values());
+        }
+        loaded.putAll(fromDatabase);
+        return loaded;
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("product.cache.load")
+                .description("Time to load product cache misses")
+                .tag("tier", tier)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.termiwum.productservice.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.termiwum.productservice.model.ProductResponse;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Shared second tier of {@link ProductResponseCache} in the Redis the gateway
+ * already runs, so product-service instances warm each other up. Redis errors
+ * are logged and treated as misses; the database stays the source of truth.
+ *
+ * A load can read a product just before a writer changes it and put the old
+ * value after the writer's eviction. Two checks keep that value out of Redis:
+ * eviction leaves a tombstone for tombstone-ttl during which no put succeeds,
+ * and a put never replaces an entry with a lower product version.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.redis.enabled", havingValue = "true")
+@Log4j2
+public class RedisProductCache {
+
+    private static final String KEY_PREFIX = "product-service:product:";
+
+    // KEYS[1] entry, KEYS[2] tombstone; ARGV[1] version, ARGV[2] json, ARGV[3] ttl millis
+    private static final RedisScript<Long> PUT_IF_NEWER = RedisScript.of("""
+            if redis.call('exists', KEYS[2]) == 1 then
+                return 0
+            end
+            local current = redis.call('get', KEYS[1])
+            if current and cjson.decode(current).version >= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration ttl;
+
+    private final Duration tombstoneTtl;
+
+    public RedisProductCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+            @Value("${product.cache.redis.ttl:10m}") Duration ttl,
+            @Value("${product.cache.redis.tombstone-ttl:5s}") Duration tombstoneTtl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.tombstoneTtl = tombstoneTtl;
+    }
+
+    /**
+     * Returns the entries Redis holds for the given products; absent ones are
+     * missing from the result.
+     */
+    public Map<Long, ProductResponse> getAll(Collection<? extends Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        Map<Long, ProductResponse> found = new HashMap<>();
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(ids.stream().map(RedisProductCache::key).toList());
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                if (values.get(i) != null) {
+                    found.put(ids.get(i), objectMapper.readValue(values.get(i), ProductResponse.class));
+                }
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Reading products {} from Redis failed, loading from the database: {}", ids, e.toString());
+        }
+        return found;
+    }
+
+    /**
+     * Puts freshly loaded products, skipping those evicted within tombstone-ttl
+     * and those Redis already holds at the same or a newer version.
+     */
+    public void putAll(Collection<ProductResponse> products) {
+        try {
+            for (ProductResponse product : products) {
+                redisTemplate.execute(PUT_IF_NEWER,
+                        List.of(key(product.getProductId()), tombstoneKey(product.getProductId())),
+                        String.valueOf(product.getVersion()), objectMapper.writeValueAsString(product),
+                        String.valueOf(ttl.toMillis()));
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Writing products to Redis failed: {}", e.toString());
+        }
+    }
+
+    public void evictAll(Collection<Long> productIds) {
+        try {
+            // tombstones first, so a load racing this eviction cannot put back what it read
+            for (Long productId : productIds) {
+                redisTemplate.opsForValue().set(tombstoneKey(productId), "", tombstoneTtl);
+            }
+            redisTemplate.delete(productIds.stream().map(RedisProductCache::key).toList());
+        } catch (RuntimeException e) {
+            // stale entries expire with the Redis TTL
+            log.warn("Evicting products {} from Redis failed: {}", productIds, e.toString());
+        }
+    }
+
+    // the hash tag keeps an entry and its tombstone in one cluster slot for the script
+    private static String key(long productId) {
+        return KEY_PREFIX + "{" + productId + "}";
+    }
+
+    private static String tombstoneKey(long productId) {
+        return key(productId) + ":evicted";
+    }
+}
@@ -1,22 +1,37 @@
 package com.termiwum.productservice.controller;
 
+import java.io.InputStream;
+import java.util.List;
+
 import org.springframework.web.bind.annotation.RestController;
 
+import com.termiwum.productservice.model.ProductImportResponse;
+import com.termiwum.productservice.model.ProductLookupResponse;
 import com.termiwum.productservice.model.ProductRequest;
 import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.model.ProductSearchRequest;
+import com.termiwum.productservice.model.ProductSearchResponse;
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.model.ReduceQuantityResponse;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
 import com.termiwum.productservice.service.ProductService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/products")
@@ -32,12 +47,51 @@ public class ProductController {
         return new ResponseEntity<>(id, HttpStatus.CREATED);
     }
 
+    @PreAuthorize("hasAnyRole('Admin')")
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        return new ResponseEntity<>(productService.importProducts(body, contentType), HttpStatus.OK);
+    }
+
+    /**
+     * Answered with a strong ETag; a request whose If-None-Match still matches
+     * gets a 304 from Spring before the body is serialized. The version comes
+     * from the product cache, so revalidating a cached product reads no row.
+     */
     @PreAuthorize("hasAnyRole('Admin', 'Customer')")
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getById(@PathVariable long id) {
 
         ProductResponse productResponse = productService.getById(id);
-        return new ResponseEntity<>(productResponse, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(eTag(productResponse))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(productResponse);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupResponse> getByIds(@RequestParam("ids") List<Long> ids) {
+        return new ResponseEntity<>(productService.getByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponse> search(ProductSearchRequest searchRequest) {
+        return new ResponseEntity<>(productService.search(searchRequest), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam("ids") List<Long> ids) {
+        return productService.stream(ids);
+    }
+
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookupResponse> lookup(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(productService.lookup(ids), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyRole('Admin', 'Customer')")
@@ -48,4 +102,29 @@ public class ProductController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('Admin', 'Customer')")
+    @PutMapping("/reduceQuantities")
+    public ResponseEntity<List<ReduceQuantityResponse>> reduceQuantities(
+            @RequestBody List<ReduceQuantityRequest> requests) {
+        return new ResponseEntity<>(productService.reduceQuantities(requests), HttpStatus.OK);
+    }
+
+    /**
+     * Compensation for orders that were not paid: only order-service, with its
+     * client_credentials token, or an admin may put stock back.
+     */
+    @PreAuthorize("hasRole('Admin') or hasAuthority('SCOPE_internal')")
+    @PutMapping("/restoreQuantities")
+    public ResponseEntity<Void> restoreQuantities(@RequestBody List<RestoreQuantityRequest> requests) {
+        productService.restoreQuantities(requests);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * Every write bumps the version, except hot-SKU reservations, which only
+     * move the ledger's stock; so the stock is part of the tag too.
+     */
+    private static String eTag(ProductResponse productResponse) {
+        return "\"" + productResponse.getVersion() + "-" + productResponse.getQuantity() + "\"";
+    }
 }
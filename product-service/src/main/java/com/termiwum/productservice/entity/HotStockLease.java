@@ -0,0 +1,42 @@
+package com.termiwum.productservice.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hot SKU stock one product-service instance has leased off a PRODUCT row and
+ * not yet moved into its in-memory counters. The owner refreshes the heartbeat
+ * while it runs; a row whose heartbeat goes stale belonged to an instance that
+ * died, and its quantity is put back on the product.
+ */
+@Entity
+@Table(name = "HOT_STOCK_LEASE", uniqueConstraints = @UniqueConstraint(name = "UK_HOT_STOCK_LEASE", columnNames = {
+        "OWNER", "PRODUCT_ID" }))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HotStockLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "OWNER", length = 36)
+    private String owner;
+
+    @Column(name = "PRODUCT_ID")
+    private long productId;
+
+    @Column(name = "QUANTITY")
+    private long quantity;
+
+    @Column(name = "HEARTBEAT_AT")
+    private Instant heartbeatAt;
+}
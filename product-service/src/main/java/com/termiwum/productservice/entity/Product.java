@@ -8,14 +8,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = @Index(name = "IDX_PRODUCT_UPDATED_AT", columnList = "UPDATED_AT, PRODUCT_ID"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Product {
 
+    // pooled ids: one product_seq round trip per 50 inserts, so batched inserts stay batched
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private long productId;
 
     @Column(name = "PRODUCT_NAME")
@@ -26,4 +29,19 @@ public class Product {
 
     @Column(name = "QUANTITY")
     private long quantity;
+
+    // also bumped by the bulk stock updates, which bypass Hibernate; the ETag of GET /products/{id}
+    @Version
+    @Column(name = "VERSION")
+    private long version;
+
+    // epoch millis of the last write, also set by the bulk stock updates; the search index reconciles by it
+    @Column(name = "UPDATED_AT")
+    private long updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
 }
@@ -0,0 +1,41 @@
+package com.termiwum.productservice.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock put back for one product of an order. The unique key lets an order's
+ * stock for a product be restored only once, however often the compensation is
+ * sent.
+ */
+@Entity
+@Table(name = "STOCK_RESTORATION", uniqueConstraints = @UniqueConstraint(name = "UK_STOCK_RESTORATION", columnNames = {
+        "ORDER_ID", "PRODUCT_ID" }))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockRestoration {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "ORDER_ID")
+    private long orderId;
+
+    @Column(name = "PRODUCT_ID")
+    private long productId;
+
+    @Column(name = "QUANTITY")
+    private long quantity;
+
+    @Column(name = "RESTORED_AT")
+    private Instant restoredAt;
+}
@@ -8,9 +8,15 @@ import lombok.EqualsAndHashCode;
 public class CustomException extends RuntimeException {
 
     private String errorCode;
+    private int status;
 
     public CustomException(String message, String errorCode) {
+        this(message, errorCode, 404);
+    }
+
+    public CustomException(String message, String errorCode, int status) {
         super(message);
         this.errorCode = errorCode;
+        this.status = status;
     }
 }
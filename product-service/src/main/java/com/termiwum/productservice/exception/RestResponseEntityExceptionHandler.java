@@ -16,6 +16,6 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         return new ResponseEntity<>(ErrorResponse.builder()
                 .message(ex.getMessage())
                 .errorCode(ex.getErrorCode())
-                .build(), HttpStatus.NOT_FOUND);
+                .build(), HttpStatus.valueOf(ex.getStatus()));
     }
 }
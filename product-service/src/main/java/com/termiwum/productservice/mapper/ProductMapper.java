@@ -0,0 +1,24 @@
+package com.termiwum.productservice.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.model.ProductRequest;
+import com.termiwum.productservice.model.ProductResponse;
+
+/**
+ * Product mappings, generated at compile time by MapStruct as plain getter and
+ * builder calls.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface ProductMapper {
+
+    ProductResponse toProductResponse(Product product);
+
+    @Mapping(target = "productId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "productName", source = "name")
+    Product toProduct(ProductRequest productRequest);
+}
@@ -0,0 +1,18 @@
+package com.termiwum.productservice.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductImportResponse {
+    private long accepted;
+    private long rejected;
+    private List<String> errors;
+}
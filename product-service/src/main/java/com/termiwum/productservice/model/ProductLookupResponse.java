@@ -0,0 +1,17 @@
+package com.termiwum.productservice.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductLookupResponse {
+    private List<ProductResponse> products;
+    private List<Long> missingIds;
+}
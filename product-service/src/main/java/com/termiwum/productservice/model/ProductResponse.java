@@ -8,10 +8,11 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductResponse {
     private String productName;
     private long productId;
     private long price;
     private long quantity;
+    private long version;
 }
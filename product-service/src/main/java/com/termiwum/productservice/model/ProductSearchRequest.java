@@ -0,0 +1,25 @@
+package com.termiwum.productservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query of {@code GET /products/search}; every criterion is optional and
+ * ranges are inclusive. {@code q} matches products whose name contains all
+ * of its words.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductSearchRequest {
+    private String namePrefix;
+    private String q;
+    private Long minPrice;
+    private Long maxPrice;
+    private Long minQuantity;
+    private Long maxQuantity;
+    private Integer limit;
+}
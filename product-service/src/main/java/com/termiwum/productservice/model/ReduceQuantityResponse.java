@@ -0,0 +1,16 @@
+package com.termiwum.productservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReduceQuantityResponse {
+    private long productId;
+    private boolean reduced;
+    private String errorCode;
+}
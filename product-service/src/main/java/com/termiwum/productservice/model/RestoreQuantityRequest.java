@@ -0,0 +1,19 @@
+package com.termiwum.productservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock to put back for one product of an order that was not completed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestoreQuantityRequest {
+    private long orderId;
+    private long productId;
+    private long quantity;
+}
@@ -1,9 +1,59 @@
 package com.termiwum.productservice.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
 import com.termiwum.productservice.entity.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * Takes {@code quantity} units off the stock in one statement, only if
+     * enough are left. Returns 0 when the product is missing or short. Bulk
+     * updates skip Hibernate's versioning and entity callbacks, so the version
+     * and the update time are set here.
+     */
+    default int reduceQuantity(long productId, long quantity) {
+        return reduceQuantity(productId, quantity, System.currentTimeMillis());
+    }
+
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity - :quantity, p.version = p.version + 1, "
+            + "p.updatedAt = :updatedAt where p.productId = :productId and p.quantity >= :quantity")
+    int reduceQuantity(@Param("productId") long productId, @Param("quantity") long quantity,
+            @Param("updatedAt") long updatedAt);
+
+    /**
+     * Current stock straight from the table; a scalar query, so it never
+     * answers from an entity already loaded in the persistence context.
+     */
+    @Query("select p.quantity from Product p where p.productId = :productId")
+    Long findQuantity(@Param("productId") long productId);
+
+    /**
+     * Products with an id above {@code productId}, in id order. Seeks on the
+     * primary key, so reading the whole table page by page costs the same per
+     * page instead of growing with the offset.
+     */
+    List<Product> findByProductIdGreaterThanOrderByProductId(long productId, Limit limit);
+
+    /**
+     * Products written at {@code updatedAt} with an id above {@code productId},
+     * or written later, in (update time, id) order. Seeks on
+     * IDX_PRODUCT_UPDATED_AT, so reading what changed since a point costs the
+     * size of the change, not of the table.
+     */
+    @Query("select p from Product p where p.updatedAt > :updatedAt "
+            + "or (p.updatedAt = :updatedAt and p.productId > :productId) order by p.updatedAt, p.productId")
+    List<Product> findUpdatedAfter(@Param("updatedAt") long updatedAt, @Param("productId") long productId,
+            Limit limit);
 }
@@ -0,0 +1,65 @@
+package com.termiwum.productservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Runs the conditional decrement of {@link ProductRepository#reduceQuantity}
+     * for every request as one JDBC batch. Returns the updated row count per
+     * request, in request order, 1 or 0; when the driver reports
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} the decrements are redone one
+     * by one to get them.
+     */
+    int[] reduceQuantities(List<ReduceQuantityRequest> requests);
+
+    /**
+     * Puts {@code quantity} units back on each product's stock in one JDBC
+     * batch, the reverse of {@link #reduceQuantities}.
+     */
+    int[] restoreQuantities(List<ReduceQuantityRequest> requests);
+
+    /**
+     * Records a restoration for each order and product that has none yet and
+     * returns those requests; requests already restored are left out. Runs in
+     * the caller's transaction, if any.
+     */
+    List<RestoreQuantityRequest> recordRestorations(List<RestoreQuantityRequest> requests);
+
+    /**
+     * Takes {@code quantity} units off the product's stock, only if enough are
+     * left, and adds them to {@code owner}'s hot SKU lease row in the same
+     * transaction. False when the product is missing or short.
+     */
+    boolean leaseQuantity(String owner, long productId, long quantity);
+
+    /**
+     * Takes {@code quantity} units out of {@code owner}'s lease row, only if
+     * it holds that many. False when it does not, including when the row was
+     * returned by {@link #returnStaleLeases}.
+     */
+    boolean drawLease(String owner, long productId, long quantity);
+
+    /**
+     * Refreshes the heartbeat of every lease row {@code owner} holds.
+     */
+    int touchLeases(String owner, Instant now);
+
+    /**
+     * Deletes {@code owner}'s lease rows and puts their quantities, plus
+     * {@code unrecorded} units the owner held outside them, back on the
+     * products in one transaction. Returns what was put back per product.
+     */
+    List<ReduceQuantityRequest> returnLeases(String owner, List<ReduceQuantityRequest> unrecorded);
+
+    /**
+     * Returns the lease rows whose heartbeat is older than
+     * {@code staleBefore} to their products, as {@link #returnLeases} does for
+     * a live owner. Returns what was put back per product.
+     */
+    List<ReduceQuantityRequest> returnStaleLeases(Instant staleBefore);
+}
@@ -0,0 +1,207 @@
+package com.termiwum.productservice.repository;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String REDUCE_QUANTITY = "update product set quantity = quantity - ?, version = version + 1, "
+            + "updated_at = ? where product_id = ? and quantity >= ?";
+
+    private static final String RESTORE_QUANTITY = "update product set quantity = quantity + ?, version = version + 1, "
+            + "updated_at = ? where product_id = ?";
+
+    private static final String RECORD_RESTORATION = "insert into stock_restoration "
+            + "(order_id, product_id, quantity, restored_at) select ?, ?, ?, ? from (select 1) one "
+            + "where not exists (select 1 from stock_restoration where order_id = ? and product_id = ?)";
+
+    private static final String ADD_TO_LEASE = "update hot_stock_lease set quantity = quantity + ?, heartbeat_at = ? "
+            + "where owner = ? and product_id = ?";
+
+    private static final String INSERT_LEASE = "insert into hot_stock_lease (owner, product_id, quantity, heartbeat_at) "
+            + "values (?, ?, ?, ?)";
+
+    private static final String DRAW_LEASE = "update hot_stock_lease set quantity = quantity - ? "
+            + "where owner = ? and product_id = ? and quantity >= ?";
+
+    private static final String TOUCH_LEASES = "update hot_stock_lease set heartbeat_at = ? where owner = ?";
+
+    private static final String FIND_OWNED_LEASES = "select id, product_id, quantity from hot_stock_lease "
+            + "where owner = ? for update";
+
+    private static final String FIND_STALE_LEASES = "select id from hot_stock_lease where heartbeat_at < ?";
+
+    private static final String LOCK_STALE_LEASE = "select id, product_id, quantity from hot_stock_lease "
+            + "where id = ? and heartbeat_at < ? for update";
+
+    private static final String DELETE_LEASE = "delete from hot_stock_lease where id = ?";
+
+    private static final RowMapper<Lease> LEASE = (resultSet, row) -> new Lease(resultSet.getLong("id"),
+            resultSet.getLong("product_id"), resultSet.getLong("quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs behind a savepoint: a driver that rewrites the batch (MySQL with
+     * rewriteBatchedStatements) may answer SUCCESS_NO_INFO, which does not
+     * tell a reduced product from a short one. The batch is then undone and
+     * run again one statement at a time, which always reports exact counts.
+     */
+    @Override
+    @Transactional
+    public int[] reduceQuantities(List<ReduceQuantityRequest> requests) {
+        if (requests.isEmpty()) {
+            return new int[0];
+        }
+        long now = System.currentTimeMillis();
+        // on the transaction's own connection: JPA transactions do not expose savepoints
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        int[] counts = jdbcTemplate.batchUpdate(REDUCE_QUANTITY, requests, requests.size(),
+                (statement, request) -> {
+                    statement.setLong(1, request.getQuantity());
+                    statement.setLong(2, now);
+                    statement.setLong(3, request.getProductId());
+                    statement.setLong(4, request.getQuantity());
+                })[0];
+        if (Arrays.stream(counts).allMatch(count -> count >= 0)) {
+            return counts;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.rollback(savepoint);
+            return null;
+        });
+        int[] exact = new int[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            ReduceQuantityRequest request = requests.get(i);
+            exact[i] = jdbcTemplate.update(REDUCE_QUANTITY, request.getQuantity(), now, request.getProductId(),
+                    request.getQuantity());
+        }
+        return exact;
+    }
+
+    @Override
+    @Transactional
+    public int[] restoreQuantities(List<ReduceQuantityRequest> requests) {
+        if (requests.isEmpty()) {
+            return new int[0];
+        }
+        long now = System.currentTimeMillis();
+        return jdbcTemplate.batchUpdate(RESTORE_QUANTITY, requests, requests.size(),
+                (statement, request) -> {
+                    statement.setLong(1, request.getQuantity());
+                    statement.setLong(2, now);
+                    statement.setLong(3, request.getProductId());
+                })[0];
+    }
+
+    /**
+     * One statement per request rather than a batch: rewritten batch inserts
+     * report no per-row counts, and this path only runs for unpaid orders. Two
+     * concurrent restorations of the same line still meet on the unique key.
+     */
+    @Override
+    @Transactional
+    public List<RestoreQuantityRequest> recordRestorations(List<RestoreQuantityRequest> requests) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<RestoreQuantityRequest> recorded = new ArrayList<>();
+        for (RestoreQuantityRequest request : requests) {
+            int count = jdbcTemplate.update(RECORD_RESTORATION, request.getOrderId(), request.getProductId(),
+                    request.getQuantity(), now, request.getOrderId(), request.getProductId());
+            if (count > 0) {
+                recorded.add(request);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * The owner leases each product under its own monitor, so the row is
+     * never inserted twice; one swept away meanwhile is inserted again.
+     */
+    @Override
+    @Transactional
+    public boolean leaseQuantity(String owner, long productId, long quantity) {
+        Instant instant = Instant.now();
+        if (jdbcTemplate.update(REDUCE_QUANTITY, quantity, instant.toEpochMilli(), productId, quantity) == 0) {
+            return false;
+        }
+        Timestamp now = Timestamp.from(instant);
+        if (jdbcTemplate.update(ADD_TO_LEASE, quantity, now, owner, productId) == 0) {
+            jdbcTemplate.update(INSERT_LEASE, owner, productId, quantity, now);
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean drawLease(String owner, long productId, long quantity) {
+        return jdbcTemplate.update(DRAW_LEASE, quantity, owner, productId, quantity) > 0;
+    }
+
+    @Override
+    @Transactional
+    public int touchLeases(String owner, Instant now) {
+        return jdbcTemplate.update(TOUCH_LEASES, Timestamp.from(now), owner);
+    }
+
+    @Override
+    @Transactional
+    public List<ReduceQuantityRequest> returnLeases(String owner, List<ReduceQuantityRequest> unrecorded) {
+        return putBack(jdbcTemplate.query(FIND_OWNED_LEASES, LEASE, owner), unrecorded);
+    }
+
+    /**
+     * Candidates are read without locks, then each is locked by its id and
+     * checked again, so instances sweeping at the same time return a row
+     * once and a heartbeat that arrived meanwhile keeps it.
+     */
+    @Override
+    @Transactional
+    public List<ReduceQuantityRequest> returnStaleLeases(Instant staleBefore) {
+        Timestamp threshold = Timestamp.from(staleBefore);
+        List<Lease> stale = new ArrayList<>();
+        for (long id : jdbcTemplate.queryForList(FIND_STALE_LEASES, Long.class, threshold)) {
+            stale.addAll(jdbcTemplate.query(LOCK_STALE_LEASE, LEASE, id, threshold));
+        }
+        return putBack(stale, List.of());
+    }
+
+    private List<ReduceQuantityRequest> putBack(List<Lease> leases, List<ReduceQuantityRequest> unrecorded) {
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        unrecorded.forEach(request -> quantities.merge(request.getProductId(), request.getQuantity(), Long::sum));
+        for (Lease lease : leases) {
+            jdbcTemplate.update(DELETE_LEASE, lease.id());
+            quantities.merge(lease.productId(), lease.quantity(), Long::sum);
+        }
+        List<ReduceQuantityRequest> returned = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity > 0) {
+                returned.add(new ReduceQuantityRequest(productId, quantity));
+            }
+        });
+        restoreQuantities(returned);
+        return returned;
+    }
+
+    private record Lease(long id, long productId, long quantity) {
+    }
+}
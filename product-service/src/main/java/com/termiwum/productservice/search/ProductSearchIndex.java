@@ -0,0 +1,414 @@
+package com.termiwum.productservice.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.mapper.ProductMapper;
+import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.model.ProductSearchRequest;
+import com.termiwum.productservice.model.ProductSearchResponse;
+import com.termiwum.productservice.repository.ProductRepository;
+import com.termiwum.productservice.service.HotStockLedger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * In-memory index behind {@code GET /products/search}, so searches never touch
+ * the database. Products are kept by id, by lower-cased name for prefix
+ * search, by name token, by price and by stock. It is loaded from PRODUCT
+ * before the web server starts and then updated by the writes that go through
+ * this instance. Every reconcile-interval the products written since the last
+ * pass are read, by their update time with a keyset cursor, and those whose
+ * version moved, such as stock sold by other instances, are re-indexed; until
+ * then they may show stale stock. Each pass starts reconcile-overlap before
+ * the latest update time it has seen, so a write that committed late or came
+ * from an instance whose clock lags by less than that is still picked up. Only
+ * startup reads the whole table.
+ *
+ * Every search walks one sorted index and stops at the limit: the name index
+ * for a prefix, the rarest token's postings for words, the price index for a
+ * price range, the stock index for a stock range, otherwise the price index.
+ * A walk gives up after max-scanned candidates and reports the result as
+ * truncated, so a selective filter the walked index does not cover cannot
+ * scan the whole catalog. Reads are lock-free; writers serialize on the
+ * index, and every candidate is re-checked against its current entry.
+ */
+@Component
+@Log4j2
+public class ProductSearchIndex {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private static final String TOKEN_SEPARATORS = "[^\\p{L}\\p{N}]+";
+
+    private final ProductRepository productRepository;
+
+    private final ProductMapper productMapper;
+
+    private final HotStockLedger hotStockLedger;
+
+    private final int maxScanned;
+
+    private final Duration reconcileInterval;
+
+    private final long reconcileOverlapMillis;
+
+    // latest update time read from PRODUCT; only the loading and then the reconcile thread touch it
+    private long reconciledUpTo;
+
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+
+    private final NavigableSet<Key<String>> byName = new ConcurrentSkipListSet<>();
+
+    private final NavigableSet<Key<Long>> byPrice = new ConcurrentSkipListSet<>();
+
+    private final NavigableSet<Key<Long>> byQuantity = new ConcurrentSkipListSet<>();
+
+    private final Map<String, Postings> byToken = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    private Thread reconcileThread;
+
+    public ProductSearchIndex(ProductRepository productRepository, ProductMapper productMapper,
+            HotStockLedger hotStockLedger, MeterRegistry meterRegistry,
+            @Value("${product.search.max-scanned:10000}") int maxScanned,
+            @Value("${product.search.reconcile-interval:60s}") Duration reconcileInterval,
+            @Value("${product.search.reconcile-overlap:5s}") Duration reconcileOverlap) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.hotStockLedger = hotStockLedger;
+        this.maxScanned = maxScanned;
+        this.reconcileInterval = reconcileInterval;
+        this.reconcileOverlapMillis = reconcileOverlap.toMillis();
+
+        Gauge.builder("product.search.index.size", products, Map::size)
+                .description("Products held by the search index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        load();
+        if (reconcileInterval.isPositive()) {
+            running = true;
+            reconcileThread = Thread.ofPlatform().name("product-search-reconcile").daemon().start(this::run);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (reconcileThread != null) {
+            LockSupport.unpark(reconcileThread);
+            reconcileThread.join();
+        }
+    }
+
+    /**
+     * Reads the whole of PRODUCT in id order, so rows written before they had
+     * an update time are indexed too.
+     */
+    void load() {
+        long start = System.nanoTime();
+        long lastId = Long.MIN_VALUE;
+        List<Product> page;
+        do {
+            page = productRepository.findByProductIdGreaterThanOrderByProductId(lastId, Limit.of(LOAD_PAGE_SIZE));
+            putChanged(page);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getProductId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Search index loaded {} products in {} ms", products.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reads the products written since the last pass, less the overlap, in
+     * (update time, id) order and re-indexes those that are new or whose
+     * version differs from the indexed one; returns how many were.
+     */
+    int reconcile() {
+        int changed = 0;
+        long updatedAt = reconciledUpTo - reconcileOverlapMillis;
+        long lastId = Long.MIN_VALUE;
+        List<Product> page;
+        do {
+            page = productRepository.findUpdatedAfter(updatedAt, lastId, Limit.of(LOAD_PAGE_SIZE));
+            changed += putChanged(page);
+            if (!page.isEmpty()) {
+                Product last = page.get(page.size() - 1);
+                updatedAt = last.getUpdatedAt();
+                lastId = last.getProductId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return changed;
+    }
+
+    private int putChanged(List<Product> page) {
+        List<ProductResponse> stale = new ArrayList<>();
+        for (Product product : page) {
+            reconciledUpTo = Math.max(reconciledUpTo, product.getUpdatedAt());
+            Entry current = products.get(product.getProductId());
+            if (current == null || current.product().getVersion() != product.getVersion()) {
+                stale.add(withLedgerStock(productMapper.toProductResponse(product)));
+            }
+        }
+        putAll(stale);
+        return stale.size();
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(reconcileInterval.toNanos());
+            if (!running) {
+                return;
+            }
+            try {
+                int changed = reconcile();
+                log.debug("Search index reconciled {} changed products", changed);
+            } catch (RuntimeException e) {
+                log.warn("Reconciling the search index failed, retrying in {}: {}", reconcileInterval, e.toString());
+            }
+        }
+    }
+
+    /**
+     * The table only holds the unleased stock of a hot product; the ledger knows
+     * the rest.
+     */
+    private ProductResponse withLedgerStock(ProductResponse product) {
+        if (!hotStockLedger.isHot(product.getProductId())) {
+            return product;
+        }
+        return product.toBuilder()
+                .quantity(hotStockLedger.available(product.getProductId()))
+                .build();
+    }
+
+    public synchronized void putAll(Collection<ProductResponse> productResponses) {
+        productResponses.forEach(this::put);
+    }
+
+    public synchronized void put(ProductResponse product) {
+        Entry entry = new Entry(product, normalize(product.getProductName()), Set.copyOf(tokens(
+                product.getProductName())));
+        Entry previous = products.put(product.getProductId(), entry);
+        if (previous != null) {
+            unindex(previous);
+        }
+        byName.add(entry.nameKey());
+        byPrice.add(new Key<>(product.getPrice(), product.getProductId()));
+        byQuantity.add(entry.quantityKey());
+        for (String token : entry.tokens()) {
+            byToken.computeIfAbsent(token, t -> new Postings()).add(entry.nameKey());
+        }
+    }
+
+    /**
+     * Applies a stock change and returns the product as it now stands, or
+     * null when it is not indexed. Only the stock index moves; the version is
+     * left as loaded, so the next reconcile re-reads the product.
+     */
+    public synchronized ProductResponse adjustQuantity(long productId, long delta) {
+        Entry current = products.get(productId);
+        return current == null ? null : updateQuantity(current, current.product().getQuantity() + delta);
+    }
+
+    /**
+     * Sets an indexed product's stock outright, for hot products whose stock
+     * lives in the ledger rather than the table; null when it is not indexed.
+     */
+    public synchronized ProductResponse setQuantity(long productId, long quantity) {
+        Entry current = products.get(productId);
+        return current == null ? null : updateQuantity(current, quantity);
+    }
+
+    private ProductResponse updateQuantity(Entry current, long quantity) {
+        Entry updated = current.withQuantity(quantity);
+        // removed before added, so a search never meets the product under both keys
+        byQuantity.remove(current.quantityKey());
+        products.put(updated.product().getProductId(), updated);
+        byQuantity.add(updated.quantityKey());
+        return updated.product();
+    }
+
+    public ProductResponse get(long productId) {
+        Entry entry = products.get(productId);
+        return entry == null ? null : entry.product();
+    }
+
+    /**
+     * Returns up to {@code limit} matching products and whether more matched.
+     * Prefix and word searches come back in name order, stock range searches
+     * without a price range in stock order, others in price order.
+     */
+    public ProductSearchResponse search(ProductSearchRequest request, int limit) {
+        List<String> queryTokens = request.getQ() == null ? List.of() : tokens(request.getQ());
+        String prefix = request.getNamePrefix() == null ? null : normalize(request.getNamePrefix());
+        long minPrice = request.getMinPrice() == null ? Long.MIN_VALUE : request.getMinPrice();
+        long maxPrice = request.getMaxPrice() == null ? Long.MAX_VALUE : request.getMaxPrice();
+        long minQuantity = request.getMinQuantity() == null ? Long.MIN_VALUE : request.getMinQuantity();
+        long maxQuantity = request.getMaxQuantity() == null ? Long.MAX_VALUE : request.getMaxQuantity();
+        if (minPrice > maxPrice || minQuantity > maxQuantity) {
+            return result(List.of(), false);
+        }
+
+        Predicate<Entry> filter = entry -> entry.product().getPrice() >= minPrice
+                && entry.product().getPrice() <= maxPrice
+                && entry.product().getQuantity() >= minQuantity
+                && entry.product().getQuantity() <= maxQuantity
+                && (prefix == null || entry.name().startsWith(prefix))
+                && entry.tokens().containsAll(queryTokens);
+
+        if (prefix != null) {
+            return collect(byName.subSet(new Key<>(prefix, Long.MIN_VALUE), new Key<>(prefix + Character.MAX_VALUE,
+                    Long.MIN_VALUE)), filter, limit);
+        }
+        if (!queryTokens.isEmpty()) {
+            Postings rarest = null;
+            for (String token : queryTokens) {
+                Postings postings = byToken.get(token);
+                if (postings == null) {
+                    return result(List.of(), false);
+                }
+                if (rarest == null || postings.size < rarest.size) {
+                    rarest = postings;
+                }
+            }
+            return collect(rarest.keys, filter, limit);
+        }
+        if (request.getMinPrice() == null && request.getMaxPrice() == null
+                && (request.getMinQuantity() != null || request.getMaxQuantity() != null)) {
+            return collect(byQuantity.subSet(new Key<>(minQuantity, Long.MIN_VALUE), true,
+                    new Key<>(maxQuantity, Long.MAX_VALUE), true), filter, limit);
+        }
+        return collect(byPrice.subSet(new Key<>(minPrice, Long.MIN_VALUE), true, new Key<>(maxPrice, Long.MAX_VALUE),
+                true), filter, limit);
+    }
+
+    private ProductSearchResponse collect(Iterable<? extends Key<?>> keys, Predicate<Entry> filter, int limit) {
+        List<ProductResponse> matches = new ArrayList<>();
+        int scanned = 0;
+        for (Key<?> key : keys) {
+            if (++scanned > maxScanned) {
+                // more may match further on; the caller narrows the search
+                return result(matches, true);
+            }
+            Entry entry = products.get(key.productId());
+            if (entry != null && filter.test(entry)) {
+                if (matches.size() == limit) {
+                    return result(matches, true);
+                }
+                matches.add(entry.product());
+            }
+        }
+        return result(matches, false);
+    }
+
+    private static ProductSearchResponse result(List<ProductResponse> products, boolean truncated) {
+        return ProductSearchResponse.builder()
+                .products(products)
+                .truncated(truncated)
+                .build();
+    }
+
+    private void unindex(Entry entry) {
+        byName.remove(entry.nameKey());
+        byPrice.remove(new Key<>(entry.product().getPrice(), entry.product().getProductId()));
+        byQuantity.remove(entry.quantityKey());
+        for (String token : entry.tokens()) {
+            Postings postings = byToken.get(token);
+            if (postings != null) {
+                postings.remove(entry.nameKey());
+            }
+        }
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(text).split(TOKEN_SEPARATORS)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * An indexed product with its normalized name and tokens worked out once.
+     */
+    private record Entry(ProductResponse product, String name, Set<String> tokens) {
+
+        Key<String> nameKey() {
+            return new Key<>(name, product.getProductId());
+        }
+
+        Key<Long> quantityKey() {
+            return new Key<>(product.getQuantity(), product.getProductId());
+        }
+
+        Entry withQuantity(long quantity) {
+            return new Entry(product.toBuilder().quantity(quantity).build(), name, tokens);
+        }
+    }
+
+    /**
+     * Products whose name has a token, in name order. The size is kept apart
+     * because a skip list counts by walking; it is only written under the
+     * index lock.
+     */
+    private static final class Postings {
+
+        private final NavigableSet<Key<String>> keys = new ConcurrentSkipListSet<>();
+
+        private volatile int size;
+
+        void add(Key<String> key) {
+            if (keys.add(key)) {
+                size++;
+            }
+        }
+
+        void remove(Key<String> key) {
+            if (keys.remove(key)) {
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Sort key of a secondary index; the product id breaks ties.
+     */
+    private record Key<T extends Comparable<T>>(T value, long productId) implements Comparable<Key<T>> {
+
+        @Override
+        public int compareTo(Key<T> other) {
+            int byValue = value.compareTo(other.value);
+            return byValue != 0 ? byValue : Long.compare(productId, other.productId);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.termiwum.productservice.security;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.context.annotation.Bean;
@@ -38,7 +39,9 @@ public class WebSecurityConfig {
             JwtGrantedAuthoritiesConverter defaultConverter = new JwtGrantedAuthoritiesConverter();
             Collection<GrantedAuthority> authorities = defaultConverter.convert(jwt);
 
-            Collection<GrantedAuthority> customAuthorities = jwt.getClaimAsStringList("https://termiwums.com/roles")
+            // client_credentials tokens of other services carry scopes but no roles
+            List<String> roles = jwt.getClaimAsStringList("https://termiwums.com/roles");
+            Collection<GrantedAuthority> customAuthorities = (roles == null ? List.<String>of() : roles)
                     .stream()
                     .map(role -> {
                         return new SimpleGrantedAuthority("ROLE_" + role);
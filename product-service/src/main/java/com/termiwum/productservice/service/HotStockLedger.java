@@ -0,0 +1,421 @@
+package com.termiwum.productservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Sells the stock of hot products from memory so flash-sale orders do not
+ * queue on one PRODUCT row lock. Each instance leases stock from the PRODUCT
+ * row in chunks of {@code lease-size} units with the same conditional
+ * decrement single orders use, so instances can never lease more than the
+ * table holds. The leased units are recorded on the instance's own
+ * HOT_STOCK_LEASE row in the same transaction, and moved from there into
+ * striped counters {@code draw-size} units at a time; the counters are
+ * reserved with compare-and-set. The PRODUCT row is locked once per lease and
+ * the instance's lease row once per draw, instead of once per order.
+ *
+ * A clean shutdown puts the lease row and the unsold drawn units back on the
+ * PRODUCT row. The instance refreshes its lease rows' heartbeat every
+ * {@code refill-interval}; every instance, at startup and then on each
+ * interval, returns the rows whose heartbeat is older than {@code lease-ttl}.
+ * So a crashed instance's lease comes back once the TTL runs out, except for
+ * the units it had drawn and not sold: the product undersells by at most about
+ * {@code draw-size} units per lost instance, but never oversells. An instance
+ * that stalls past the TTL loses its lease row the same way and keeps selling
+ * only what it had drawn. Near the end of the stock an instance can turn
+ * orders away while another still holds leased units, so keep
+ * {@code lease-size} small next to the stock.
+ */
+@Component
+@Log4j2
+public class HotStockLedger {
+
+    // stripe counters sit a cache line apart so they do not false-share
+    private static final int PADDING = 8;
+
+    // rereads of the row after a lease is refused, before giving up
+    private static final int LEASE_ATTEMPTS = 3;
+
+    // names this instance's lease rows; a restarted instance is a new owner
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ProductRepository productRepository;
+
+    private final boolean enabled;
+
+    private final List<Long> productIds;
+
+    private final int stripes;
+
+    private final long leaseSize;
+
+    private final long drawSize;
+
+    private final Duration refillInterval;
+
+    private final Duration leaseTtl;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    private Thread refillThread;
+
+    public HotStockLedger(ProductRepository productRepository,
+            @Value("${product.hot-sku.enabled:false}") boolean enabled,
+            @Value("${product.hot-sku.product-ids:}") List<Long> productIds,
+            @Value("${product.hot-sku.stripes:16}") int stripes,
+            @Value("${product.hot-sku.lease-size:500}") long leaseSize,
+            @Value("${product.hot-sku.draw-size:50}") long drawSize,
+            @Value("${product.hot-sku.refill-interval:200ms}") Duration refillInterval,
+            @Value("${product.hot-sku.lease-ttl:10s}") Duration leaseTtl) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.productIds = productIds;
+        this.stripes = stripes;
+        this.leaseSize = leaseSize;
+        this.drawSize = drawSize;
+        this.refillInterval = refillInterval;
+        this.leaseTtl = leaseTtl;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        returnStaleLeasesQuietly();
+        for (long productId : productIds) {
+            Long quantity = productRepository.findQuantity(productId);
+            if (quantity != null) {
+                stocks.put(productId, new Stock(stripes, quantity));
+            }
+        }
+
+        running = true;
+        refillThread = Thread.ofPlatform().name("product-hot-sku-refill").daemon().start(this::run);
+        log.info("Hot SKU ledger {} holds products {} ({} stripes, leases of {} drawn {} at a time, refill every {})",
+                owner, stocks.keySet(), stripes, leaseSize, drawSize, refillInterval);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (refillThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(refillThread);
+        refillThread.join();
+        returnLeases();
+    }
+
+    public boolean isHot(long productId) {
+        return stocks.containsKey(productId);
+    }
+
+    /**
+     * Reserves {@code quantity} units of a hot product, drawing more from the
+     * lease row and leasing more from the table when the units held here run
+     * short; false when the table cannot cover it either.
+     */
+    public boolean reserve(long productId, long quantity) {
+        Stock stock = stocks.get(productId);
+        if (stock.reserve(quantity)) {
+            return true;
+        }
+        synchronized (stock) {
+            while (!stock.closed) {
+                if (stock.reserve(quantity)) {
+                    return true;
+                }
+                long missing = quantity - stock.drawn();
+                if (missing <= 0) {
+                    // units came back between the two reads
+                    continue;
+                }
+                if (stock.banked < missing
+                        && !lease(productId, stock, Math.max(leaseSize, missing - stock.banked), true)) {
+                    return false;
+                }
+                draw(productId, stock, Math.min(stock.banked, Math.max(drawSize, missing)));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Puts back units reserved for an order that was not completed, among the
+     * drawn units. Once the lease has been returned they go straight back onto
+     * the table.
+     */
+    public void release(long productId, long quantity) {
+        Stock stock = stocks.get(productId);
+        synchronized (stock) {
+            if (!stock.closed) {
+                stock.add(quantity);
+                return;
+            }
+        }
+        productRepository.restoreQuantities(List.of(new ReduceQuantityRequest(productId, quantity)));
+    }
+
+    /**
+     * Stock not yet reserved: the lease held here plus what the table had
+     * left when last read. Leases held by other instances are not counted.
+     */
+    public long available(long productId) {
+        Stock stock = stocks.get(productId);
+        return stock.drawn() + stock.banked + stock.unleased;
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(refillInterval.toNanos());
+            touchLeasesQuietly();
+            returnStaleLeasesQuietly();
+            stocks.forEach(this::refillQuietly);
+        }
+    }
+
+    private void touchLeasesQuietly() {
+        try {
+            productRepository.touchLeases(owner, Instant.now());
+        } catch (RuntimeException e) {
+            log.error("Hot SKU lease heartbeat of {} failed, retrying next interval", owner, e);
+        }
+    }
+
+    /**
+     * Puts the lease rows of instances that stopped heartbeating back on their
+     * products; every instance does this, the row locks keep each return to
+     * one of them.
+     */
+    void returnStaleLeasesQuietly() {
+        try {
+            List<ReduceQuantityRequest> returned = productRepository
+                    .returnStaleLeases(Instant.now().minus(leaseTtl));
+            if (!returned.isEmpty()) {
+                log.warn("Returned hot SKU leases of stopped instances {}", returned);
+            }
+        } catch (RuntimeException e) {
+            log.error("Returning stale hot SKU leases failed, retrying next interval", e);
+        }
+    }
+
+    private void refillQuietly(long productId, Stock stock) {
+        try {
+            refill(productId, stock);
+        } catch (RuntimeException e) {
+            log.error("Hot SKU refill of product {} failed, retrying next interval", productId, e);
+        }
+    }
+
+    /**
+     * Leases a full chunk ahead of demand once the lease row drops below half
+     * of one, otherwise only rereads the table's stock for {@link #available};
+     * then draws a chunk once the drawn units drop below half of one, so
+     * orders rarely wait on either row.
+     */
+    void refill(long productId, Stock stock) {
+        synchronized (stock) {
+            if (stock.closed) {
+                return;
+            }
+            if (stock.banked >= leaseSize / 2 || !lease(productId, stock, leaseSize, false)) {
+                stock.unleased = quantityLeft(productId);
+            }
+            if (stock.drawn() < drawSize / 2 && stock.banked > 0) {
+                draw(productId, stock, Math.min(drawSize, stock.banked));
+            }
+        }
+    }
+
+    /**
+     * Takes {@code wanted} units off the PRODUCT row onto this instance's
+     * lease row. With {@code partial}, a row holding less gives what it has
+     * left. Callers hold the stock's monitor.
+     */
+    private boolean lease(long productId, Stock stock, long wanted, boolean partial) {
+        for (int attempt = 0; attempt < LEASE_ATTEMPTS; attempt++) {
+            if (productRepository.leaseQuantity(owner, productId, wanted)) {
+                stock.banked += wanted;
+                stock.unleased = quantityLeft(productId);
+                log.debug("Leased {} units of hot product {}", wanted, productId);
+                return true;
+            }
+            long left = quantityLeft(productId);
+            stock.unleased = left;
+            if (!partial || left <= 0) {
+                return false;
+            }
+            wanted = Math.min(wanted, left);
+        }
+        return false;
+    }
+
+    /**
+     * Moves {@code wanted} units from the lease row into the counters orders
+     * reserve from. When the row no longer holds them it was returned as
+     * stale, and this instance forgets it; what the row kept is returned with
+     * it later. Callers hold the stock's monitor.
+     */
+    private void draw(long productId, Stock stock, long wanted) {
+        if (productRepository.drawLease(owner, productId, wanted)) {
+            stock.banked -= wanted;
+            stock.add(wanted);
+        } else {
+            log.warn("Hot SKU lease of product {} held by {} was returned as stale", productId, owner);
+            stock.banked = 0;
+        }
+    }
+
+    private long quantityLeft(long productId) {
+        Long quantity = productRepository.findQuantity(productId);
+        return quantity == null ? 0 : quantity;
+    }
+
+    /**
+     * Stops selling and puts this instance's lease rows and unsold drawn units
+     * back on their PRODUCT rows in one transaction.
+     */
+    void returnLeases() {
+        List<ReduceQuantityRequest> unsold = new ArrayList<>();
+        stocks.forEach((productId, stock) -> {
+            long drawn;
+            synchronized (stock) {
+                stock.closed = true;
+                stock.banked = 0;
+                drawn = stock.drain();
+            }
+            if (drawn > 0) {
+                unsold.add(new ReduceQuantityRequest(productId, drawn));
+            }
+        });
+        try {
+            List<ReduceQuantityRequest> returned = productRepository.returnLeases(owner, unsold);
+            log.info("Returned unsold hot SKU leases {}", returned);
+        } catch (RuntimeException e) {
+            // the lease rows come back once their heartbeat is stale; the drawn units stay off the table
+            log.error("Could not return unsold hot SKU leases of {} (drawn {})", owner, unsold, e);
+        }
+    }
+
+    static final class Stock {
+
+        private final int count;
+
+        private final AtomicLongArray stripes;
+
+        // units on this instance's lease row, not yet drawn; changed under the stock's monitor
+        private volatile long banked;
+
+        // the table's stock when last read, for display only
+        private volatile long unleased;
+
+        // set under the stock's monitor once its lease is returned
+        private volatile boolean closed;
+
+        Stock(int count, long unleased) {
+            this.count = count;
+            this.stripes = new AtomicLongArray(count * PADDING);
+            this.unleased = unleased;
+        }
+
+        boolean reserve(long quantity) {
+            int start = ThreadLocalRandom.current().nextInt(count);
+
+            for (int i = 0; i < count; i++) {
+                if (takeAll((start + i) % count, quantity)) {
+                    return true;
+                }
+            }
+
+            // no single stripe covers it: gather from several, give back if still short
+            long[] taken = new long[count];
+            long remaining = quantity;
+            for (int i = 0; i < count && remaining > 0; i++) {
+                int stripe = (start + i) % count;
+                taken[stripe] = takeUpTo(stripe, remaining);
+                remaining -= taken[stripe];
+            }
+            if (remaining > 0) {
+                for (int stripe = 0; stripe < count; stripe++) {
+                    if (taken[stripe] > 0) {
+                        stripes.addAndGet(stripe * PADDING, taken[stripe]);
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+
+        void add(long quantity) {
+            for (int i = 0; i < count; i++) {
+                long share = quantity / count + (i < quantity % count ? 1 : 0);
+                if (share > 0) {
+                    stripes.addAndGet(i * PADDING, share);
+                }
+            }
+        }
+
+        long drawn() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += stripes.get(i * PADDING);
+            }
+            return total;
+        }
+
+        long drain() {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += stripes.getAndSet(i * PADDING, 0);
+            }
+            return total;
+        }
+
+        private boolean takeAll(int stripe, long quantity) {
+            int index = stripe * PADDING;
+            long current;
+            do {
+                current = stripes.get(index);
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!stripes.compareAndSet(index, current, current - quantity));
+            return true;
+        }
+
+        private long takeUpTo(int stripe, long quantity) {
+            int index = stripe * PADDING;
+            long current;
+            long taken;
+            do {
+                current = stripes.get(index);
+                taken = Math.min(current, quantity);
+                if (taken <= 0) {
+                    return 0;
+                }
+            } while (!stripes.compareAndSet(index, current, current - taken));
+            return taken;
+        }
+    }
+}
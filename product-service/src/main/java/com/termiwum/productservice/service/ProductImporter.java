@@ -0,0 +1,242 @@
+package com.termiwum.productservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.mapper.ProductMapper;
+import com.termiwum.productservice.model.ProductImportResponse;
+import com.termiwum.productservice.model.ProductRequest;
+import com.termiwum.productservice.search.ProductSearchIndex;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Streams NDJSON or CSV {@link ProductRequest} rows into PRODUCT. Rows are read
+ * one line at a time and persisted in batches, one transaction per batch, so
+ * memory stays flat however large the upload is. With Hibernate JDBC batching
+ * and pooled product_seq ids a batch costs a handful of round trips.
+ *
+ * A bad row is rejected on its own; a batch the database refuses is rejected
+ * as a whole. Batches committed before a failure stay committed.
+ */
+@Component
+@Log4j2
+public class ProductImporter {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ProductMapper productMapper;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final int batchSize;
+
+    public ProductImporter(PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            ProductMapper productMapper, ProductSearchIndex productSearchIndex,
+            @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.productMapper = productMapper;
+        this.productSearchIndex = productSearchIndex;
+        this.batchSize = batchSize;
+    }
+
+    public ProductImportResponse importProducts(InputStream input, MediaType contentType) {
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Function<String, ProductRequest> parser;
+            if (CSV.isCompatibleWith(contentType)) {
+                parser = csvParser(reader.readLine());
+                lineNumber++;
+            } else {
+                parser = this::parseJson;
+            }
+
+            List<Product> batch = new ArrayList<>(batchSize);
+            long batchStart = lineNumber + 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(toProduct(parser.apply(line)));
+                } catch (IllegalArgumentException e) {
+                    result.reject(1, "line " + lineNumber + ": " + e.getMessage());
+                }
+
+                if (batch.size() == batchSize) {
+                    persist(batch, batchStart, lineNumber, result);
+                    batch = new ArrayList<>(batchSize);
+                    batchStart = lineNumber + 1;
+                }
+            }
+            persist(batch, batchStart, lineNumber, result);
+        } catch (IOException | IllegalArgumentException e) {
+            result.reject(0, "import stopped: " + e.getMessage());
+        }
+
+        log.info("imported {} products, rejected {} in {} ms", result.accepted, result.rejected,
+                (System.nanoTime() - start) / 1_000_000);
+        return ProductImportResponse.builder()
+                .accepted(result.accepted)
+                .rejected(result.rejected)
+                .errors(result.errors)
+                .build();
+    }
+
+    private void persist(List<Product> batch, long firstLine, long lastLine, Result result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(entityManager::persist);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.accepted += batch.size();
+            productSearchIndex.putAll(batch.stream().map(productMapper::toProductResponse).toList());
+        } catch (RuntimeException e) {
+            log.warn("import batch at lines {}-{} failed", firstLine, lastLine, e);
+            result.reject(batch.size(), "lines " + firstLine + "-" + lastLine + ": " + e.getMessage());
+        }
+    }
+
+    private ProductRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ProductRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("not a product: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Maps rows by the header's name, price and quantity columns, in any order.
+     */
+    private static Function<String, ProductRequest> csvParser(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("missing CSV header");
+        }
+        List<String> columns = splitCsv(header).stream().map(String::trim).map(String::toLowerCase).toList();
+        int name = columns.indexOf("name");
+        int price = columns.indexOf("price");
+        int quantity = columns.indexOf("quantity");
+        if (name < 0 || price < 0 || quantity < 0) {
+            throw new IllegalArgumentException("CSV header needs name, price and quantity columns");
+        }
+
+        return line -> {
+            List<String> fields = splitCsv(line);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("expected " + columns.size() + " fields, got " + fields.size());
+            }
+            ProductRequest request = new ProductRequest();
+            request.setName(fields.get(name));
+            request.setPrice(parseLong(fields.get(price), "price"));
+            request.setQuantity(parseLong(fields.get(quantity), "quantity"));
+            return request;
+        };
+    }
+
+    private static long parseLong(String value, String field) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    /**
+     * Splits one CSV line; fields may be double-quoted, with "" for a quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Product toProduct(ProductRequest request) {
+        if (!StringUtils.hasText(request.getName())) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (request.getPrice() < 0 || request.getQuantity() < 0) {
+            throw new IllegalArgumentException("price and quantity must not be negative");
+        }
+        return productMapper.toProduct(request);
+    }
+
+    private static final class Result {
+
+        private long accepted;
+
+        private long rejected;
+
+        private final List<String> errors = new ArrayList<>();
+
+        void reject(long rows, String error) {
+            rejected += rows;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
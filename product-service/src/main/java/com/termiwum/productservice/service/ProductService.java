@@ -1,12 +1,39 @@
 package com.termiwum.productservice.service;
 
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.termiwum.productservice.model.ProductImportResponse;
+import com.termiwum.productservice.model.ProductLookupResponse;
 import com.termiwum.productservice.model.ProductRequest;
 import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.model.ProductSearchRequest;
+import com.termiwum.productservice.model.ProductSearchResponse;
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.model.ReduceQuantityResponse;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
 
 public interface ProductService {
     long add(ProductRequest productRequest);
 
+    ProductImportResponse importProducts(InputStream input, MediaType contentType);
+
     ProductResponse getById(long id);
 
+    ProductLookupResponse getByIds(List<Long> ids);
+
+    ProductLookupResponse lookup(List<Long> ids);
+
+    ProductSearchResponse search(ProductSearchRequest searchRequest);
+
+    SseEmitter stream(List<Long> ids);
+
     void reduceQuantity(long productId, long quantity);
+
+    List<ReduceQuantityResponse> reduceQuantities(List<ReduceQuantityRequest> requests);
+
+    void restoreQuantities(List<RestoreQuantityRequest> requests);
 }
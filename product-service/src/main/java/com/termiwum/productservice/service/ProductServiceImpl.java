@@ -1,16 +1,37 @@
 package com.termiwum.productservice.service;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.termiwum.productservice.cache.ProductResponseCache;
 import com.termiwum.productservice.entity.Product;
 import com.termiwum.productservice.exception.CustomException;
+import com.termiwum.productservice.mapper.ProductMapper;
+import com.termiwum.productservice.model.ProductImportResponse;
+import com.termiwum.productservice.model.ProductLookupResponse;
 import com.termiwum.productservice.model.ProductRequest;
 import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.model.ProductSearchRequest;
+import com.termiwum.productservice.model.ProductSearchResponse;
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.model.ReduceQuantityResponse;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
 import com.termiwum.productservice.repository.ProductRepository;
+import com.termiwum.productservice.search.ProductSearchIndex;
+import com.termiwum.productservice.stream.ProductChangeStream;
 
 import lombok.extern.log4j.Log4j2;
-import static org.springframework.beans.BeanUtils.copyProperties;
 
 @Service
 @Log4j2
@@ -19,55 +40,269 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private HotStockLedger hotStockLedger;
+
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private ProductImporter productImporter;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductChangeStream productChangeStream;
+
+    @Value("${product.lookup.max-ids:200}")
+    private int maxLookupIds;
+
+    @Value("${product.lookup.max-body-ids:1000}")
+    private int maxLookupBodyIds;
+
+    @Value("${product.search.default-limit:20}")
+    private int defaultSearchLimit;
+
+    @Value("${product.search.max-limit:200}")
+    private int maxSearchLimit;
+
+    @Value("${product.stream.max-ids:100}")
+    private int maxStreamIds;
+
     @Override
     public long add(ProductRequest productRequest) {
         log.info("adding product..");
 
-        Product product = Product.builder()
-                .productName(productRequest.getName())
-                .price(productRequest.getPrice())
-                .quantity(productRequest.getQuantity())
-                .build();
+        Product product = productMapper.toProduct(productRequest);
 
         productRepository.save(product);
+        productResponseCache.evict(product.getProductId());
+        ProductResponse productResponse = productMapper.toProductResponse(product);
+        productSearchIndex.put(productResponse);
+        productChangeStream.publish(productResponse);
 
         log.info("product created.");
         return product.getProductId();
     }
 
+    @Override
+    public ProductImportResponse importProducts(InputStream input, MediaType contentType) {
+        log.info("importing products from {}", contentType);
+        return productImporter.importProducts(input, contentType);
+    }
+
     @Override
     public ProductResponse getById(long id) {
         log.info("finding product for productId: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(
-                        () -> new CustomException(
-                                "Product not found with id: " + id,
-                                "PRODUCT_NOT_FOUND"));
+        ProductResponse productResponse = productResponseCache.get(id, productId -> productMapper.toProductResponse(
+                productRepository.findById(productId)
+                        .orElseThrow(
+                                () -> new CustomException(
+                                        "Product not found with id: " + productId,
+                                        "PRODUCT_NOT_FOUND"))));
 
-        ProductResponse productResponse = new ProductResponse();
+        return withLedgerStock(productResponse);
 
-        copyProperties(product, productResponse);
-        return productResponse;
+    }
 
+    @Override
+    public ProductLookupResponse getByIds(List<Long> ids) {
+        return getByIds(ids, maxLookupIds);
+    }
+
+    /**
+     * Ids in a request body are not bounded by URL length like ?ids= is, so the
+     * POST lookup accepts more of them per call.
+     */
+    @Override
+    public ProductLookupResponse lookup(List<Long> ids) {
+        return getByIds(ids, maxLookupBodyIds);
+    }
+
+    private ProductLookupResponse getByIds(List<Long> ids, int maxIds) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        log.info("finding {} products", distinctIds.size());
+
+        if (distinctIds.size() > maxIds) {
+            throw new CustomException("At most " + maxIds + " products can be looked up at once",
+                    "TOO_MANY_IDS", 400);
+        }
+
+        Map<Long, ProductResponse> products = productResponseCache.getAll(distinctIds,
+                missingIds -> productRepository.findAllById(List.copyOf(missingIds)).stream()
+                        .collect(Collectors.toMap(Product::getProductId, productMapper::toProductResponse)));
+
+        return ProductLookupResponse.builder()
+                .products(distinctIds.stream()
+                        .map(products::get)
+                        .filter(Objects::nonNull)
+                        .map(this::withLedgerStock)
+                        .toList())
+                .missingIds(distinctIds.stream()
+                        .filter(id -> !products.containsKey(id))
+                        .toList())
+                .build();
+    }
+
+    @Override
+    public ProductSearchResponse search(ProductSearchRequest searchRequest) {
+        int limit = searchRequest.getLimit() == null ? defaultSearchLimit : searchRequest.getLimit();
+        if (limit < 1 || limit > maxSearchLimit) {
+            throw new CustomException("limit must be between 1 and " + maxSearchLimit, "INVALID_LIMIT", 400);
+        }
+
+        ProductSearchResponse searchResponse = productSearchIndex.search(searchRequest, limit);
+        log.debug("search {} matched {} products", searchRequest, searchResponse.getProducts().size());
+        return searchResponse;
+    }
+
+    @Override
+    public SseEmitter stream(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > maxStreamIds) {
+            throw new CustomException("At most " + maxStreamIds + " products can be streamed at once",
+                    "TOO_MANY_IDS", 400);
+        }
+
+        log.info("streaming changes of {} products", distinctIds.size());
+        // the snapshot comes through the cache and the ledger, like GET /products/{id}
+        return productChangeStream.subscribe(distinctIds, () -> getByIds(distinctIds, maxStreamIds).getProducts());
+    }
+
+    /**
+     * The table lags behind the ledger for hot products, so their cached entry
+     * is copied with the ledger's stock.
+     */
+    private ProductResponse withLedgerStock(ProductResponse productResponse) {
+        if (!hotStockLedger.isHot(productResponse.getProductId())) {
+            return productResponse;
+        }
+        return productResponse.toBuilder()
+                .quantity(hotStockLedger.available(productResponse.getProductId()))
+                .build();
     }
 
     @Override
     public void reduceQuantity(long productId, long quantity) {
         log.info("reducing product quantity {} for id: {}", quantity, productId);
-        Product product = productRepository.findById(productId)
-                .orElseThrow(
-                        () -> new CustomException(
-                                "Product not found with id: " + productId,
-                                "PRODUCT_NOT_FOUND"));
-
-        if (product.getQuantity() < quantity) {
-            throw new CustomException("Insufficient product quantity for id: " + productId,
-                    "INSUFFICIENT_QUANTITY");
+
+        if (hotStockLedger.isHot(productId)) {
+            if (!hotStockLedger.reserve(productId, quantity)) {
+                throw new CustomException("Insufficient product quantity for id: " + productId,
+                        "INSUFFICIENT_QUANTITY");
+            }
+            productChangeStream.publish(productSearchIndex.setQuantity(productId, hotStockLedger.available(productId)));
+            log.info("hot product quantity reserved successfully.");
+            return;
         }
 
-        product.setQuantity(product.getQuantity() - quantity);
-        productRepository.save(product);
+        if (productRepository.reduceQuantity(productId, quantity) == 0) {
+            throw reduceQuantityFailure(productId);
+        }
+        productResponseCache.evict(productId);
+        productChangeStream.publish(productSearchIndex.adjustQuantity(productId, -quantity));
         log.info("product quantity reduced successfully.");
 
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<ReduceQuantityResponse> reduceQuantities(List<ReduceQuantityRequest> requests) {
+        log.info("reducing quantity for {} products", requests.size());
+
+        ReduceQuantityResponse[] responses = new ReduceQuantityResponse[requests.size()];
+        List<Integer> coldIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ReduceQuantityRequest request = requests.get(i);
+            if (hotStockLedger.isHot(request.getProductId())) {
+                boolean reserved = hotStockLedger.reserve(request.getProductId(), request.getQuantity());
+                if (reserved) {
+                    productChangeStream.publish(productSearchIndex.setQuantity(request.getProductId(),
+                            hotStockLedger.available(request.getProductId())));
+                }
+                responses[i] = ReduceQuantityResponse.builder()
+                        .productId(request.getProductId())
+                        .reduced(reserved)
+                        .errorCode(reserved ? null : "INSUFFICIENT_QUANTITY")
+                        .build();
+            } else {
+                coldIndexes.add(i);
+            }
+        }
+
+        int[] counts = productRepository.reduceQuantities(coldIndexes.stream().map(requests::get).toList());
+        List<Long> reducedIds = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            long productId = requests.get(coldIndexes.get(i)).getProductId();
+            if (counts[i] > 0) {
+                reducedIds.add(productId);
+                productChangeStream.publish(
+                        productSearchIndex.adjustQuantity(productId, -requests.get(coldIndexes.get(i)).getQuantity()));
+                responses[coldIndexes.get(i)] = ReduceQuantityResponse.builder()
+                        .productId(productId)
+                        .reduced(true)
+                        .build();
+            } else {
+                responses[coldIndexes.get(i)] = ReduceQuantityResponse.builder()
+                        .productId(productId)
+                        .errorCode(reduceQuantityFailure(productId).getErrorCode())
+                        .build();
+            }
+        }
+        productResponseCache.evictAll(reducedIds);
+        return List.of(responses);
+    }
+
+    /**
+     * Puts back stock taken for orders that were not paid. Each order's stock
+     * for a product goes back at most once, so a repeated compensation adds
+     * nothing. Hot products go back into the ledger's lease, the rest onto the
+     * table in one batch, in the same transaction as the restoration records.
+     */
+    @Override
+    @Transactional
+    public void restoreQuantities(List<RestoreQuantityRequest> requests) {
+        for (RestoreQuantityRequest request : requests) {
+            if (request.getOrderId() <= 0 || request.getQuantity() <= 0) {
+                throw new CustomException("Restoring stock needs an order id and a positive quantity, got order "
+                        + request.getOrderId() + " quantity " + request.getQuantity() + " for product "
+                        + request.getProductId(), "INVALID_RESTORATION", 400);
+            }
+        }
+
+        List<RestoreQuantityRequest> recorded = productRepository.recordRestorations(requests);
+        log.info("restoring quantity for {} products, {} already restored", recorded.size(),
+                requests.size() - recorded.size());
+
+        List<ReduceQuantityRequest> coldRequests = new ArrayList<>();
+        for (RestoreQuantityRequest request : recorded) {
+            if (hotStockLedger.isHot(request.getProductId())) {
+                hotStockLedger.release(request.getProductId(), request.getQuantity());
+                productChangeStream.publish(productSearchIndex.setQuantity(request.getProductId(),
+                        hotStockLedger.available(request.getProductId())));
+            } else {
+                coldRequests.add(new ReduceQuantityRequest(request.getProductId(), request.getQuantity()));
+            }
+        }
+
+        productRepository.restoreQuantities(coldRequests);
+        coldRequests.forEach(request -> productChangeStream.publish(
+                productSearchIndex.adjustQuantity(request.getProductId(), request.getQuantity())));
+        productResponseCache.evictAll(coldRequests.stream().map(ReduceQuantityRequest::getProductId).toList());
+    }
+
+    /**
+     * A conditional decrement that touched no row either hit a missing product
+     * or one without enough stock; only this failure path pays for the lookup.
+     */
+    private CustomException reduceQuantityFailure(long productId) {
+        if (!productRepository.existsById(productId)) {
+            return new CustomException("Product not found with id: " + productId, "PRODUCT_NOT_FOUND");
+        }
+        return new CustomException("Insufficient product quantity for id: " + productId,
+                "INSUFFICIENT_QUANTITY");
+    }
+}
@@ -0,0 +1,288 @@
+package com.termiwum.productservice.stream;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.termiwum.productservice.model.ProductResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pushes stock and price changes to {@code GET /products/stream} subscribers
+ * as server-sent "product" events carrying the {@link ProductResponse}.
+ *
+ * Each subscriber buffers only the latest state of each product it watches,
+ * so its buffer is bounded by its subscription and a burst of changes
+ * collapses into one event per product per flush interval. Changes are
+ * written by one virtual thread per busy subscriber: a slow client holds up
+ * nothing but its own events. Idle subscribers cost an async request parked
+ * in the container, no thread; a comment every heartbeat keeps proxies from
+ * closing them and finds clients that went away.
+ *
+ * Subscribers live in the instance they connected to. With
+ * product.stream.redis.enabled every change is also relayed through
+ * {@link RedisProductChangeRelay}, so they hear about writes that went through
+ * other instances; without it they only see this instance's writes.
+ */
+@Component
+@Log4j2
+public class ProductChangeStream {
+
+    private final RedisProductChangeRelay redisProductChangeRelay;
+
+    private final Duration flushInterval;
+
+    private final Duration heartbeat;
+
+    private final Duration timeout;
+
+    private final Map<Long, Set<Subscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Queue<Subscriber> dirty = new ConcurrentLinkedQueue<>();
+
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("product-stream-", 0).factory());
+
+    private final Counter coalesced;
+
+    private volatile boolean running;
+
+    private Thread flushThread;
+
+    private long lastHeartbeat = System.nanoTime();
+
+    public ProductChangeStream(ObjectProvider<RedisProductChangeRelay> redisProductChangeRelay,
+            @Value("${product.stream.flush-interval:250ms}") Duration flushInterval,
+            @Value("${product.stream.heartbeat:30s}") Duration heartbeat,
+            @Value("${product.stream.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.redisProductChangeRelay = redisProductChangeRelay.getIfAvailable();
+        this.flushInterval = flushInterval;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+
+        Gauge.builder("product.stream.subscribers", subscribers, Set::size)
+                .description("Open product change streams")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("product.stream.coalesced")
+                .description("Product changes replaced by a newer one before they were sent")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (redisProductChangeRelay != null) {
+            redisProductChangeRelay.onRemoteChange(this::deliver);
+        }
+        running = true;
+        flushThread = Thread.ofPlatform().name("product-stream-flush").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (flushThread != null) {
+            LockSupport.unpark(flushThread);
+            flushThread.join();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    /**
+     * Opens a stream of the given products; the snapshot's state of each is
+     * sent first, then every change.
+     */
+    public SseEmitter subscribe(Collection<Long> productIds, Supplier<Collection<ProductResponse>> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        register(productIds, snapshot, emitter);
+        return emitter;
+    }
+
+    /**
+     * The snapshot is read once the subscriber is registered, so no change
+     * falls between the two; a change that got in first is kept over it.
+     */
+    void register(Collection<Long> productIds, Supplier<Collection<ProductResponse>> snapshot,
+            SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(Set.copyOf(productIds), emitter);
+        // completion also follows timeouts and errors
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (Long productId : subscriber.productIds) {
+            subscribersByProduct.compute(productId, (id, watching) -> {
+                Set<Subscriber> set = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+        Collection<ProductResponse> current;
+        try {
+            current = snapshot.get();
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        for (ProductResponse product : current) {
+            if (subscriber.pending.putIfAbsent(product.getProductId(), product) == null) {
+                markDirty(subscriber);
+            }
+        }
+    }
+
+    public void publish(ProductResponse product) {
+        if (product == null) {
+            return;
+        }
+        deliver(product);
+        if (redisProductChangeRelay != null) {
+            redisProductChangeRelay.publish(product);
+        }
+    }
+
+    private void deliver(ProductResponse product) {
+        Set<Subscriber> watching = subscribersByProduct.get(product.getProductId());
+        if (watching != null) {
+            watching.forEach(subscriber -> offer(subscriber, product));
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void offer(Subscriber subscriber, ProductResponse product) {
+        if (subscriber.pending.put(product.getProductId(), product) != null) {
+            coalesced.increment();
+        }
+        markDirty(subscriber);
+    }
+
+    private void markDirty(Subscriber subscriber) {
+        if (subscriber.busy.compareAndSet(false, true)) {
+            dirty.add(subscriber);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(flushInterval.toNanos());
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Product stream flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * Hands every subscriber with pending changes to a sender, and idle ones
+     * too once a heartbeat is due. A subscriber stays busy until its sender is
+     * done, so it never has two.
+     */
+    void flush() {
+        Subscriber subscriber;
+        while ((subscriber = dirty.poll()) != null) {
+            Subscriber changed = subscriber;
+            senders.execute(() -> drain(changed, false));
+        }
+
+        long now = System.nanoTime();
+        if (now - lastHeartbeat >= heartbeat.toNanos()) {
+            lastHeartbeat = now;
+            for (Subscriber idle : subscribers) {
+                if (idle.busy.compareAndSet(false, true)) {
+                    senders.execute(() -> drain(idle, true));
+                }
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber, boolean heartbeatDue) {
+        try {
+            boolean sent = false;
+            for (Long productId : subscriber.pending.keySet()) {
+                ProductResponse product = subscriber.pending.remove(productId);
+                if (product != null) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("product")
+                            .data(product, MediaType.APPLICATION_JSON));
+                    sent = true;
+                }
+            }
+            if (!sent && heartbeatDue) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client is gone or the stream already completed
+            log.debug("Dropping product stream subscriber: {}", e.toString());
+            unsubscribe(subscriber);
+            return;
+        }
+
+        subscriber.busy.set(false);
+        // a change that arrived while sending found the subscriber busy
+        if (!subscriber.pending.isEmpty() && subscriber.busy.compareAndSet(false, true)) {
+            dirty.add(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long productId : subscriber.productIds) {
+            subscribersByProduct.computeIfPresent(productId, (id, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+        subscriber.pending.clear();
+    }
+
+    /**
+     * One open stream; the latest unsent state of each watched product waits
+     * in {@code pending}.
+     */
+    private static final class Subscriber {
+
+        private final Set<Long> productIds;
+
+        private final SseEmitter emitter;
+
+        private final Map<Long, ProductResponse> pending = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+        Subscriber(Set<Long> productIds, SseEmitter emitter) {
+            this.productIds = productIds;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.termiwum.productservice.stream;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.termiwum.productservice.model.ProductResponse;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Relays product changes between product-service instances over Redis
+ * pub/sub, so a {@link ProductChangeStream} subscriber connected to one
+ * instance also hears about changes written through the others. Pub/sub
+ * delivers at most once: a change lost while Redis or an instance is down is
+ * not replayed, and the subscriber catches up with that product's next change.
+ */
+@Component
+@ConditionalOnProperty(name = "product.stream.redis.enabled", havingValue = "true")
+@Log4j2
+public class RedisProductChangeRelay implements MessageListener {
+
+    private static final String CHANNEL = "product-service:product-changes";
+
+    // tells this instance's own changes apart when they come back from the channel
+    private final String origin = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+
+    private volatile Consumer<ProductResponse> remoteChanges = product -> {
+    };
+
+    public RedisProductChangeRelay(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void start() {
+        listenerContainer.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * Sets where changes published by other instances are handed.
+     */
+    public void onRemoteChange(Consumer<ProductResponse> remoteChanges) {
+        this.remoteChanges = remoteChanges;
+    }
+
+    public void publish(ProductResponse product) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Change(origin, product)));
+        } catch (RuntimeException | JsonProcessingException e) {
+            // local subscribers already have it; other instances miss this one change
+            log.warn("Publishing change of product {} to Redis failed: {}", product.getProductId(), e.toString());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Change change = objectMapper.readValue(message.getBody(), Change.class);
+            if (!origin.equals(change.origin())) {
+                remoteChanges.accept(change.product());
+            }
+        } catch (Exception e) {
+            log.warn("Dropping unreadable product change from Redis: {}", e.toString());
+        }
+    }
+
+    record Change(String origin, ProductResponse product) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.termiwum.productservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.termiwum.productservice.exception.CustomException;
+import com.termiwum.productservice.model.ProductResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductResponseCacheTest {
+
+    @Mock
+    private ObjectProvider<RedisProductCache> redisProvider;
+
+    @Mock
+    private RedisProductCache redisProductCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger databaseLoads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        databaseLoads.set(0);
+    }
+
+    @DisplayName("Product Cache - Reads Through Once And Serves Hits")
+    @Test
+    void test_When_Read_Twice_Expect_One_Load() {
+        ProductResponseCache cache = cache(null);
+
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+        cache.getAll(List.of(1L, 2L, 3L), ids -> ids.stream().collect(
+                Collectors.toMap(id -> id, this::load)));
+
+        assertEquals(3, databaseLoads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        // products 2 and 3 share one bulk load
+        assertEquals(2, meterRegistry.get("product.cache.load").tag("tier", "database").timer().count());
+    }
+
+    @DisplayName("Product Cache - Write Evicts The Entry")
+    @Test
+    void test_When_Evicted_Expect_Reload() {
+        ProductResponseCache cache = cache(null);
+
+        cache.get(1, this::load);
+        cache.evict(1);
+
+        assertEquals(2, cache.get(1, this::load).getQuantity());
+    }
+
+    @DisplayName("Product Cache - Missing Product Is Not Cached")
+    @Test
+    void test_When_Loader_Fails_Expect_Nothing_Cached() {
+        ProductResponseCache cache = cache(null);
+
+        assertThrows(CustomException.class, () -> cache.get(9, id -> {
+            throw new CustomException("Product not found with id: " + id, "PRODUCT_NOT_FOUND");
+        }));
+        assertEquals(9, cache.get(9, this::load).getProductId());
+    }
+
+    @DisplayName("Product Cache - Redis Tier Shared Before The Database")
+    @Test
+    void test_When_Redis_Has_Entry_Expect_No_Database_Load() {
+        ProductResponse shared = ProductResponse.builder().productId(1).quantity(50).build();
+        when(redisProductCache.getAll(anyCollection())).thenReturn(Map.of(1L, shared));
+        ProductResponseCache cache = cache(redisProductCache);
+
+        assertEquals(50, cache.get(1, this::load).getQuantity());
+        assertEquals(0, databaseLoads.get());
+
+        cache.evictAll(Set.of(1L));
+        verify(redisProductCache).evictAll(Set.of(1L));
+    }
+
+    private ProductResponseCache cache(RedisProductCache redis) {
+        when(redisProvider.getIfAvailable()).thenReturn(redis);
+        return new ProductResponseCache(redisProvider, 100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    private ProductResponse load(long productId) {
+        return ProductResponse.builder()
+                .productId(productId)
+                .quantity(databaseLoads.incrementAndGet())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.termiwum.productservice.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.termiwum.productservice.model.ProductResponse;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisProductCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private RedisProductCache redisProductCache;
+
+    @BeforeEach
+    void setUp() {
+        redisProductCache = new RedisProductCache(redisTemplate, new ObjectMapper(), Duration.ofMinutes(10),
+                Duration.ofSeconds(5));
+    }
+
+    @DisplayName("Redis Product Cache - Eviction Leaves Tombstone Before Deleting")
+    @Test
+    void test_When_Evicted_Expect_Tombstone_Then_Delete() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        redisProductCache.evictAll(List.of(7L));
+
+        InOrder order = inOrder(valueOperations, redisTemplate);
+        order.verify(valueOperations).set("product-service:product:{7}:evicted", "", Duration.ofSeconds(5));
+        order.verify(redisTemplate).delete(List.of("product-service:product:{7}"));
+    }
+
+    @DisplayName("Redis Product Cache - Put Is Conditional On Tombstone And Version")
+    @Test
+    @SuppressWarnings("unchecked")
+    void test_When_Put_Expect_Version_Checked_By_Script() {
+        redisProductCache.putAll(List.of(ProductResponse.builder().productId(7).version(3).build()));
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("product-service:product:{7}", "product-service:product:{7}:evicted")),
+                eq("3"), any(String.class), eq(String.valueOf(Duration.ofMinutes(10).toMillis())));
+        verify(redisTemplate, never()).opsForValue();
+    }
+}
@@ -0,0 +1,65 @@
+package com.termiwum.productservice.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.termiwum.productservice.model.RestoreQuantityRequest;
+import com.termiwum.productservice.security.WebSecurityConfig;
+import com.termiwum.productservice.service.ProductService;
+
+@WebMvcTest(ProductController.class)
+@Import(WebSecurityConfig.class)
+public class ProductControllerAuthorizationTest {
+
+    private static final String RESTORATION = "[{\"orderId\":7,\"productId\":1,\"quantity\":2}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductService productService;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @DisplayName("Restore Quantities - Customer Cannot Put Stock Back")
+    @Test
+    void test_When_Customer_Restores_Stock_then_Forbidden() throws Exception {
+        mockMvc.perform(put("/products/restoreQuantities")
+                .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_Customer")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(RESTORATION))
+                .andExpect(status().isForbidden());
+
+        verify(productService, never()).restoreQuantities(anyList());
+    }
+
+    @DisplayName("Restore Quantities - Internal Service Token Allowed")
+    @Test
+    void test_When_Internal_Client_Restores_Stock_then_Restored() throws Exception {
+        mockMvc.perform(put("/products/restoreQuantities")
+                .with(jwt().authorities(new SimpleGrantedAuthority("SCOPE_internal")))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(RESTORATION))
+                .andExpect(status().isOk());
+
+        verify(productService).restoreQuantities(List.of(new RestoreQuantityRequest(7, 1, 2)));
+    }
+}
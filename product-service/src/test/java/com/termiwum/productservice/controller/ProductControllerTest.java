@@ -0,0 +1,73 @@
+package com.termiwum.productservice.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.service.ProductService;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private ProductController productController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+        when(productService.getById(1)).thenReturn(ProductResponse.builder()
+                .productId(1)
+                .productName("iPhone")
+                .price(1000)
+                .quantity(7)
+                .version(3)
+                .build());
+    }
+
+    @DisplayName("Get Product - Strong ETag Returned")
+    @Test
+    void test_When_Get_Product_then_ETag_Returned() throws Exception {
+        mockMvc.perform(get("/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-7\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.productName").value("iPhone"));
+    }
+
+    @DisplayName("Get Product - Matching If-None-Match Answered 304")
+    @Test
+    void test_When_ETag_Matches_then_Not_Modified() throws Exception {
+        mockMvc.perform(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"3-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-7\""))
+                .andExpect(content().string(""));
+    }
+
+    @DisplayName("Get Product - Stale ETag Gets The Body")
+    @Test
+    void test_When_ETag_Stale_then_Full_Response() throws Exception {
+        mockMvc.perform(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"2-8\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(7));
+    }
+}
@@ -0,0 +1,68 @@
+package com.termiwum.productservice.mapper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.model.ProductResponse;
+
+/**
+ * Product to ProductResponse mapping with the former BeanUtils.copyProperties
+ * path and with the generated {@link ProductMapper}. Not part of the test run;
+ * start it with
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.termiwum.productservice.mapper.ProductMapperBenchmark
+ *
+ * Allocation per call is reported as gc.alloc.rate.norm (bytes/op).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+
+    private final Product product = Product.builder()
+            .productId(1)
+            .productName("iPhone")
+            .price(1000)
+            .quantity(10)
+            .build();
+
+    @Benchmark
+    public ProductResponse copyProperties() {
+        ProductResponse productResponse = new ProductResponse();
+        BeanUtils.copyProperties(product, productResponse);
+        return productResponse;
+    }
+
+    @Benchmark
+    public ProductResponse generatedMapper() {
+        return productMapper.toProductResponse(product);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductMapperBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
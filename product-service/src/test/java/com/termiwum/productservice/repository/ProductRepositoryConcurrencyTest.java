@@ -0,0 +1,300 @@
+package com.termiwum.productservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.termiwum.productservice.cache.ProductResponseCache;
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.mapper.ProductMapper;
+import com.termiwum.productservice.exception.CustomException;
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.model.ReduceQuantityResponse;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
+import com.termiwum.productservice.search.ProductSearchIndex;
+import com.termiwum.productservice.service.HotStockLedger;
+import com.termiwum.productservice.service.ProductImporter;
+import com.termiwum.productservice.service.ProductServiceImpl;
+import com.termiwum.productservice.stream.ProductChangeStream;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Hammers one product's stock from many threads, with the old
+ * read-modify-write decrement and with the conditional update.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = ProductRepositoryConcurrencyTest.ConcurrencyConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Log4j2
+public class ProductRepositoryConcurrencyTest {
+
+    private static final int CLIENTS = 16;
+    private static final int ORDERS_PER_CLIENT = 25;
+    private static final long STOCK = CLIENTS * ORDERS_PER_CLIENT / 2;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    // only the repository is real; the products here are not hot, cached or indexed
+    @MockitoBean
+    private HotStockLedger hotStockLedger;
+
+    @MockitoBean
+    private ProductResponseCache productResponseCache;
+
+    @MockitoBean
+    private ProductImporter productImporter;
+
+    @MockitoBean
+    private ProductMapper productMapper;
+
+    @MockitoBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockitoBean
+    private ProductChangeStream productChangeStream;
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @EntityScan(basePackageClasses = Product.class)
+    @Import(ProductServiceImpl.class)
+    static class ConcurrencyConfig {
+    }
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @DisplayName("Reduce Quantity - Concurrent Decrements Never Lose or Oversell Stock")
+    @Test
+    void test_When_Concurrent_Reduce_Expect_Exact_Stock() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LongPredicate readModifyWrite = productId -> {
+            try {
+                return transaction.execute(status -> readModifyWrite(productId));
+            } catch (OptimisticLockingFailureException e) {
+                // the version check turns the lost update into a failed attempt
+                return false;
+            }
+        };
+        LongPredicate conditionalUpdate = productId -> productRepository.reduceQuantity(productId, 1) == 1;
+
+        // warm up both paths before measuring; throughput depends on the machine, so it is only logged
+        hammer(save(STOCK), readModifyWrite);
+        hammer(save(STOCK), conditionalUpdate);
+
+        long legacyId = save(STOCK);
+        Result legacy = hammer(legacyId, readModifyWrite);
+        long legacyLeft = productRepository.findById(legacyId).orElseThrow().getQuantity();
+
+        long conditionalId = save(STOCK);
+        Result conditional = hammer(conditionalId, conditionalUpdate);
+        long conditionalLeft = productRepository.findById(conditionalId).orElseThrow().getQuantity();
+
+        log.info("decrements/s of {} units: read-modify-write={} (sold {}, {} left) | conditional update={} (sold {}, {} left)",
+                STOCK, Math.round(legacy.throughput()), legacy.sold(), legacyLeft,
+                Math.round(conditional.throughput()), conditional.sold(), conditionalLeft);
+
+        assertEquals(STOCK, conditional.sold());
+        assertEquals(0, conditionalLeft);
+        // the version check makes lost read-modify-write updates fail instead of overselling
+        assertEquals(STOCK, legacy.sold() + legacyLeft);
+    }
+
+    @DisplayName("Reduce Quantities - One Batch Reports Each Product")
+    @Test
+    void test_When_Batch_Reduce_Expect_Per_Product_Result() {
+        long enough = save(10);
+        long short_ = save(1);
+
+        List<ReduceQuantityResponse> responses = productService.reduceQuantities(List.of(
+                new ReduceQuantityRequest(enough, 4),
+                new ReduceQuantityRequest(short_, 2),
+                new ReduceQuantityRequest(-1, 1)));
+
+        assertTrue(responses.get(0).isReduced());
+        assertFalse(responses.get(1).isReduced());
+        assertEquals("INSUFFICIENT_QUANTITY", responses.get(1).getErrorCode());
+        assertEquals("PRODUCT_NOT_FOUND", responses.get(2).getErrorCode());
+        assertEquals(6, productRepository.findById(enough).orElseThrow().getQuantity());
+        assertEquals(1, productRepository.findById(short_).orElseThrow().getQuantity());
+        assertEquals(1, productRepository.findById(enough).orElseThrow().getVersion());
+        assertEquals(0, productRepository.findById(short_).orElseThrow().getVersion());
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.reduceQuantity(short_, 2));
+        assertEquals("INSUFFICIENT_QUANTITY", exception.getErrorCode());
+    }
+
+    @DisplayName("Reduce Quantities - Batch Without Row Counts Redone One By One")
+    @Test
+    void test_When_Batch_Reports_No_Info_Expect_Exact_Per_Product_Result() {
+        long enough = save(10);
+        long short_ = save(1);
+        // what MySQL answers for a rewritten batch: it ran, but not which rows matched
+        doAnswer(invocation -> {
+            int[][] counts = (int[][]) invocation.callRealMethod();
+            Arrays.fill(counts[0], Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList(), anyInt(), any());
+
+        List<ReduceQuantityResponse> responses = productService.reduceQuantities(List.of(
+                new ReduceQuantityRequest(enough, 4),
+                new ReduceQuantityRequest(short_, 2)));
+
+        assertTrue(responses.get(0).isReduced());
+        assertEquals("INSUFFICIENT_QUANTITY", responses.get(1).getErrorCode());
+        // the batch was rolled back, so the decrement applied once
+        assertEquals(6, productRepository.findById(enough).orElseThrow().getQuantity());
+        assertEquals(1, productRepository.findById(enough).orElseThrow().getVersion());
+        assertEquals(1, productRepository.findById(short_).orElseThrow().getQuantity());
+    }
+
+    @DisplayName("Updated After - Stock Updates Move A Product Past The Cursor")
+    @Test
+    void test_When_Stock_Updated_Expect_Found_After_Earlier_Update_Time() throws InterruptedException {
+        long untouched = save(10);
+        long reduced = save(10);
+        long restored = save(10);
+        long savedAt = productRepository.findById(restored).orElseThrow().getUpdatedAt();
+
+        Thread.sleep(5);
+        productRepository.reduceQuantity(reduced, 1);
+        productRepository.restoreQuantities(List.of(new ReduceQuantityRequest(restored, 1)));
+
+        List<Long> changed = productRepository.findUpdatedAfter(savedAt, Long.MAX_VALUE, Limit.of(10)).stream()
+                .map(Product::getProductId)
+                .toList();
+        assertEquals(List.of(reduced, restored), changed.stream().sorted().toList());
+        assertFalse(changed.contains(untouched));
+    }
+
+    @DisplayName("Restore Quantities - An Order's Stock Goes Back Only Once")
+    @Test
+    void test_When_Restoration_Repeated_Expect_Stock_Restored_Once() {
+        long productId = save(5);
+        List<RestoreQuantityRequest> restoration = List.of(new RestoreQuantityRequest(7, productId, 3));
+
+        productService.restoreQuantities(restoration);
+        productService.restoreQuantities(restoration);
+        // the same product for another order is a separate restoration
+        productService.restoreQuantities(List.of(new RestoreQuantityRequest(8, productId, 2)));
+
+        assertEquals(10, productRepository.findById(productId).orElseThrow().getQuantity());
+    }
+
+    @DisplayName("Hot SKU Lease - Stale Lease Row Goes Back To Its Product Once")
+    @Test
+    void test_When_Lease_Stale_Expect_Returned_Once() {
+        long productId = save(1000);
+
+        assertTrue(productRepository.leaseQuantity("crashed", productId, 100));
+        assertTrue(productRepository.drawLease("crashed", productId, 30));
+        assertFalse(productRepository.drawLease("crashed", productId, 80));
+        assertEquals(900, productRepository.findQuantity(productId));
+
+        assertEquals(List.of(), productRepository.returnStaleLeases(Instant.now().minusSeconds(60)));
+        assertEquals(List.of(new ReduceQuantityRequest(productId, 70)),
+                productRepository.returnStaleLeases(Instant.now().plusSeconds(1)));
+        assertEquals(List.of(), productRepository.returnStaleLeases(Instant.now().plusSeconds(1)));
+        assertEquals(970, productRepository.findQuantity(productId));
+
+        // the owner lost its row; shutting down it only returns the units it drew and did not sell
+        assertFalse(productRepository.drawLease("crashed", productId, 1));
+        productRepository.returnLeases("crashed", List.of(new ReduceQuantityRequest(productId, 5)));
+        assertEquals(975, productRepository.findQuantity(productId));
+    }
+
+    private boolean readModifyWrite(long productId) {
+        Product product = productRepository.findById(productId).orElseThrow();
+        if (product.getQuantity() < 1) {
+            return false;
+        }
+        product.setQuantity(product.getQuantity() - 1);
+        productRepository.save(product);
+        return true;
+    }
+
+    private long save(long quantity) {
+        return productRepository.save(Product.builder()
+                .productName("hot")
+                .price(100)
+                .quantity(quantity)
+                .build()).getProductId();
+    }
+
+    private Result hammer(long productId, LongPredicate decrement) throws Exception {
+        AtomicLong sold = new AtomicLong();
+        long start = System.nanoTime();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int client = 0; client < CLIENTS; client++) {
+                runs.add(clients.submit(() -> {
+                    for (int i = 0; i < ORDERS_PER_CLIENT; i++) {
+                        if (decrement.test(productId)) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(sold.get(), CLIENTS * ORDERS_PER_CLIENT / seconds);
+    }
+
+    private record Result(long sold, double throughput) {
+    }
+}
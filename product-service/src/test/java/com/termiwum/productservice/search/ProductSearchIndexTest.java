@@ -0,0 +1,264 @@
+package com.termiwum.productservice.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.mapper.ProductMapper;
+import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.model.ProductSearchRequest;
+import com.termiwum.productservice.model.ProductSearchResponse;
+import com.termiwum.productservice.repository.ProductRepository;
+import com.termiwum.productservice.service.HotStockLedger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+@ExtendWith(MockitoExtension.class)
+@Log4j2
+public class ProductSearchIndexTest {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int QUERIES = 10_000;
+    private static final long UPDATED_AT = 1_700_000_000_000L;
+    private static final Duration OVERLAP = Duration.ofSeconds(5);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private HotStockLedger hotStockLedger;
+
+    @DisplayName("Product Search - Name Prefix With Price Range")
+    @Test
+    void test_When_Name_Prefix_then_Matches_In_Name_Order() {
+        ProductSearchIndex index = index(List.of(
+                product(1, "iPhone 15", 900, 10),
+                product(2, "iPad Air", 600, 5),
+                product(3, "iphone case", 20, 100),
+                product(4, "Galaxy S24", 800, 7)));
+
+        ProductSearchResponse response = index.search(ProductSearchRequest.builder()
+                .namePrefix("IP")
+                .maxPrice(800L)
+                .build(), 10);
+
+        assertEquals(List.of(2L, 3L), ids(response));
+        assertFalse(response.isTruncated());
+    }
+
+    @DisplayName("Product Search - All Words Must Match")
+    @Test
+    void test_When_Tokens_then_Names_With_All_Words_Match() {
+        ProductSearchIndex index = index(List.of(
+                product(1, "USB-C Cable 2m", 15, 10),
+                product(2, "usb-c charger", 30, 10),
+                product(3, "Lightning cable", 15, 10)));
+
+        assertEquals(List.of(1L), ids(index.search(ProductSearchRequest.builder().q("cable usb").build(), 10)));
+        assertEquals(List.of(), ids(index.search(ProductSearchRequest.builder().q("cable hdmi").build(), 10)));
+    }
+
+    @DisplayName("Product Search - Writes Update The Index")
+    @Test
+    void test_When_Added_Or_Reduced_then_Stock_Range_Follows() {
+        ProductSearchIndex index = index(List.of(product(1, "Phone", 500, 3)));
+        index.put(ProductResponse.builder().productId(2).productName("Phone case").price(20).quantity(50).build());
+        index.adjustQuantity(1, -3);
+
+        ProductSearchResponse inStock = index.search(ProductSearchRequest.builder()
+                .namePrefix("phone")
+                .minQuantity(1L)
+                .build(), 10);
+
+        assertEquals(List.of(2L), ids(inStock));
+    }
+
+    @DisplayName("Product Search - Limit Reports Truncation")
+    @Test
+    void test_When_More_Matches_Than_Limit_then_Truncated() {
+        ProductSearchIndex index = index(LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> product(id, "Item " + id, id * 10, 1))
+                .toList());
+
+        ProductSearchResponse response = index.search(ProductSearchRequest.builder().minPrice(20L).build(), 2);
+
+        assertEquals(List.of(2L, 3L), ids(response));
+        assertTrue(response.isTruncated());
+    }
+
+    @DisplayName("Product Search - Stock Range Walks The Stock Index")
+    @Test
+    void test_When_Only_Stock_Range_then_Matches_In_Stock_Order() {
+        ProductSearchIndex index = index(List.of(
+                product(1, "Phone", 500, 9),
+                product(2, "Tablet", 700, 0),
+                product(3, "Watch", 300, 2),
+                product(4, "Laptop", 900, 40)));
+        index.adjustQuantity(4, -35);
+
+        ProductSearchResponse response = index.search(ProductSearchRequest.builder()
+                .minQuantity(1L)
+                .maxQuantity(10L)
+                .build(), 10);
+
+        assertEquals(List.of(3L, 4L, 1L), ids(response));
+    }
+
+    @DisplayName("Product Search - Scan Cap Truncates The Walk")
+    @Test
+    void test_When_Scan_Cap_Reached_then_Truncated() {
+        ProductSearchIndex index = index(LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> product(id, "Item " + id, id, id == 90 ? 5 : 0))
+                .toList(), 50);
+
+        // the stock filter rides on the price walk, and product 90 lies past the cap
+        ProductSearchResponse response = index.search(ProductSearchRequest.builder()
+                .minPrice(1L)
+                .minQuantity(1L)
+                .build(), 10);
+
+        assertEquals(List.of(), ids(response));
+        assertTrue(response.isTruncated());
+    }
+
+    @DisplayName("Product Search - Reconcile Picks Up Changes From Other Instances")
+    @Test
+    void test_When_Table_Changed_Elsewhere_then_Reconciled() {
+        List<Product> catalog = new ArrayList<>(List.of(product(1, "Phone", 500, 9), product(2, "Watch", 300, 2)));
+        ProductSearchIndex index = index(catalog);
+
+        Product sold = product(1, "Phone", 500, 4);
+        sold.setVersion(1);
+        sold.setUpdatedAt(UPDATED_AT + 1000);
+        catalog.set(0, sold);
+
+        assertEquals(1, index.reconcile());
+        assertEquals(4, index.get(1).getQuantity());
+        assertEquals(List.of(2L, 1L), ids(index.search(ProductSearchRequest.builder().minQuantity(1L).build(), 10)));
+        assertEquals(0, index.reconcile());
+    }
+
+    @DisplayName("Product Search - Reconcile Reads Only Rows Written Since The Last Pass")
+    @Test
+    void test_When_Reconciled_then_Only_Recent_Rows_Read() {
+        List<Product> catalog = new ArrayList<>(LongStream.rangeClosed(1, 2500)
+                .mapToObj(id -> product(id, "product " + id, id, 1))
+                .toList());
+        ProductSearchIndex index = index(catalog);
+        for (long id : List.of(7L, 1200L, 2400L)) {
+            Product sold = product(id, "product " + id, id, 0);
+            sold.setVersion(1);
+            sold.setUpdatedAt(UPDATED_AT + 60_000);
+            catalog.set((int) id - 1, sold);
+        }
+
+        assertEquals(3, index.reconcile());
+        assertEquals(0, index.get(1200).getQuantity());
+
+        // the first pass starts an overlap before the newest row seen at startup
+        verify(productRepository).findUpdatedAfter(eq(UPDATED_AT - OVERLAP.toMillis()), eq(Long.MIN_VALUE),
+                any(Limit.class));
+        assertEquals(0, index.reconcile());
+        verify(productRepository).findUpdatedAfter(eq(UPDATED_AT + 60_000 - OVERLAP.toMillis()), eq(Long.MIN_VALUE),
+                any(Limit.class));
+        // the whole table was read at startup only, in three pages
+        verify(productRepository, times(3)).findByProductIdGreaterThanOrderByProductId(anyLong(), any(Limit.class));
+    }
+
+    @DisplayName("Product Search - Queries Answered In Microseconds")
+    @Test
+    void test_Search_Latency_Over_Large_Catalog() {
+        ProductSearchIndex index = index(LongStream.rangeClosed(1, CATALOG_SIZE)
+                .mapToObj(id -> product(id, "product " + (id % 1000) + " size " + (id % 7), id % 5000, id % 100))
+                .toList());
+        List<ProductSearchRequest> queries = List.of(
+                ProductSearchRequest.builder().namePrefix("product 42").maxPrice(2500L).build(),
+                ProductSearchRequest.builder().q("size 3").minPrice(1000L).maxPrice(1200L).minQuantity(1L).build(),
+                ProductSearchRequest.builder().minPrice(4000L).maxPrice(4010L).build());
+
+        for (int i = 0; i < QUERIES; i++) {
+            index.search(queries.get(i % queries.size()), 20);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            index.search(queries.get(i % queries.size()), 20);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / QUERIES;
+
+        log.info("search over {} products took {} us per query", CATALOG_SIZE, Math.round(micros * 10) / 10.0);
+        assertTrue(micros < 250, "search took " + micros + " us per query");
+    }
+
+    private ProductSearchIndex index(List<Product> catalog) {
+        return index(catalog, Integer.MAX_VALUE);
+    }
+
+    private ProductSearchIndex index(List<Product> catalog, int maxScanned) {
+        when(productRepository.findByProductIdGreaterThanOrderByProductId(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    long after = invocation.getArgument(0);
+                    Limit limit = invocation.getArgument(1);
+                    return catalog.stream()
+                            .filter(product -> product.getProductId() > after)
+                            .sorted(Comparator.comparing(Product::getProductId))
+                            .limit(limit.max())
+                            .toList();
+                });
+        lenient().when(productRepository.findUpdatedAfter(anyLong(), anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    long updatedAt = invocation.getArgument(0);
+                    long after = invocation.getArgument(1);
+                    Limit limit = invocation.getArgument(2);
+                    return catalog.stream()
+                            .filter(product -> product.getUpdatedAt() > updatedAt
+                                    || product.getUpdatedAt() == updatedAt && product.getProductId() > after)
+                            .sorted(Comparator.comparing(Product::getUpdatedAt)
+                                    .thenComparing(Product::getProductId))
+                            .limit(limit.max())
+                            .toList();
+                });
+        // a zero interval leaves reconciling to the test
+        ProductSearchIndex index = new ProductSearchIndex(productRepository,
+                Mappers.getMapper(ProductMapper.class), hotStockLedger, new SimpleMeterRegistry(), maxScanned,
+                Duration.ZERO, OVERLAP);
+        index.load();
+        return index;
+    }
+
+    private static Product product(long id, String name, long price, long quantity) {
+        return Product.builder()
+                .productId(id)
+                .productName(name)
+                .price(price)
+                .quantity(quantity)
+                .updatedAt(UPDATED_AT)
+                .build();
+    }
+
+    private static List<Long> ids(ProductSearchResponse response) {
+        return response.getProducts().stream().map(ProductResponse::getProductId).toList();
+    }
+}
@@ -0,0 +1,238 @@
+package com.termiwum.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.termiwum.productservice.model.ReduceQuantityRequest;
+import com.termiwum.productservice.repository.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class HotStockLedgerTest {
+
+    private static final long PRODUCT_ID = 1;
+    private static final long STOCK = 1000;
+    private static final long LEASE_SIZE = 100;
+    private static final long DRAW_SIZE = 20;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    // the PRODUCT row every ledger leases from
+    private final AtomicLong row = new AtomicLong(STOCK);
+
+    // HOT_STOCK_LEASE: each ledger's undrawn lease and its last heartbeat, by owner
+    private final Map<String, Long> leases = new HashMap<>();
+    private final Map<String, Instant> heartbeats = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(productRepository.findQuantity(PRODUCT_ID)).thenAnswer(invocation -> row.get());
+        lenient().when(productRepository.reduceQuantity(eq(PRODUCT_ID), anyLong())).thenAnswer(invocation -> {
+            long quantity = invocation.getArgument(1);
+            long current;
+            do {
+                current = row.get();
+                if (current < quantity) {
+                    return 0;
+                }
+            } while (!row.compareAndSet(current, current - quantity));
+            return 1;
+        });
+        lenient().when(productRepository.restoreQuantities(anyList())).thenAnswer(invocation -> {
+            List<ReduceQuantityRequest> requests = invocation.getArgument(0);
+            requests.forEach(request -> row.addAndGet(request.getQuantity()));
+            return new int[] { 1 };
+        });
+        lenient().when(productRepository.leaseQuantity(anyString(), eq(PRODUCT_ID), anyLong()))
+                .thenAnswer(invocation -> lease(invocation.getArgument(0), invocation.getArgument(2)));
+        lenient().when(productRepository.drawLease(anyString(), eq(PRODUCT_ID), anyLong()))
+                .thenAnswer(invocation -> draw(invocation.getArgument(0), invocation.getArgument(2)));
+        lenient().when(productRepository.returnLeases(anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    List<ReduceQuantityRequest> unrecorded = invocation.getArgument(1);
+                    unrecorded.forEach(request -> row.addAndGet(request.getQuantity()));
+                    return putBack(invocation.getArgument(0));
+                });
+        lenient().when(productRepository.returnStaleLeases(any(Instant.class))).thenAnswer(invocation -> {
+            Instant staleBefore = invocation.getArgument(0);
+            List<ReduceQuantityRequest> returned = new ArrayList<>();
+            for (String owner : List.copyOf(heartbeats.keySet())) {
+                if (heartbeats.get(owner).isBefore(staleBefore)) {
+                    returned.addAll(putBack(owner));
+                }
+            }
+            return returned;
+        });
+    }
+
+    private synchronized boolean lease(String owner, long quantity) {
+        if (row.get() < quantity) {
+            return false;
+        }
+        row.addAndGet(-quantity);
+        leases.merge(owner, quantity, Long::sum);
+        heartbeats.put(owner, Instant.now());
+        return true;
+    }
+
+    private synchronized boolean draw(String owner, long quantity) {
+        Long leased = leases.get(owner);
+        if (leased == null || leased < quantity) {
+            return false;
+        }
+        leases.put(owner, leased - quantity);
+        return true;
+    }
+
+    private synchronized List<ReduceQuantityRequest> putBack(String owner) {
+        heartbeats.remove(owner);
+        Long leased = leases.remove(owner);
+        if (leased == null || leased == 0) {
+            return List.of();
+        }
+        row.addAndGet(leased);
+        return List.of(new ReduceQuantityRequest(PRODUCT_ID, leased));
+    }
+
+    private HotStockLedger startLedger() {
+        return startLedger(Duration.ofHours(1));
+    }
+
+    private HotStockLedger startLedger(Duration leaseTtl) {
+        // a long interval keeps the refill thread out of the way; leases are taken on demand
+        HotStockLedger hotStockLedger = new HotStockLedger(productRepository, true, List.of(PRODUCT_ID), 8,
+                LEASE_SIZE, DRAW_SIZE, Duration.ofHours(1), leaseTtl);
+        hotStockLedger.start();
+        return hotStockLedger;
+    }
+
+    @DisplayName("Hot SKU Ledger - Instances Leasing From One Row Sell Exactly The Stock")
+    @Test
+    void test_When_Concurrent_Reserve_On_Two_Instances_Expect_No_Oversell() throws Exception {
+        List<HotStockLedger> instances = List.of(startLedger(), startLedger());
+        AtomicLong sold = new AtomicLong();
+
+        try (ExecutorService clients = Executors.newFixedThreadPool(16)) {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int client = 0; client < 16; client++) {
+                // mixed sizes force reservations that span several stripes
+                long quantity = client % 4 + 1;
+                HotStockLedger instance = instances.get(client % 2);
+                runs.add(clients.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        if (instance.reserve(PRODUCT_ID, quantity)) {
+                            sold.addAndGet(quantity);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        }
+
+        for (HotStockLedger instance : instances) {
+            instance.stop();
+        }
+        // returned leases would push the row below zero had the instances sold more than it held
+        assertEquals(STOCK, sold.get() + row.get());
+        assertTrue(row.get() >= 0);
+    }
+
+    @DisplayName("Hot SKU Ledger - Order Bigger Than A Lease Leases What It Needs")
+    @Test
+    void test_When_Reserve_More_Than_Lease_Expect_Reserved() throws InterruptedException {
+        HotStockLedger hotStockLedger = startLedger();
+
+        assertTrue(hotStockLedger.reserve(PRODUCT_ID, 600));
+        assertFalse(hotStockLedger.reserve(PRODUCT_ID, 401));
+        assertEquals(400, hotStockLedger.available(PRODUCT_ID));
+        assertTrue(hotStockLedger.reserve(PRODUCT_ID, 400));
+        assertFalse(hotStockLedger.reserve(PRODUCT_ID, 1));
+
+        hotStockLedger.stop();
+        assertEquals(0, row.get());
+    }
+
+    @DisplayName("Hot SKU Ledger - Shutdown Returns The Unsold Lease")
+    @Test
+    void test_When_Stopped_Expect_Unsold_Lease_Returned() throws InterruptedException {
+        HotStockLedger hotStockLedger = startLedger();
+
+        assertTrue(hotStockLedger.reserve(PRODUCT_ID, 10));
+        assertEquals(STOCK - LEASE_SIZE, row.get());
+        assertEquals(STOCK - 10, hotStockLedger.available(PRODUCT_ID));
+
+        hotStockLedger.stop();
+
+        assertEquals(STOCK - 10, row.get());
+        assertFalse(hotStockLedger.reserve(PRODUCT_ID, 1));
+    }
+
+    @DisplayName("Hot SKU Ledger - Lease Of A Crashed Instance Comes Back Without Overselling")
+    @Test
+    void test_When_Instance_Crashes_Expect_Lease_Returned_By_Next_Start() throws InterruptedException {
+        HotStockLedger crashed = startLedger();
+        assertTrue(crashed.reserve(PRODUCT_ID, 10));
+        // leased 100, drew 20 and sold 10 of them; it never stops, so never returns its lease
+        assertEquals(STOCK - LEASE_SIZE, row.get());
+
+        Thread.sleep(5);
+        HotStockLedger survivor = startLedger(Duration.ZERO);
+
+        // the undrawn 80 came back; the 10 drawn but unsold stay with the crashed instance
+        assertEquals(STOCK - DRAW_SIZE, row.get());
+        long sold = 10;
+        while (survivor.reserve(PRODUCT_ID, 1)) {
+            sold++;
+        }
+        // had it only stalled, it can still sell what it drew, but not its returned lease
+        while (crashed.reserve(PRODUCT_ID, 1)) {
+            sold++;
+        }
+        assertEquals(STOCK, sold);
+
+        survivor.stop();
+        crashed.stop();
+        assertEquals(0, row.get());
+    }
+
+    @DisplayName("Hot SKU Ledger - Released Units Are Sold Again Or Go Back To The Table")
+    @Test
+    void test_When_Released_Expect_Stock_Back() throws InterruptedException {
+        HotStockLedger hotStockLedger = startLedger();
+
+        assertTrue(hotStockLedger.reserve(PRODUCT_ID, 10));
+        hotStockLedger.release(PRODUCT_ID, 10);
+        assertEquals(STOCK, hotStockLedger.available(PRODUCT_ID));
+
+        hotStockLedger.stop();
+        hotStockLedger.release(PRODUCT_ID, 5);
+        assertEquals(STOCK + 5, row.get());
+    }
+}
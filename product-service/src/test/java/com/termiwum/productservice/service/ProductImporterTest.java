@@ -0,0 +1,140 @@
+package com.termiwum.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.mapper.ProductMapperImpl;
+import com.termiwum.productservice.model.ProductImportResponse;
+import com.termiwum.productservice.repository.ProductRepository;
+import com.termiwum.productservice.search.ProductSearchIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+@DataJpaTest
+@ContextConfiguration(classes = ProductImporterTest.ImportConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Log4j2
+public class ProductImporterTest {
+
+    private static final int PRODUCTS = 50_000;
+
+    @Autowired
+    private ProductImporter productImporter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private HotStockLedger hotStockLedger;
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    @EntityScan(basePackageClasses = Product.class)
+    @Import({ ProductImporter.class, ProductMapperImpl.class, ProductSearchIndex.class })
+    static class ImportConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @DisplayName("Product Import - NDJSON Streamed In Batches")
+    @Test
+    void test_When_Import_Ndjson_then_All_Products_Saved() {
+        long start = System.nanoTime();
+        ProductImportResponse response = productImporter.importProducts(ndjson(PRODUCTS), ProductImporter.NDJSON);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("imported {} products in {} s ({} products/s)", response.getAccepted(), seconds,
+                Math.round(PRODUCTS / seconds));
+
+        assertEquals(PRODUCTS, response.getAccepted());
+        assertEquals(0, response.getRejected());
+        assertEquals(PRODUCTS, productRepository.count());
+    }
+
+    @DisplayName("Product Import - CSV Bad Rows Rejected And Reported")
+    @Test
+    void test_When_Import_Csv_With_Bad_Rows_then_Rest_Saved() {
+        String csv = """
+                quantity,name,price
+                10,"Phone, 128GB",500
+                5,Case,abc
+                3,,20
+
+                7,"Cable ""USB-C\""",15
+                1,Charger
+                """;
+
+        ProductImportResponse response = productImporter.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ProductImporter.CSV);
+
+        assertEquals(2, response.getAccepted());
+        assertEquals(3, response.getRejected());
+        assertEquals(3, response.getErrors().size());
+        assertTrue(response.getErrors().get(0).startsWith("line 3: price"));
+
+        List<String> names = productRepository.findAll().stream().map(Product::getProductName).sorted().toList();
+        assertEquals(List.of("Cable \"USB-C\"", "Phone, 128GB"), names);
+    }
+
+    /**
+     * Generates the rows while they are read, so the upload is never held in
+     * memory.
+     */
+    private static InputStream ndjson(int rows) {
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+
+            private int row;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                row++;
+                String line = "{\"name\":\"product-" + row + "\",\"price\":" + row + ",\"quantity\":100}\n";
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
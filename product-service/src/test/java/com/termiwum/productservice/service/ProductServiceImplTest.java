@@ -0,0 +1,128 @@
+package com.termiwum.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.termiwum.productservice.cache.ProductResponseCache;
+import com.termiwum.productservice.cache.RedisProductCache;
+import com.termiwum.productservice.entity.Product;
+import com.termiwum.productservice.exception.CustomException;
+import com.termiwum.productservice.mapper.ProductMapper;
+import com.termiwum.productservice.model.ProductLookupResponse;
+import com.termiwum.productservice.model.ProductResponse;
+import com.termiwum.productservice.model.RestoreQuantityRequest;
+import com.termiwum.productservice.repository.ProductRepository;
+import com.termiwum.productservice.search.ProductSearchIndex;
+import com.termiwum.productservice.stream.ProductChangeStream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private HotStockLedger hotStockLedger;
+
+    @Mock
+    private ObjectProvider<RedisProductCache> redisProductCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductChangeStream productChangeStream;
+
+    @Spy
+    private ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productService, "productResponseCache",
+                new ProductResponseCache(redisProductCache, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(productService, "maxLookupIds", 3);
+        ReflectionTestUtils.setField(productService, "maxLookupBodyIds", 5);
+    }
+
+    @DisplayName("Get Products - Missing Ids Reported")
+    @Test
+    void test_When_Some_Ids_Missing_then_Reported() {
+        when(productRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(getMockProduct(1),
+                getMockProduct(3)));
+
+        ProductLookupResponse lookup = productService.getByIds(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(List.of(1L, 3L), lookup.getProducts().stream().map(ProductResponse::getProductId).toList());
+        assertEquals(List.of(2L), lookup.getMissingIds());
+    }
+
+    @DisplayName("Get Products - Too Many Ids Rejected")
+    @Test
+    void test_When_Too_Many_Ids_then_Rejected() {
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.getByIds(LongStream.rangeClosed(1, 4).boxed().toList()));
+
+        assertEquals("TOO_MANY_IDS", exception.getErrorCode());
+        assertEquals(400, exception.getStatus());
+        verifyNoInteractions(productRepository);
+    }
+
+    @DisplayName("Get Products - Body Lookup Has Its Own Higher Cap")
+    @Test
+    void test_When_Body_Lookup_Over_Query_Cap_then_Accepted() {
+        List<Long> ids = LongStream.rangeClosed(1, 5).boxed().toList();
+        when(productRepository.findAllById(ids)).thenReturn(List.of(getMockProduct(1)));
+
+        ProductLookupResponse lookup = productService.lookup(ids);
+
+        assertEquals(List.of(2L, 3L, 4L, 5L), lookup.getMissingIds());
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.lookup(LongStream.rangeClosed(1, 6).boxed().toList()));
+        assertEquals("TOO_MANY_IDS", exception.getErrorCode());
+    }
+
+    private Product getMockProduct(long productId) {
+        return Product.builder()
+                .productId(productId)
+                .productName("iPhone")
+                .price(100)
+                .quantity(10)
+                .build();
+    }
+
+    @DisplayName("Restore Quantities - Line Without Order Or Positive Quantity Rejected")
+    @Test
+    void test_When_Restore_Quantity_Not_Positive_then_Rejected() {
+        CustomException exception = assertThrows(CustomException.class,
+                () -> productService.restoreQuantities(List.of(
+                        new RestoreQuantityRequest(7, 1, 2),
+                        new RestoreQuantityRequest(7, 2, -5))));
+
+        assertEquals("INVALID_RESTORATION", exception.getErrorCode());
+        assertEquals(400, exception.getStatus());
+        verifyNoInteractions(productRepository, hotStockLedger);
+    }
+}
@@ -0,0 +1,196 @@
+package com.termiwum.productservice.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.termiwum.productservice.model.ProductResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+@ExtendWith(MockitoExtension.class)
+@Log4j2
+public class ProductChangeStreamTest {
+
+    private static final int IDLE_SUBSCRIBERS = 20_000;
+
+    @Mock
+    private ObjectProvider<RedisProductChangeRelay> relayProvider;
+
+    @Mock
+    private RedisProductChangeRelay redisProductChangeRelay;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProductChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = stream(null);
+    }
+
+    private ProductChangeStream stream(RedisProductChangeRelay relay) {
+        when(relayProvider.getIfAvailable()).thenReturn(relay);
+        // flushed by hand; heartbeats only when a test asks for them
+        return new ProductChangeStream(relayProvider, Duration.ofHours(1), Duration.ofHours(1),
+                Duration.ofMinutes(30), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        stream.stop();
+    }
+
+    @DisplayName("Product Stream - Burst Coalesced To The Latest Change")
+    @Test
+    void test_When_Burst_Of_Changes_then_Latest_Sent_Once() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.register(List.of(1L, 2L), () -> List.of(product(1, 10)), emitter);
+
+        stream.publish(product(1, 9));
+        stream.publish(product(1, 8));
+        stream.publish(product(2, 5));
+        stream.publish(product(3, 1));
+        stream.flush();
+
+        await(() -> emitter.products.size() == 2);
+        assertEquals(Set.of("1:8", "2:5"), Set.copyOf(emitter.products));
+        assertEquals(2.0, meterRegistry.get("product.stream.coalesced").counter().count());
+
+        stream.flush();
+        assertEquals(2, emitter.products.size());
+    }
+
+    @DisplayName("Product Stream - Gone Client Unsubscribed")
+    @Test
+    void test_When_Send_Fails_then_Subscriber_Removed() {
+        stream.register(List.of(1L), List::of, new RecordingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+        assertEquals(1, stream.subscriberCount());
+
+        stream.publish(product(1, 9));
+        stream.flush();
+
+        await(() -> stream.subscriberCount() == 0);
+    }
+
+    @DisplayName("Product Stream - Many Idle Subscribers Fan Out")
+    @Test
+    void test_When_Many_Subscribers_then_Each_Gets_The_Change() {
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < IDLE_SUBSCRIBERS; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            stream.register(List.of(1L, 2L, 3L), List::of, emitter);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        log.info("{} idle subscribers, heap used {} MB", IDLE_SUBSCRIBERS,
+                (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+
+        long start = System.nanoTime();
+        stream.publish(product(2, 4));
+        stream.flush();
+        await(() -> emitters.stream().allMatch(emitter -> emitter.products.size() == 1));
+
+        log.info("one change fanned out to {} subscribers in {} ms", IDLE_SUBSCRIBERS,
+                (System.nanoTime() - start) / 1_000_000);
+        assertTrue(emitters.stream().allMatch(emitter -> emitter.products.peek().equals("2:4")));
+    }
+
+    @DisplayName("Product Stream - Change During Snapshot Wins Over It")
+    @Test
+    void test_When_Change_Races_Snapshot_then_Change_Kept() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.register(List.of(1L, 2L), () -> {
+            // sold while the snapshot was being read
+            stream.publish(product(1, 7));
+            return List.of(product(1, 10), product(2, 3));
+        }, emitter);
+        stream.flush();
+
+        await(() -> emitter.products.size() == 2);
+        assertEquals(Set.of("1:7", "2:3"), Set.copyOf(emitter.products));
+    }
+
+    @DisplayName("Product Stream - Changes Relayed Between Instances")
+    @Test
+    void test_When_Relay_Enabled_then_Changes_Cross_Instances() throws InterruptedException {
+        stream.stop();
+        stream = stream(redisProductChangeRelay);
+        stream.start();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<ProductResponse>> remoteChanges = ArgumentCaptor.forClass(Consumer.class);
+        verify(redisProductChangeRelay).onRemoteChange(remoteChanges.capture());
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.register(List.of(1L), List::of, emitter);
+
+        stream.publish(product(1, 9));
+        verify(redisProductChangeRelay).publish(any(ProductResponse.class));
+        remoteChanges.getValue().accept(product(1, 4));
+        stream.flush();
+
+        await(() -> emitter.products.contains("1:4"));
+        assertEquals(List.of("1:4"), List.copyOf(emitter.products));
+    }
+
+    private static ProductResponse product(long productId, long quantity) {
+        return ProductResponse.builder()
+                .productId(productId)
+                .productName("product-" + productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Keeps the products it is sent as "id:quantity" instead of writing them.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final Queue<String> products = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (var data : builder.build()) {
+                if (data.getData() instanceof ProductResponse product) {
+                    products.add(product.getProductId() + ":" + product.getQuantity());
+                }
+            }
+        }
+    }
+}
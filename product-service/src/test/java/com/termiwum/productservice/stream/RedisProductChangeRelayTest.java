@@ -0,0 +1,54 @@
+package com.termiwum.productservice.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.termiwum.productservice.model.ProductResponse;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisProductChangeRelayTest {
+
+    private static final String CHANNEL = "product-service:product-changes";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @DisplayName("Product Change Relay - Other Instances Get The Change, The Sender Does Not")
+    @Test
+    void test_When_Change_Published_then_Only_Other_Instances_Deliver() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        RedisProductChangeRelay sender = new RedisProductChangeRelay(redisTemplate, objectMapper);
+        RedisProductChangeRelay receiver = new RedisProductChangeRelay(redisTemplate, objectMapper);
+        List<ProductResponse> sent = new ArrayList<>();
+        List<ProductResponse> received = new ArrayList<>();
+        sender.onRemoteChange(sent::add);
+        receiver.onRemoteChange(received::add);
+
+        sender.publish(ProductResponse.builder().productId(1).productName("Phone").quantity(4).build());
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), json.capture());
+        DefaultMessage message = new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                json.getValue().getBytes(StandardCharsets.UTF_8));
+        sender.onMessage(message, null);
+        receiver.onMessage(message, null);
+
+        assertEquals(List.of(), sent);
+        assertEquals(1, received.size());
+        assertEquals(4, received.get(0).getQuantity());
+    }
+}
@@ -91,6 +91,12 @@ function Start-Databases {
 function Build-MicroserviceImages {
     Write-Host "🏗️  Construyendo imágenes de microservicios..." -ForegroundColor Cyan
     
+    # order-service y cloud-gateway dependen de esta librería
+    Write-Host "🔨 Instalando loadbalancer-support..." -ForegroundColor Yellow
+    Push-Location loadbalancer-support
+    .\mvnw.cmd clean install -DskipTests -q
+    Pop-Location
+
     $services = @("service-registry", "config-server", "product-service", "payment-service", "order-service", "cloud-gateway")
     
     foreach ($service in $services) {
@@ -81,6 +81,10 @@ setup_databases() {
 build_images() {
     echo "🏗️  Construyendo imágenes de microservicios..."
     
+    # order-service y cloud-gateway dependen de esta librería
+    echo "🔨 Instalando loadbalancer-support..."
+    (cd loadbalancer-support && ./mvnw clean install -DskipTests -q)
+
     services=("service-registry" "config-server" "product-service" "payment-service" "order-service" "cloud-gateway")
     
     for service in "${services[@]}"; do